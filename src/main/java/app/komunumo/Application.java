@@ -19,7 +19,10 @@ package app.komunumo;
 
 import app.komunumo.domain.core.config.entity.AppConfig;
 import app.komunumo.domain.core.image.boundary.ImageServlet;
+import app.komunumo.domain.core.image.control.FileSystemImageStore;
 import app.komunumo.domain.core.image.control.ImageService;
+import app.komunumo.domain.core.image.control.ImageStore;
+import app.komunumo.domain.core.image.control.S3ImageStore;
 import com.vaadin.flow.component.dependency.StyleSheet;
 import com.vaadin.flow.component.page.AppShellConfigurator;
 import com.vaadin.flow.component.page.Push;
@@ -101,6 +104,22 @@ public class Application extends SpringBootServletInitializer implements AppShel
         }
     }
 
+    /**
+     * <p>Creates the {@link ImageStore} holding the original image files.</p>
+     *
+     * <p>If an S3-compatible object storage is configured, the images are stored in its bucket, so several nodes
+     * can share them. Otherwise, the images are stored on the local file system only.</p>
+     *
+     * @return the image store to use
+     */
+    @Bean
+    public @NotNull ImageStore imageStore() {
+        final var s3Config = appConfig.files().s3();
+        return s3Config != null && s3Config.enabled()
+                ? new S3ImageStore(s3Config)
+                : new FileSystemImageStore();
+    }
+
     /**
      * <p>Registers the {@link ImageServlet} to handle HTTP requests to {@code /images/*}.</p>
      *
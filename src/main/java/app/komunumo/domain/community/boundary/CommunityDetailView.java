@@ -23,7 +23,7 @@ import app.komunumo.domain.community.entity.CommunityWithImageDto;
 import app.komunumo.domain.core.config.control.ConfigurationService;
 import app.komunumo.domain.core.layout.boundary.WebsiteLayout;
 import app.komunumo.domain.event.boundary.CreateEventView;
-import app.komunumo.domain.event.boundary.EventGrid;
+import app.komunumo.domain.event.boundary.PagedEventGrid;
 import app.komunumo.domain.event.control.EventService;
 import app.komunumo.domain.member.control.MemberService;
 import app.komunumo.domain.user.control.LoginService;
@@ -54,6 +54,8 @@ import org.ocpsoft.prettytime.PrettyTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
@@ -238,19 +240,23 @@ public final class CommunityDetailView extends AbstractView implements BeforeEnt
     }
 
     private Component getUpcomingEventsComponent(final @NotNull CommunityDto community) {
-        final var events = eventService.getUpcomingEventsWithImage(community);
+        final var now = ZonedDateTime.now(ZoneOffset.UTC); // the same for all pages of the listing
+        final var events = new PagedEventGrid(cursor ->
+                eventService.getUpcomingEventsWithImage(community, now, cursor, PagedEventGrid.PAGE_SIZE));
         if (events.isEmpty()) {
             return new Paragraph(getTranslation("community.boundary.CommunityDetailView.noUpcomingEvents"));
         }
-        return new EventGrid(events);
+        return events;
     }
 
     private Component getPastEventsComponent(final @NotNull CommunityDto community) {
-        final var events = eventService.getPastEventsWithImage(community);
+        final var now = ZonedDateTime.now(ZoneOffset.UTC); // the same for all pages of the listing
+        final var events = new PagedEventGrid(cursor ->
+                eventService.getPastEventsWithImage(community, now, cursor, PagedEventGrid.PAGE_SIZE));
         if (events.isEmpty()) {
             return new Paragraph(getTranslation("community.boundary.CommunityDetailView.noPastEvents"));
         }
-        return new EventGrid(events);
+        return events;
     }
 
     @Override
@@ -18,7 +18,6 @@
 package app.komunumo.domain.community.control;
 
 import app.komunumo.data.db.Tables;
-import app.komunumo.data.db.tables.records.CommunityRecord;
 import app.komunumo.domain.community.entity.CommunityDto;
 import app.komunumo.domain.community.entity.CommunityWithImageDto;
 import app.komunumo.domain.core.image.entity.ImageDto;
@@ -46,15 +45,16 @@ public final class CommunityService extends StorageService {
 
     public CommunityService(final @NotNull DSLContext dsl,
                             final @NotNull UniqueIdGenerator idGenerator) {
-        super(idGenerator);
+        super(dsl, idGenerator);
         this.dsl = dsl;
     }
 
     public @NotNull CommunityDto storeCommunity(final @NotNull CommunityDto community) {
-        final CommunityRecord communityRecord = dsl.fetchOptional(COMMUNITY, COMMUNITY.ID.eq(community.id()))
-                .orElse(dsl.newRecord(COMMUNITY));
-        createOrUpdate(COMMUNITY, community, communityRecord);
-        return communityRecord.into(CommunityDto.class);
+        return createOrUpdate(COMMUNITY, community).into(CommunityDto.class);
+    }
+
+    public void storeCommunities(final @NotNull List<@NotNull CommunityDto> communities) {
+        createOrUpdateAll(COMMUNITY, communities);
     }
 
     public @NotNull Optional<CommunityDto> getCommunity(final @NotNull UUID id) {
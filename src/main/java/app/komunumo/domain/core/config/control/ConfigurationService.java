@@ -20,37 +20,94 @@ package app.komunumo.domain.core.config.control;
 import app.komunumo.domain.core.config.entity.ConfigurationSetting;
 import app.komunumo.util.LinkUtil;
 import app.komunumo.util.LocaleUtil;
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jooq.DSLContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import static app.komunumo.data.db.tables.Config.CONFIG;
+import static app.komunumo.data.db.tables.ConfigChange.CONFIG_CHANGE;
 
 /**
  * <p>Service for reading and writing instance configuration values.</p>
  *
- * <p>Values are stored in the {@code config} table and optionally cached in-memory using Caffeine.
- * Language-dependent lookups fall back to English and then to the neutral (language-independent)
- * value before returning the setting’s default.</p>
+ * <p>Values are stored in the {@code config} table. The whole table is loaded with a single query
+ * into an immutable in-memory snapshot, which is replaced atomically after every change, so reads
+ * never hit the database and never lock. Language-dependent lookups fall back to English and then
+ * to the neutral (language-independent) value before returning the setting’s default.</p>
+ *
+ * <p>Every change is recorded in the {@code config_change} table, in the same transaction as the
+ * change itself. Each node polls this change log and reloads its snapshot if other nodes changed
+ * values, so multiple nodes sharing the same database never serve stale configuration for longer
+ * than the polling interval.</p>
+ *
+ * <p>Changes made within a surrounding transaction (e.g. a reset of the demo data) reload the
+ * snapshot only once after the transaction has been committed, so other threads never see
+ * uncommitted values, and a rolled back transaction leaves the snapshot untouched.</p>
  */
 @Service
 public class ConfigurationService {
 
+    /**
+     * <p>How long changes are kept in the change log.</p>
+     */
+    private static final @NotNull Duration CHANGE_LOG_RETENTION = Duration.ofHours(1);
+
+    /**
+     * <p>How far back each poll re-reads the change log. IDs are allocated on insert but become
+     * visible on commit, so a change with a lower ID can show up after a change with a higher ID.
+     * The overlap also covers clock differences between the nodes.</p>
+     */
+    private static final @NotNull Duration CHANGE_POLL_OVERLAP = Duration.ofMinutes(1);
+
+    private static final @NotNull Logger LOGGER = LoggerFactory.getLogger(ConfigurationService.class);
+
     /**
      * <p>jOOQ context used for database access.</p>
      */
     private final @NotNull DSLContext dsl;
 
     /**
-     * <p>In-memory cache keyed by setting and language code, storing optional string values.</p>
+     * <p>Immutable snapshot of all stored values, keyed by setting and language code, or
+     * {@code null} if it was not loaded yet. Once loaded, it is only ever replaced, never cleared,
+     * so readers keep using the current snapshot while a new one is loaded.</p>
+     */
+    private volatile @Nullable Map<@NotNull ConfigurationSetting, @NotNull Map<@NotNull String, @NotNull String>> snapshot;
+
+    /**
+     * <p>IDs of the entries of the change log within the overlap of the last poll, which were
+     * already applied to the snapshot.</p>
+     */
+    private @NotNull Set<@NotNull Long> appliedChangeIds = Set.of();
+
+    /**
+     * <p>Time of the last poll of the change log.</p>
+     */
+    private @NotNull Instant lastChangePoll = Instant.EPOCH;
+
+    /**
+     * <p>Key of the transaction resource marking that a reload after the commit is registered
+     * already for the current transaction.</p>
      */
-    private final @NotNull Cache<@NotNull CacheKey, @NotNull Optional<@Nullable String>> cache;
+    private final @NotNull Object reloadAfterCommitKey = new Object();
 
     /**
      * <p>Creates a new configuration service backed by the given jOOQ context.</p>
@@ -60,9 +117,6 @@ public class ConfigurationService {
     public ConfigurationService(final @NotNull DSLContext dsl) {
         super();
         this.dsl = dsl;
-        this.cache = Caffeine.newBuilder()
-                .maximumSize(1_000)
-                .build();
         LinkUtil.initialize(this);
     }
 
@@ -135,13 +189,17 @@ public class ConfigurationService {
                                            final @NotNull Class<T> type) {
         checkLocale(setting, locale);
         final var languageCode = LocaleUtil.getLanguageCode(locale);
-        final var value = locale == null
-                ? getFromCacheOrDb(setting, "")
-                        .orElse(setting.defaultValue())
-                : getFromCacheOrDb(setting, languageCode)
-                        .or(() -> getFromCacheOrDb(setting, "EN"))
-                        .or(() -> getFromCacheOrDb(setting, ""))
-                        .orElse(setting.defaultValue());
+        final var values = getSnapshot().getOrDefault(setting, Map.of());
+        var value = values.get(languageCode);
+        if (value == null && locale != null) {
+            value = values.get("EN");
+            if (value == null) {
+                value = values.get("");
+            }
+        }
+        if (value == null) {
+            value = setting.defaultValue();
+        }
 
         if (type == String.class) {
             return type.cast(value);
@@ -168,29 +226,99 @@ public class ConfigurationService {
                                                            final @Nullable Locale locale) {
         checkLocale(setting, locale);
         final var languageCode = LocaleUtil.getLanguageCode(locale);
-        return getFromCacheOrDb(setting, languageCode)
-                .orElse(setting.defaultValue());
+        return getSnapshot().getOrDefault(setting, Map.of())
+                .getOrDefault(languageCode, setting.defaultValue());
     }
 
     /**
-     * <p>Resolves a configuration value from the cache or loads it from the database.</p>
+     * <p>Returns the current snapshot of all stored values, loading it if necessary.</p>
      *
-     * <p>The result is cached as an {@code Optional<String>} (empty if no row exists) keyed by
-     * {@link CacheKey}.</p>
+     * @return the immutable snapshot
+     */
+    private @NotNull Map<@NotNull ConfigurationSetting, @NotNull Map<@NotNull String, @NotNull String>> getSnapshot() {
+        final var currentSnapshot = snapshot;
+        return currentSnapshot != null ? currentSnapshot : loadSnapshot();
+    }
+
+    /**
+     * <p>Loads the first snapshot. Readers which waited for another reader loading it use that
+     * snapshot instead of loading it again.</p>
      *
-     * @param setting the configuration setting
-     * @param language the ISO language code (e.g., {@code "EN"}) or empty string for neutral
-     * @return an optional containing the value if present
+     * @return the current snapshot
      */
-    private @NotNull Optional<String> getFromCacheOrDb(final @NotNull ConfigurationSetting setting,
-                                                       final @NotNull String language) {
-        return cache.get(new CacheKey(setting, language), cacheKey ->
-                dsl.select(CONFIG.VALUE)
-                        .from(CONFIG)
-                        .where(CONFIG.SETTING.eq(cacheKey.setting.setting()))
-                        .and(CONFIG.LANGUAGE.eq(language))
-                        .fetchOptional(CONFIG.VALUE)
-        );
+    private synchronized @NotNull Map<@NotNull ConfigurationSetting, @NotNull Map<@NotNull String, @NotNull String>>
+            loadSnapshot() {
+        final var currentSnapshot = snapshot;
+        if (currentSnapshot != null) {
+            return currentSnapshot;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // values read within a transaction may not be committed, so they are not published
+            reloadSnapshotAfterCommit();
+            return readSnapshot();
+        }
+        return reloadSnapshot();
+    }
+
+    /**
+     * <p>Loads all stored values with a single query and replaces the snapshot.</p>
+     *
+     * <p>Reloads are serialized, so a snapshot loaded after a write can never be replaced by a
+     * snapshot loaded before it.</p>
+     *
+     * @return the new snapshot
+     */
+    private synchronized @NotNull Map<@NotNull ConfigurationSetting, @NotNull Map<@NotNull String, @NotNull String>>
+            reloadSnapshot() {
+        final var newSnapshot = readSnapshot();
+        snapshot = newSnapshot;
+        return newSnapshot;
+    }
+
+    /**
+     * <p>Reloads the snapshot after the surrounding transaction has been committed, or immediately
+     * if there is no surrounding transaction. Within a transaction, the reload is registered only
+     * once, no matter how many values are changed.</p>
+     */
+    private void reloadSnapshotAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reloadSnapshot();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(reloadAfterCommitKey)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(reloadAfterCommitKey, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(final int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(reloadAfterCommitKey);
+                if (status == STATUS_COMMITTED) {
+                    reloadSnapshot();
+                }
+            }
+        });
+    }
+
+    /**
+     * <p>Reads all stored values with a single query.</p>
+     *
+     * @return the values as an immutable snapshot
+     */
+    private @NotNull Map<@NotNull ConfigurationSetting, @NotNull Map<@NotNull String, @NotNull String>> readSnapshot() {
+        final var values = new EnumMap<ConfigurationSetting, Map<String, String>>(ConfigurationSetting.class);
+        dsl.select(CONFIG.SETTING, CONFIG.LANGUAGE, CONFIG.VALUE)
+                .from(CONFIG)
+                .forEach(row -> {
+                    try {
+                        values.computeIfAbsent(ConfigurationSetting.fromString(row.get(CONFIG.SETTING)), _ -> new HashMap<>())
+                                .put(row.get(CONFIG.LANGUAGE), row.get(CONFIG.VALUE));
+                    } catch (final IllegalArgumentException e) {
+                        LOGGER.debug("Ignoring unknown configuration setting '{}'", row.get(CONFIG.SETTING));
+                    }
+                });
+        values.replaceAll((_, languageValues) -> Map.copyOf(languageValues));
+        return Collections.unmodifiableMap(values);
     }
 
     /**
@@ -210,7 +338,7 @@ public class ConfigurationService {
     /**
      * <p>Stores a configuration value for the given locale, inserting or updating the row.</p>
      *
-     * <p>After write, all cache entries for the given setting are invalidated.</p>
+     * <p>After write, the snapshot is reloaded on all nodes.</p>
      *
      * @param setting the configuration setting
      * @param locale the locale for the value, {@code null} for language-independent
@@ -224,22 +352,83 @@ public class ConfigurationService {
         final var dbValue = value.toString();
         final var languageCode = LocaleUtil.getLanguageCode(locale);
 
-        dsl.insertInto(CONFIG)
-                .set(CONFIG.SETTING, setting.setting())
-                .set(CONFIG.LANGUAGE, languageCode)
-                .set(CONFIG.VALUE, dbValue)
-                .onDuplicateKeyUpdate()
-                .set(CONFIG.VALUE, dbValue)
+        dsl.transaction(configuration -> {
+            final var tx = configuration.dsl();
+            tx.insertInto(CONFIG)
+                    .set(CONFIG.SETTING, setting.setting())
+                    .set(CONFIG.LANGUAGE, languageCode)
+                    .set(CONFIG.VALUE, dbValue)
+                    .onDuplicateKeyUpdate()
+                    .set(CONFIG.VALUE, dbValue)
+                    .execute();
+            recordChange(tx, setting.setting(), languageCode);
+        });
+        reloadSnapshotAfterCommit();
+    }
+
+    /**
+     * <p>Reloads all cached configuration entries from the database. Readers keep getting the
+     * previous values until the reload has finished. Within a transaction, the entries are reloaded
+     * after the commit.</p>
+     */
+    public void clearCache() {
+        reloadSnapshotAfterCommit();
+    }
+
+    /**
+     * <p>Records a change of a configuration value in the change log, so other nodes reload their
+     * snapshot.</p>
+     *
+     * @param tx the jOOQ context of the transaction which changes the value
+     * @param setting the key of the changed setting, or an empty string if all settings were changed
+     * @param language the ISO language code of the changed value or empty string for neutral
+     */
+    private static void recordChange(final @NotNull DSLContext tx,
+                                     final @NotNull String setting,
+                                     final @NotNull String language) {
+        tx.insertInto(CONFIG_CHANGE)
+                .set(CONFIG_CHANGE.SETTING, setting)
+                .set(CONFIG_CHANGE.LANGUAGE, language)
+                .set(CONFIG_CHANGE.CHANGED, ZonedDateTime.now(ZoneOffset.UTC))
                 .execute();
+    }
 
-        cache.asMap().keySet().removeIf(cacheKey -> cacheKey.setting().equals(setting));
+    /**
+     * <p>Applies the changes made by other nodes by reloading the snapshot, if there are any.</p>
+     *
+     * <p>Each poll re-reads the changes since the previous poll minus {@link #CHANGE_POLL_OVERLAP}
+     * and reloads the snapshot if any of them was not applied yet, so changes which became visible
+     * late are not skipped. On the first poll, and if this node has not polled for longer than
+     * changes are kept in the change log, the snapshot is always reloaded, because changes may have
+     * been missed.</p>
+     */
+    @Scheduled(fixedDelay = 5, timeUnit = TimeUnit.SECONDS)
+    public synchronized void pollConfigurationChanges() {
+        final var now = Instant.now();
+        final var missedChanges = lastChangePoll.isBefore(now.minus(CHANGE_LOG_RETENTION.dividedBy(2)));
+        final var since = (missedChanges ? now : lastChangePoll).minus(CHANGE_POLL_OVERLAP);
+        lastChangePoll = now;
+
+        final var changeIds = Set.copyOf(dsl.select(CONFIG_CHANGE.ID)
+                .from(CONFIG_CHANGE)
+                .where(CONFIG_CHANGE.CHANGED.ge(ZonedDateTime.ofInstant(since, ZoneOffset.UTC)))
+                .fetch(CONFIG_CHANGE.ID));
+        final var newChanges = !appliedChangeIds.containsAll(changeIds);
+        appliedChangeIds = changeIds;
+
+        if (missedChanges || newChanges) {
+            reloadSnapshot();
+        }
     }
 
     /**
-     * <p>Clears all cached configuration entries.</p>
+     * <p>Removes old entries from the change log.</p>
      */
-    public void clearCache() {
-        cache.invalidateAll();
+    @Scheduled(cron = "0 */10 * * * *")
+    public void cleanupConfigurationChanges() {
+        dsl.deleteFrom(CONFIG_CHANGE)
+                .where(CONFIG_CHANGE.CHANGED.lt(ZonedDateTime.now(ZoneOffset.UTC).minus(CHANGE_LOG_RETENTION)))
+                .execute();
     }
 
     /**
@@ -256,7 +445,7 @@ public class ConfigurationService {
     /**
      * <p>Deletes the configuration value for the given setting and locale.</p>
      *
-     * <p>After deletion, all cache entries for the given setting are invalidated.</p>
+     * <p>After deletion, the snapshot is reloaded on all nodes.</p>
      *
      * @param setting the configuration setting to delete
      * @param locale the locale of the value to delete, {@code null} for language-independent
@@ -266,23 +455,30 @@ public class ConfigurationService {
         checkLocale(setting, locale);
         final var languageCode = LocaleUtil.getLanguageCode(locale);
 
-        dsl.deleteFrom(CONFIG)
-                .where(CONFIG.SETTING.eq(setting.setting()))
-                .and(CONFIG.LANGUAGE.eq(languageCode))
-                .execute();
-
-        cache.asMap().keySet().removeIf(cacheKey -> cacheKey.setting().equals(setting));
+        dsl.transaction(configuration -> {
+            final var tx = configuration.dsl();
+            tx.deleteFrom(CONFIG)
+                    .where(CONFIG.SETTING.eq(setting.setting()))
+                    .and(CONFIG.LANGUAGE.eq(languageCode))
+                    .execute();
+            recordChange(tx, setting.setting(), languageCode);
+        });
+        reloadSnapshotAfterCommit();
     }
 
 
     /**
-     * <p>Deletes all configuration rows and clears the cache.</p>
+     * <p>Deletes all configuration rows and reloads the snapshot.</p>
      *
      * <p>Only administrators are allowed to perform full deletion.</p>
      */
     public void deleteAllConfigurations() {
-        dsl.delete(CONFIG).execute();
-        clearCache();
+        dsl.transaction(configuration -> {
+            final var tx = configuration.dsl();
+            tx.delete(CONFIG).execute();
+            recordChange(tx, "", "");
+        });
+        reloadSnapshotAfterCommit();
     }
 
     /**
@@ -309,15 +505,4 @@ public class ConfigurationService {
         }
     }
 
-    /**
-     * <p>Cache key combining a configuration setting with a language code.</p>
-     *
-     * <p>The language code is an ISO code (e.g., {@code "EN"}) or an empty string to indicate the
-     * neutral (language-independent) value.</p>
-     *
-     * @param setting the configuration setting
-     * @param language the ISO language code or empty string for neutral
-     */
-    private record CacheKey(@NotNull ConfigurationSetting setting, @Nullable String language) { }
-
 }
@@ -18,7 +18,8 @@
 package app.komunumo.domain.core.config.entity;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.nio.file.Path;
 
-public record FilesConfig(@NotNull Path basedir) { }
+public record FilesConfig(@NotNull Path basedir, @Nullable S3Config s3) { }
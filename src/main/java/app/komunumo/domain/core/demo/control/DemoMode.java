@@ -26,21 +26,61 @@ import app.komunumo.domain.core.mail.control.MailService;
 import app.komunumo.domain.event.control.EventService;
 import app.komunumo.domain.page.control.GlobalPageService;
 import app.komunumo.domain.core.image.control.ImageService;
+import app.komunumo.domain.core.image.entity.ImageDto;
 import app.komunumo.domain.member.control.MemberService;
 import app.komunumo.domain.participant.control.ParticipantService;
 import app.komunumo.domain.user.control.UserService;
+import app.komunumo.util.DownloadUtil;
 import app.komunumo.util.ImageUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jooq.DSLContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static app.komunumo.data.db.tables.Community.COMMUNITY;
+import static app.komunumo.data.db.tables.Event.EVENT;
+import static app.komunumo.data.db.tables.GlobalPage.GLOBAL_PAGE;
+import static app.komunumo.data.db.tables.Member.MEMBER;
+import static app.komunumo.data.db.tables.Participant.PARTICIPANT;
+import static app.komunumo.data.db.tables.User.USER;
+
+/**
+ * <p>Resets the data of a demo instance to the configured demo data every hour.</p>
+ *
+ * <p>The demo data is downloaded once and kept in a local file for {@link #DEMO_DATA_MAX_AGE}, so a reset does not
+ * depend on the availability of the demo data source. All data is deleted with a few bulk statements, in the order of
+ * the foreign keys, and the demo data is imported in bulk mode, all in a single transaction. Visitors keep seeing the
+ * previous demo data, including the previous configuration, until the new demo data is committed, and a failed reset
+ * leaves the previous demo data in place. Images are immutable, so the images of the demo data are kept and not
+ * downloaded again. Missing images are downloaded and stored before the transaction is opened, so the transaction
+ * only holds its locks for the bulk statements; only images added since the last reset are deleted, their files after
+ * the transaction has been committed.</p>
+ */
 @Service
 public final class DemoMode {
 
+    /**
+     * <p>The time after which the demo data is downloaded again, to pick up changes of the demo data.</p>
+     */
+    public static final @NotNull Duration DEMO_DATA_MAX_AGE = Duration.ofDays(1);
+
     private static final @NotNull Logger LOGGER = LoggerFactory.getLogger(DemoMode.class);
 
+    private final @NotNull DSLContext dsl;
     private final @NotNull ConfigurationService configurationService;
     private final @NotNull UserService userService;
     private final @NotNull ImageService imageService;
@@ -54,8 +94,12 @@ public final class DemoMode {
     private final boolean enabled;
     private final @NotNull String jsonDataUrl;
 
+    private @Nullable Path demoDataFile;
+    private @NotNull Instant demoDataDownloaded = Instant.MIN;
+
     @SuppressWarnings("checkstyle:ParameterNumber") // constructor injection
     public DemoMode(final @NotNull AppConfig appConfig,
+                    final @NotNull DSLContext dsl,
                     final @NotNull ConfigurationService configurationService,
                     final @NotNull UserService userService,
                     final @NotNull ImageService imageService,
@@ -65,6 +109,7 @@ public final class DemoMode {
                     final @NotNull ParticipantService participantService,
                     final @NotNull GlobalPageService globalPageService,
                     final @NotNull MailService mailService) {
+        this.dsl = dsl;
         this.configurationService = configurationService;
         this.userService = userService;
         this.imageService = imageService;
@@ -81,7 +126,7 @@ public final class DemoMode {
     }
 
     @Scheduled(cron = "0 0 * * * *")
-    public void resetDemoData() {
+    public synchronized void resetDemoData() {
         if (!enabled) {
             LOGGER.info("Demo mode plugin is disabled, skipping demo data reset.");
             return;
@@ -92,33 +137,97 @@ public final class DemoMode {
             return;
         }
 
-        LOGGER.info("Deleting existing data...");
-        configurationService.deleteAllConfigurations();
-        participantService.getAllParticipants().forEach(participantService::deleteParticipant);
-        eventService.getEvents().forEach(eventService::deleteEvent);
-        memberService.getMembers().forEach(memberService::deleteMember);
-        communityService.getCommunities().forEach(communityService::deleteCommunity);
-        userService.getAllUsers().forEach(userService::deleteUser);
-        imageService.getImages().forEach(imageService::deleteImage);
-        globalPageService.getAllGlobalPages().forEach(globalPageService::deleteGlobalPage);
-        LOGGER.info("Existing data deleted.");
-
-        LOGGER.info("Importing demo data...");
-        final var demoDataImporter = new JSONImporter(new ImporterLog(null), jsonDataUrl);
-        demoDataImporter.importSettings(configurationService);
-        demoDataImporter.importImages(imageService);
-        demoDataImporter.importUsers(userService);
-        demoDataImporter.importCommunities(communityService);
-        demoDataImporter.importMembers(memberService);
-        demoDataImporter.importEvents(eventService);
-        demoDataImporter.importParticipants(participantService);
-        demoDataImporter.importGlobalPages(globalPageService);
-        demoDataImporter.importMailTemplates(mailService);
-        LOGGER.info("Demo data imported.");
+        final var jsonDataFile = getDemoDataFile();
+        if (jsonDataFile.isEmpty()) {
+            LOGGER.error("Demo data is not available, skipping demo data reset.");
+            return;
+        }
+
+        final var start = System.nanoTime();
+        final List<ImageDto> deletedImages;
+        try (var demoDataImporter = new JSONImporter(new ImporterLog(null), jsonDataFile.orElseThrow().toFile())) {
+            demoDataImporter.setBulkMode(true);
+            demoDataImporter.setSkipStoredImages(true);
+
+            // the images of the demo data are kept by the reset, so the slow downloads happen outside the transaction
+            LOGGER.info("Importing demo images...");
+            demoDataImporter.importImages(imageService);
+            LOGGER.info("Demo images imported.");
+
+            // the services run on this thread, so they take part in the transaction
+            deletedImages = dsl.transactionResult(_ -> {
+                LOGGER.info("Deleting existing data...");
+                final var images = deleteData(demoDataImporter.getImageIds());
+                LOGGER.info("Existing data deleted.");
+
+                LOGGER.info("Importing demo data...");
+                demoDataImporter.importSettings(configurationService);
+                demoDataImporter.importUsers(userService);
+                demoDataImporter.importCommunities(communityService);
+                demoDataImporter.importMembers(memberService);
+                demoDataImporter.importEvents(eventService);
+                demoDataImporter.importParticipants(participantService);
+                demoDataImporter.importGlobalPages(globalPageService);
+                demoDataImporter.importMailTemplates(mailService);
+                LOGGER.info("Demo data imported.");
+                return images;
+            });
+        }
+
+        imageService.deleteImageFiles(deletedImages);
 
         LOGGER.info("Cleaning up orphaned image files...");
         ImageUtil.cleanupOrphanedImageFiles(imageService);
         LOGGER.info("Orphaned image files cleaned up.");
+        LOGGER.info("Demo data reset in {} ms.", Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    /**
+     * <p>Returns the local copy of the demo data, downloading it if there is none yet or if it is older than
+     * {@link #DEMO_DATA_MAX_AGE}. If the download fails, the previous copy is used.</p>
+     *
+     * @return the local copy of the demo data, or an empty {@link Optional} if it is not available
+     */
+    private @NotNull Optional<Path> getDemoDataFile() {
+        final var cachedFile = demoDataFile;
+        if (cachedFile != null && Files.exists(cachedFile)
+                && demoDataDownloaded.isAfter(Instant.now().minus(DEMO_DATA_MAX_AGE))) {
+            return Optional.of(cachedFile);
+        }
+
+        try {
+            LOGGER.info("Downloading demo data...");
+            final var downloadedFile = DownloadUtil.getFile(jsonDataUrl);
+            if (cachedFile != null) {
+                Files.deleteIfExists(cachedFile);
+            }
+            demoDataFile = downloadedFile;
+            demoDataDownloaded = Instant.now();
+            LOGGER.info("Demo data downloaded.");
+            return Optional.of(downloadedFile);
+        } catch (final IOException | URISyntaxException e) {
+            LOGGER.error("Failed to download demo data from '{}': {}", jsonDataUrl, e.getMessage());
+            return cachedFile != null && Files.exists(cachedFile) ? Optional.of(cachedFile) : Optional.empty();
+        }
+    }
+
+    /**
+     * <p>Deletes all data within the current transaction. The rows of the tables are deleted with one statement per
+     * table, in the order of the foreign keys. The images of the demo data are kept, all other images are deleted
+     * from the database; their files have to be deleted after the transaction has been committed.</p>
+     *
+     * @param demoImageIds the IDs of the images of the demo data
+     * @return the deleted images
+     */
+    private @NotNull List<@NotNull ImageDto> deleteData(final @NotNull Set<UUID> demoImageIds) {
+        dsl.deleteFrom(PARTICIPANT).execute();
+        dsl.deleteFrom(EVENT).execute();
+        dsl.deleteFrom(MEMBER).execute();
+        dsl.deleteFrom(COMMUNITY).execute();
+        dsl.deleteFrom(USER).execute();
+        dsl.deleteFrom(GLOBAL_PAGE).execute();
+        configurationService.deleteAllConfigurations();
+        return imageService.deleteImagesExcept(demoImageIds);
     }
 
 }
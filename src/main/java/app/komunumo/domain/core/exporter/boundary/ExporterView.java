@@ -0,0 +1,71 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.exporter.boundary;
+
+import app.komunumo.domain.core.config.control.ConfigurationService;
+import app.komunumo.domain.core.exporter.control.JSONExporter;
+import app.komunumo.domain.core.layout.boundary.WebsiteLayout;
+import app.komunumo.vaadin.components.AbstractView;
+import com.vaadin.flow.component.html.Anchor;
+import com.vaadin.flow.component.html.H2;
+import com.vaadin.flow.component.html.Paragraph;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.router.Route;
+import com.vaadin.flow.server.streams.DownloadHandler;
+import jakarta.annotation.security.RolesAllowed;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.LocalDate;
+
+@RolesAllowed("ADMIN")
+@Route(value = "admin/export", layout = WebsiteLayout.class)
+public final class ExporterView extends AbstractView {
+
+    private final @NotNull JSONExporter jsonExporter;
+
+    public ExporterView(final @NotNull ConfigurationService configurationService,
+                        final @NotNull JSONExporter jsonExporter) {
+        super(configurationService);
+        this.jsonExporter = jsonExporter;
+
+        addClassName("exporter-view");
+        add(new H2(getTranslation("core.exporter.boundary.ExporterView.title")));
+        add(new Paragraph(getTranslation("core.exporter.boundary.ExporterView.description")));
+        add(new HorizontalLayout(
+                createDownloadLink("core.exporter.boundary.ExporterView.downloadInlineImages", true),
+                createDownloadLink("core.exporter.boundary.ExporterView.downloadReferencedImages", false)));
+    }
+
+    private @NotNull Anchor createDownloadLink(final @NotNull String translationKey, final boolean inlineImages) {
+        final DownloadHandler downloadHandler = downloadEvent -> {
+            downloadEvent.setFileName("komunumo-export-%s.json".formatted(LocalDate.now()));
+            downloadEvent.setContentType("application/json");
+            jsonExporter.exportData(downloadEvent.getOutputStream(), inlineImages);
+        };
+        final var downloadLink = new Anchor(downloadHandler, getTranslation(translationKey));
+        downloadLink.getElement().setAttribute("download", true);
+        downloadLink.addClassName(inlineImages ? "download-inline-images" : "download-referenced-images");
+        return downloadLink;
+    }
+
+    @Override
+    protected @NotNull String getViewTitle() {
+        return getTranslation("core.exporter.boundary.ExporterView.title");
+    }
+
+}
@@ -0,0 +1,325 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.exporter.control;
+
+import app.komunumo.data.db.tables.records.CommunityRecord;
+import app.komunumo.data.db.tables.records.ConfigRecord;
+import app.komunumo.data.db.tables.records.EventRecord;
+import app.komunumo.data.db.tables.records.GlobalPageRecord;
+import app.komunumo.data.db.tables.records.ImageRecord;
+import app.komunumo.data.db.tables.records.MailTemplateRecord;
+import app.komunumo.data.db.tables.records.MemberRecord;
+import app.komunumo.data.db.tables.records.ParticipantRecord;
+import app.komunumo.data.db.tables.records.UserRecord;
+import app.komunumo.domain.core.config.control.ConfigurationService;
+import app.komunumo.domain.core.config.entity.ConfigurationSetting;
+import app.komunumo.domain.core.image.control.ImageService;
+import app.komunumo.domain.core.image.entity.ImageDto;
+import app.komunumo.util.ImageUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.ResultQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import static app.komunumo.data.db.tables.Community.COMMUNITY;
+import static app.komunumo.data.db.tables.Config.CONFIG;
+import static app.komunumo.data.db.tables.Event.EVENT;
+import static app.komunumo.data.db.tables.GlobalPage.GLOBAL_PAGE;
+import static app.komunumo.data.db.tables.Image.IMAGE;
+import static app.komunumo.data.db.tables.MailTemplate.MAIL_TEMPLATE;
+import static app.komunumo.data.db.tables.Member.MEMBER;
+import static app.komunumo.data.db.tables.Participant.PARTICIPANT;
+import static app.komunumo.data.db.tables.User.USER;
+
+/**
+ * <p>Exports all data of the instance as JSON in the format read by the {@code JSONImporter}, so the export of one
+ * instance can be imported into another one.</p>
+ *
+ * <p>The export is streamed: every table is read with a database cursor and every row is written to the output
+ * stream right away, so the memory use does not depend on the amount of data. All tables are read in a single
+ * transaction, so the export is a consistent snapshot of the data.</p>
+ *
+ * <p>This transaction only reads. InnoDB serves the reads from a consistent snapshot (the MariaDB default isolation
+ * level {@code REPEATABLE READ}) without taking locks, so it doesn't block writers. It does keep a pooled connection
+ * and the undo history of the snapshot for the whole download, though, which is paced by the client. Therefore the
+ * export is aborted and the transaction rolled back when it exceeds {@link #MAX_EXPORT_DURATION}.</p>
+ *
+ * <p>Images are either inlined as {@code data:} URLs, which makes the export self-contained, or referenced by
+ * their URL on this instance, which keeps the export small but requires this instance to be reachable during the
+ * import. Inlined images are read from the configured image store.</p>
+ */
+@Service
+public class JSONExporter {
+
+    private static final int FETCH_SIZE = 1_000;
+
+    /**
+     * <p>The maximum duration of an export, after which the transaction is rolled back and its connection returned
+     * to the pool, even if the client is still downloading.</p>
+     */
+    static final @NotNull Duration MAX_EXPORT_DURATION = Duration.ofHours(1);
+
+    private static final @NotNull Logger LOGGER = LoggerFactory.getLogger(JSONExporter.class);
+
+    private final @NotNull DSLContext dsl;
+    private final @NotNull ConfigurationService configurationService;
+    private final @NotNull ImageService imageService;
+    private final @NotNull ObjectMapper objectMapper;
+
+    /**
+     * <p>Creates a new {@code JSONExporter}.</p>
+     *
+     * @param dsl                  the jOOQ DSL context used to read the data
+     * @param configurationService the configuration service used to resolve the URL of this instance
+     * @param imageService         the image service used to read the image files to inline
+     */
+    public JSONExporter(final @NotNull DSLContext dsl,
+                        final @NotNull ConfigurationService configurationService,
+                        final @NotNull ImageService imageService) {
+        super();
+        this.dsl = dsl;
+        this.configurationService = configurationService;
+        this.imageService = imageService;
+        this.objectMapper = JsonMapper.builder()
+                .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+                .build();
+    }
+
+    /**
+     * <p>Writes all data of the instance as JSON to the given output stream. The stream is not closed.</p>
+     *
+     * @param outputStream the stream to write the JSON data to
+     * @param inlineImages {@code true} to inline the image files as {@code data:} URLs, {@code false} to reference
+     *                     them by their URL on this instance
+     * @throws IllegalStateException if the export takes longer than {@link #MAX_EXPORT_DURATION}
+     */
+    public void exportData(final @NotNull OutputStream outputStream,
+                           final boolean inlineImages) {
+        final var instanceUrl = configurationService.getConfiguration(ConfigurationSetting.INSTANCE_URL)
+                .replaceAll("/+$", "");
+        final var start = System.nanoTime();
+        final var deadline = start + MAX_EXPORT_DURATION.toNanos();
+        final var exportedItems = dsl.transactionResult(configuration -> {
+            final var tx = configuration.dsl();
+            try (var generator = objectMapper.createGenerator(outputStream)) {
+                var items = 0;
+                generator.writeStartObject();
+                items += writeArray(generator, deadline, "settings", tx.selectFrom(CONFIG)
+                        .orderBy(CONFIG.SETTING, CONFIG.LANGUAGE), JSONExporter::writeSetting);
+                items += writeArray(generator, deadline, "images", tx.selectFrom(IMAGE)
+                        .orderBy(IMAGE.ID), (jsonGenerator, image) -> writeImage(jsonGenerator, image, inlineImages, instanceUrl));
+                items += writeArray(generator, deadline, "users", tx.selectFrom(USER)
+                        .orderBy(USER.ID), JSONExporter::writeUser);
+                items += writeArray(generator, deadline, "communities", tx.selectFrom(COMMUNITY)
+                        .orderBy(COMMUNITY.ID), JSONExporter::writeCommunity);
+                items += writeArray(generator, deadline, "members", tx.selectFrom(MEMBER)
+                        .orderBy(MEMBER.USER_ID, MEMBER.COMMUNITY_ID), JSONExporter::writeMember);
+                items += writeArray(generator, deadline, "events", tx.selectFrom(EVENT)
+                        .orderBy(EVENT.ID), JSONExporter::writeEvent);
+                items += writeArray(generator, deadline, "participants", tx.selectFrom(PARTICIPANT)
+                        .orderBy(PARTICIPANT.EVENT_ID, PARTICIPANT.USER_ID), JSONExporter::writeParticipant);
+                items += writeArray(generator, deadline, "globalPages", tx.selectFrom(GLOBAL_PAGE)
+                        .orderBy(GLOBAL_PAGE.SLOT, GLOBAL_PAGE.LANGUAGE), JSONExporter::writeGlobalPage);
+                items += writeArray(generator, deadline, "mailTemplates", tx.selectFrom(MAIL_TEMPLATE)
+                        .orderBy(MAIL_TEMPLATE.ID, MAIL_TEMPLATE.LANGUAGE), JSONExporter::writeMailTemplate);
+                generator.writeEndObject();
+                return items;
+            }
+        });
+        LOGGER.info("Exported {} items in {} ms.", exportedItems, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * <p>Writes the rows of a query as a JSON array, reading them with a cursor.</p>
+     *
+     * @param deadline the {@link System#nanoTime()} after which the export is aborted
+     * @return the number of written rows
+     */
+    private static <R extends Record> int writeArray(final @NotNull JsonGenerator generator,
+                                                     final long deadline,
+                                                     final @NotNull String arrayName,
+                                                     final @NotNull ResultQuery<R> query,
+                                                     final @NotNull BiConsumer<JsonGenerator, R> writer) {
+        var count = 0;
+        generator.writeName(arrayName);
+        generator.writeStartArray();
+        final var queryTimeout = (int) Math.max(1, TimeUnit.NANOSECONDS.toSeconds(deadline - System.nanoTime()));
+        try (var cursor = query.queryTimeout(queryTimeout).fetchSize(FETCH_SIZE).fetchLazy()) {
+            for (final var record : cursor) {
+                if (System.nanoTime() - deadline > 0) {
+                    throw new IllegalStateException("The export was aborted after %d minutes."
+                            .formatted(MAX_EXPORT_DURATION.toMinutes()));
+                }
+                generator.writeStartObject();
+                writer.accept(generator, record);
+                generator.writeEndObject();
+                count++;
+            }
+        }
+        generator.writeEndArray();
+        return count;
+    }
+
+    private static void writeSetting(final @NotNull JsonGenerator generator,
+                                     final @NotNull ConfigRecord setting) {
+        generator.writeStringProperty("setting", setting.getSetting());
+        if (!setting.getLanguage().isBlank()) {
+            generator.writeStringProperty("language", toLanguageTag(setting.getLanguage()));
+        }
+        generator.writeStringProperty("value", setting.getValue());
+    }
+
+    private void writeImage(final @NotNull JsonGenerator generator,
+                            final @NotNull ImageRecord imageRecord,
+                            final boolean inlineImages,
+                            final @NotNull String instanceUrl) {
+        final var image = new ImageDto(imageRecord.getId(), imageRecord.getContentType());
+        generator.writeStringProperty("imageId", nullToEmpty(image.id()));
+        generator.writeStringProperty("contentType", image.contentType().getContentType());
+        generator.writeStringProperty("url", inlineImages
+                ? toDataUrl(image, instanceUrl)
+                : instanceUrl + ImageUtil.resolveImageUrl(image));
+    }
+
+    /**
+     * <p>Reads the file of an image from the image store into a {@code data:} URL. Only the current image is held in
+     * memory. If the file is missing, the image is referenced by its URL on this instance instead.</p>
+     */
+    private @NotNull String toDataUrl(final @NotNull ImageDto image,
+                                      final @NotNull String instanceUrl) {
+        final var content = imageService.loadImage(image);
+        if (content.isEmpty()) {
+            LOGGER.warn("Missing file of image {}, referencing it instead of inlining it.", image.id());
+            return instanceUrl + ImageUtil.resolveImageUrl(image);
+        }
+        try (var inputStream = content.orElseThrow()) {
+            return "data:%s;base64,%s".formatted(image.contentType().getContentType(),
+                    Base64.getEncoder().encodeToString(inputStream.readAllBytes()));
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Failed to read the file of image %s".formatted(image.id()), e);
+        }
+    }
+
+    private static void writeUser(final @NotNull JsonGenerator generator,
+                                  final @NotNull UserRecord user) {
+        generator.writeStringProperty("userId", nullToEmpty(user.getId()));
+        generator.writeStringProperty("profile", nullToEmpty(user.getProfile()));
+        generator.writeStringProperty("email", nullToEmpty(user.getEmail()));
+        generator.writeStringProperty("name", user.getName());
+        generator.writeStringProperty("bio", user.getBio());
+        generator.writeStringProperty("imageId", nullToEmpty(user.getImageId()));
+        generator.writeStringProperty("role", user.getRole());
+        generator.writeStringProperty("type", user.getType());
+    }
+
+    private static void writeCommunity(final @NotNull JsonGenerator generator,
+                                       final @NotNull CommunityRecord community) {
+        generator.writeStringProperty("communityId", nullToEmpty(community.getId()));
+        generator.writeStringProperty("profile", community.getProfile());
+        generator.writeStringProperty("name", community.getName());
+        generator.writeStringProperty("description", community.getDescription());
+        generator.writeStringProperty("imageId", nullToEmpty(community.getImageId()));
+    }
+
+    private static void writeMember(final @NotNull JsonGenerator generator,
+                                    final @NotNull MemberRecord member) {
+        generator.writeStringProperty("userId", nullToEmpty(member.getUserId()));
+        generator.writeStringProperty("communityId", nullToEmpty(member.getCommunityId()));
+        generator.writeStringProperty("role", member.getRole());
+        generator.writeStringProperty("since", nullToEmpty(member.getSince()));
+    }
+
+    private static void writeEvent(final @NotNull JsonGenerator generator,
+                                   final @NotNull EventRecord event) {
+        generator.writeStringProperty("eventId", nullToEmpty(event.getId()));
+        generator.writeStringProperty("communityId", nullToEmpty(event.getCommunityId()));
+        generator.writeStringProperty("title", event.getTitle());
+        generator.writeStringProperty("description", event.getDescription());
+        generator.writeStringProperty("location", event.getLocation());
+        generator.writeStringProperty("begin", nullToEmpty(event.getBegin()));
+        generator.writeStringProperty("end", nullToEmpty(event.getEnd()));
+        generator.writeStringProperty("imageId", nullToEmpty(event.getImageId()));
+        generator.writeStringProperty("visibility", event.getVisibility().name());
+        generator.writeStringProperty("status", event.getStatus().name());
+    }
+
+    private static void writeParticipant(final @NotNull JsonGenerator generator,
+                                         final @NotNull ParticipantRecord participant) {
+        generator.writeStringProperty("eventId", nullToEmpty(participant.getEventId()));
+        generator.writeStringProperty("userId", nullToEmpty(participant.getUserId()));
+        generator.writeStringProperty("registered", nullToEmpty(participant.getRegistered()));
+    }
+
+    private static void writeGlobalPage(final @NotNull JsonGenerator generator,
+                                        final @NotNull GlobalPageRecord globalPage) {
+        generator.writeStringProperty("slot", globalPage.getSlot());
+        generator.writeStringProperty("language", toLanguageTag(globalPage.getLanguage()));
+        generator.writeStringProperty("title", globalPage.getTitle());
+        generator.writeStringProperty("markdown", globalPage.getMarkdown());
+    }
+
+    private static void writeMailTemplate(final @NotNull JsonGenerator generator,
+                                          final @NotNull MailTemplateRecord mailTemplate) {
+        generator.writeStringProperty("mailTemplateId", mailTemplate.getId());
+        generator.writeStringProperty("language", toLanguageTag(mailTemplate.getLanguage()));
+        generator.writeStringProperty("subject", mailTemplate.getSubject());
+        generator.writeStringProperty("markdown", mailTemplate.getMarkdown());
+    }
+
+    /**
+     * <p>Converts a language code as stored in the database (e.g. {@code EN}) to a language tag.</p>
+     */
+    private static @NotNull String toLanguageTag(final @NotNull String languageCode) {
+        return languageCode.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * <p>Converts a nullable value to a string. The importer reads empty strings as missing values.</p>
+     */
+    private static @NotNull String nullToEmpty(final @Nullable String value) {
+        return value == null ? "" : value;
+    }
+
+    private static @NotNull String nullToEmpty(final @Nullable UUID value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static @NotNull String nullToEmpty(final @Nullable ZonedDateTime value) {
+        return value == null ? "" : DateTimeFormatter.ISO_ZONED_DATE_TIME.format(value);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.image.boundary;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * <p>An inclusive range of bytes as requested by an HTTP {@code Range} header.</p>
+ *
+ * @param start the position of the first byte
+ * @param end the position of the last byte
+ */
+record ByteRange(long start, long end) {
+
+    private static final @NotNull String BYTES_UNIT = "bytes=";
+    private static final @NotNull Pattern RANGE_SPEC_PATTERN = Pattern.compile("^(\\d*)-(\\d*)$");
+    private static final int MAX_RANGES = 16;
+
+    /**
+     * <p>Parses the value of an HTTP {@code Range} header for a representation of the given size.</p>
+     *
+     * <p>An empty {@link Optional} means the header has to be ignored and the full representation has to be sent.
+     * This is the case if the header is missing, uses another unit than bytes, is syntactically invalid, or requests
+     * more than {@value #MAX_RANGES} ranges. Otherwise, the list contains the satisfiable ranges, clamped to the size
+     * of the representation. An empty list means that none of the ranges can be satisfied.</p>
+     *
+     * <p>Overlapping and adjacent ranges are coalesced and the ranges are sorted by their start (RFC 9110, section
+     * 14.2), so the bytes sent never exceed the size of the representation, e.g. for {@code bytes=0-,0-,0-}.</p>
+     *
+     * @param header the value of the {@code Range} header, may be {@code null}
+     * @param size the size of the representation in bytes
+     * @return the satisfiable ranges, or an empty {@link Optional} if the header has to be ignored
+     */
+    static @NotNull Optional<List<ByteRange>> parse(final @Nullable String header, final long size) {
+        if (header == null || !header.startsWith(BYTES_UNIT)) {
+            return Optional.empty();
+        }
+
+        final var rangeSpecs = header.substring(BYTES_UNIT.length()).split(",");
+        if (rangeSpecs.length > MAX_RANGES) {
+            return Optional.empty();
+        }
+
+        final var ranges = new ArrayList<ByteRange>();
+        for (final var rangeSpec : rangeSpecs) {
+            final var matcher = RANGE_SPEC_PATTERN.matcher(rangeSpec.strip());
+            if (!matcher.matches()) {
+                return Optional.empty();
+            }
+
+            final var first = matcher.group(1);
+            final var last = matcher.group(2);
+            try {
+                if (first.isEmpty() && last.isEmpty()) {
+                    return Optional.empty();
+                } else if (first.isEmpty()) {
+                    // suffix range: the last n bytes
+                    final var suffixLength = Long.parseLong(last);
+                    if (suffixLength > 0 && size > 0) {
+                        ranges.add(new ByteRange(Math.max(0, size - suffixLength), size - 1));
+                    }
+                } else {
+                    final var start = Long.parseLong(first);
+                    final var end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+                    if (end < start) {
+                        return Optional.empty();
+                    }
+                    if (start < size) {
+                        ranges.add(new ByteRange(start, Math.min(end, size - 1)));
+                    }
+                }
+            } catch (final NumberFormatException e) {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(coalesce(ranges));
+    }
+
+    private static @NotNull List<ByteRange> coalesce(final @NotNull List<ByteRange> ranges) {
+        ranges.sort(Comparator.comparingLong(ByteRange::start));
+        final var coalesced = new ArrayList<ByteRange>();
+        for (final var range : ranges) {
+            final var previous = coalesced.isEmpty() ? null : coalesced.getLast();
+            if (previous != null && range.start() <= previous.end() + 1) {
+                coalesced.set(coalesced.size() - 1, new ByteRange(previous.start(), Math.max(previous.end(), range.end())));
+            } else {
+                coalesced.add(range);
+            }
+        }
+        return List.copyOf(coalesced);
+    }
+
+    /**
+     * <p>Returns the number of bytes in this range.</p>
+     *
+     * @return the length of this range
+     */
+    long length() {
+        return end - start + 1;
+    }
+
+    /**
+     * <p>Formats this range as the value of an HTTP {@code Content-Range} header.</p>
+     *
+     * @param size the size of the complete representation in bytes
+     * @return the value for the {@code Content-Range} header
+     */
+    @NotNull String toContentRange(final long size) {
+        return "bytes %d-%d/%d".formatted(start, end, size);
+    }
+
+}
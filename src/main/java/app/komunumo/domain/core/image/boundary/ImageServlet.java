@@ -22,18 +22,26 @@ import app.komunumo.domain.core.config.entity.AppConfig;
 import app.komunumo.domain.core.image.entity.ContentType;
 import app.komunumo.domain.core.image.entity.ImageDto;
 import app.komunumo.domain.core.image.control.ImageService;
+import app.komunumo.domain.core.image.control.ImageVariantGenerator;
 import app.komunumo.util.ImageUtil;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PrintWriter;
+import java.io.OutputStream;
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.regex.Pattern;
@@ -43,11 +51,22 @@ import static app.komunumo.util.ImageUtil.extractImageIdFromUrl;
 public final class ImageServlet extends HttpServlet {
 
     private static final @NotNull Pattern PLACEHOLDER_URL_PATTERN =
-            Pattern.compile("^/placeholder-(\\d+)x(\\d+)\\.svg$");
+            Pattern.compile("^/placeholder-(\\d{1,4})x(\\d{1,4})\\.svg$"); // at most 4 digits, so parsing never overflows
 
     private final transient @NotNull PlaceholderImageGenerator placeholderImageGenerator;
 
     private static final long IMAGE_CACHE_DURATION = 86400; // 24 hours in seconds
+    private static final @NotNull String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable"; // 1 year
+
+    // request attributes of the Tomcat sendfile support
+    private static final @NotNull String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+    private static final @NotNull String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+    private static final @NotNull String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+    private static final @NotNull String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024; // same threshold as the Tomcat default servlet
+
+    private static final @NotNull String MULTIPART_BOUNDARY = "KOMUNUMO_BYTERANGES_BOUNDARY";
+    private static final int RANGE_BUFFER_SIZE = 8192;
 
     private static final @NotNull Logger LOGGER = LoggerFactory.getLogger(ImageServlet.class);
 
@@ -86,22 +105,144 @@ public final class ImageServlet extends HttpServlet {
             return;
         }
 
-        final Optional<ImageDto> imageOpt = imageService.getImage(imageId);
+        final Optional<ImageDto> imageOpt = findImage(url, imageId);
         if (imageOpt.isEmpty()) {
             redirectToNotFoundPage(request, response);
             return;
         }
 
         final var image = imageOpt.orElseThrow();
-        final Optional<InputStream> stream = ImageUtil.loadImage(image);
+        var path = ImageUtil.resolveImagePath(image);
+        var contentType = image.contentType();
+
+        final var widthParameter = request.getParameter("w");
+        final var formatParameter = request.getParameter("format");
+        if (widthParameter != null || formatParameter != null) {
+            final int width;
+            final ContentType variantContentType;
+            try {
+                width = widthParameter == null
+                        ? ImageVariantGenerator.VARIANT_WIDTHS.getLast()
+                        : Integer.parseInt(widthParameter);
+                variantContentType = formatParameter == null
+                        ? image.contentType()
+                        : ContentType.fromExtension("." + formatParameter);
+            } catch (final IllegalArgumentException e) { // includes the NumberFormatException of a too large width
+                redirectToNotFoundPage(request, response);
+                return;
+            }
+            if (width <= 0) {
+                redirectToNotFoundPage(request, response);
+                return;
+            }
+
+            final var variantPath = imageService.getImageVariant(image, width, variantContentType);
+            if (variantPath.isPresent()) {
+                path = variantPath.orElseThrow();
+                contentType = variantContentType;
+            }
+        } else {
+            final var downloadUri = imageService.getImageDownloadUri(image);
+            if (downloadUri.isPresent()) {
+                redirectToImageStore(response, downloadUri.orElseThrow());
+                return;
+            }
+        }
+
+        serveImage(request, response, image, path, contentType);
+    }
+
+    /**
+     * <p>Redirects the client to download the original image directly from the image store. The download URI is only
+     * valid for a limited time, so the redirect itself must not be cached for long.</p>
+     */
+    private void redirectToImageStore(final @NotNull HttpServletResponse response, final @NotNull URI downloadUri) {
+        response.setHeader("Cache-Control", "private, max-age=60");
+        response.setStatus(HttpServletResponse.SC_TEMPORARY_REDIRECT);
+        response.setHeader("Location", downloadUri.toString());
+    }
+
+    /**
+     * <p>Finds the image for the requested URL. The content type is derived from the file extension in the URL, and
+     * if the file for it exists, the image is served without asking the database. The database is only used if the
+     * URL has no known extension or the file does not exist, e.g. because the extension does not match the stored
+     * image.</p>
+     *
+     * @param url the requested URL
+     * @param imageId the image ID extracted from the URL
+     * @return the image, or an empty {@link Optional} if there is no image with the given ID
+     */
+    private @NotNull Optional<ImageDto> findImage(final @NotNull String url, final @NotNull UUID imageId) {
+        final var extensionIndex = url.lastIndexOf('.');
+        if (extensionIndex > url.lastIndexOf('/')) {
+            try {
+                final var contentType = ContentType.fromExtension(url.substring(extensionIndex));
+                final var image = new ImageDto(imageId, contentType);
+                if (ImageUtil.readImageAttributes(ImageUtil.resolveImagePath(image)).isPresent()) {
+                    return Optional.of(image);
+                }
+            } catch (final IllegalArgumentException e) {
+                LOGGER.debug("Unknown image extension in URL '{}'", url);
+            }
+        }
+        return imageService.getImage(imageId);
+    }
+
+    private void serveImage(final @NotNull HttpServletRequest request,
+                            final @NotNull HttpServletResponse response,
+                            final @NotNull ImageDto image,
+                            final @Nullable Path path,
+                            final @NotNull ContentType contentType) {
+        final Optional<BasicFileAttributes> attributes = ImageUtil.readImageAttributes(path);
+        if (path == null || attributes.isEmpty()) {
+            LOGGER.error("Missing image on server: {}", path);
+            redirectToInternalServerErrorPage(request, response);
+            return;
+        }
+
+        final var eTag = createETag(path, attributes.orElseThrow());
+        final var lastModified = attributes.orElseThrow().lastModifiedTime().toMillis() / 1000 * 1000;
+        response.setHeader("ETag", eTag);
+        response.setDateHeader("Last-Modified", lastModified);
+        response.setHeader("Cache-Control", IMMUTABLE_CACHE_CONTROL);
+        if (isNotModified(request, eTag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        final var size = attributes.orElseThrow().size();
+        response.setHeader("Accept-Ranges", "bytes");
+        final Optional<List<ByteRange>> ranges = isRangeApplicable(request, eTag, lastModified)
+                ? ByteRange.parse(request.getHeader("Range"), size)
+                : Optional.empty();
+        if (ranges.isPresent()) {
+            serveRanges(request, response, path, contentType, size, ranges.orElseThrow());
+            return;
+        }
+
+        response.setContentType(contentType.getContentType());
+        response.setContentLengthLong(size);
+        final Optional<byte[]> content = imageService.getImageContent(image, path, attributes.orElseThrow());
+        if (content.isPresent()) {
+            try {
+                response.getOutputStream().write(content.orElseThrow());
+            } catch (final IOException e) {
+                LOGGER.error(e.getMessage(), e);
+                redirectToInternalServerErrorPage(request, response);
+            }
+            return;
+        }
+        if (useSendfile(request, path, 0, size)) {
+            return;
+        }
+
+        final Optional<InputStream> stream = ImageUtil.loadImage(path);
         if (stream.isEmpty()) {
-            LOGGER.error("Missing image on server: {}", image.id());
+            LOGGER.error("Missing image on server: {}", path);
             redirectToInternalServerErrorPage(request, response);
             return;
         }
 
-        response.setContentType(image.contentType().getContentType());
-        response.setHeader("Cache-Control", "public, max-age=" + IMAGE_CACHE_DURATION);
         try (InputStream input = stream.orElseThrow(() ->
                 new IOException("Unable to stream image from request '%s'!".formatted(request.getPathInfo())))) {
             input.transferTo(response.getOutputStream());
@@ -111,25 +252,255 @@ public final class ImageServlet extends HttpServlet {
         }
     }
 
+    /**
+     * <p>Serves a partial response for the requested byte ranges. A single range is sent as is, multiple ranges are
+     * sent as a {@code multipart/byteranges} body. If none of the ranges can be satisfied, the response status is
+     * set to 416.</p>
+     *
+     * @param request the current request
+     * @param response the current response
+     * @param path the path of the image file to be served
+     * @param contentType the content type of the image file
+     * @param size the size of the image file in bytes
+     * @param ranges the satisfiable ranges requested by the client, may be empty
+     */
+    private void serveRanges(final @NotNull HttpServletRequest request,
+                             final @NotNull HttpServletResponse response,
+                             final @NotNull Path path,
+                             final @NotNull ContentType contentType,
+                             final long size,
+                             final @NotNull List<ByteRange> ranges) {
+        if (ranges.isEmpty()) {
+            response.setHeader("Content-Range", "bytes */" + size);
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        try {
+            if (ranges.size() == 1) {
+                final var range = ranges.getFirst();
+                response.setContentType(contentType.getContentType());
+                response.setContentLengthLong(range.length());
+                response.setHeader("Content-Range", range.toContentRange(size));
+                if (!useSendfile(request, path, range.start(), range.end() + 1)) {
+                    copyRange(path, range, response.getOutputStream());
+                }
+                return;
+            }
+
+            final var partHeaders = ranges.stream()
+                    .map(range -> "\r\n--" + MULTIPART_BOUNDARY
+                            + "\r\nContent-Type: " + contentType.getContentType()
+                            + "\r\nContent-Range: " + range.toContentRange(size)
+                            + "\r\n\r\n")
+                    .toList();
+            final var trailer = "\r\n--" + MULTIPART_BOUNDARY + "--\r\n";
+            long contentLength = trailer.length();
+            for (int i = 0; i < ranges.size(); i++) {
+                contentLength += partHeaders.get(i).length() + ranges.get(i).length();
+            }
+
+            response.setContentType("multipart/byteranges; boundary=" + MULTIPART_BOUNDARY);
+            response.setContentLengthLong(contentLength);
+            final var output = response.getOutputStream();
+            for (int i = 0; i < ranges.size(); i++) {
+                output.write(partHeaders.get(i).getBytes(StandardCharsets.US_ASCII));
+                copyRange(path, ranges.get(i), output);
+            }
+            output.write(trailer.getBytes(StandardCharsets.US_ASCII));
+        } catch (final IOException e) {
+            LOGGER.error(e.getMessage(), e);
+            redirectToInternalServerErrorPage(request, response);
+        }
+    }
+
+    private static void copyRange(final @NotNull Path path,
+                                  final @NotNull ByteRange range,
+                                  final @NotNull OutputStream output) throws IOException {
+        final var stream = ImageUtil.loadImage(path).orElseThrow(() ->
+                new IOException("Unable to stream image '%s'!".formatted(path)));
+        try (InputStream input = stream) {
+            input.skipNBytes(range.start());
+            final var buffer = new byte[RANGE_BUFFER_SIZE];
+            long remaining = range.length();
+            while (remaining > 0) {
+                final int read = input.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    throw new EOFException("Unexpected end of image '%s'!".formatted(path));
+                }
+                output.write(buffer, 0, read);
+                remaining -= read;
+            }
+        }
+    }
+
+    /**
+     * <p>Evaluates the {@code If-Range} header. A range request is only applicable if the client's copy is still
+     * current; otherwise the full image has to be sent. Entity tags are compared strongly, so weak tags never
+     * match.</p>
+     *
+     * @param request the current request
+     * @param eTag the entity tag of the current representation
+     * @param lastModified the modification time of the current representation, truncated to seconds
+     * @return {@code true} if the {@code Range} header should be evaluated
+     */
+    private static boolean isRangeApplicable(final @NotNull HttpServletRequest request,
+                                             final @NotNull String eTag,
+                                             final long lastModified) {
+        final var ifRange = request.getHeader("If-Range");
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(eTag);
+        }
+
+        try {
+            return request.getDateHeader("If-Range") == lastModified;
+        } catch (final IllegalArgumentException e) {
+            LOGGER.debug("Ignoring invalid If-Range header: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * <p>Hands the image file over to the servlet container if it supports sendfile. The container then copies the
+     * file directly from the page cache to the socket after this method returns, without passing the bytes through
+     * heap buffers. Small files are cheaper to write directly and are left to the buffered fallback.</p>
+     *
+     * @param request the current request
+     * @param path the path of the image file to be served
+     * @param start the position of the first byte to send
+     * @param end the position after the last byte to send
+     * @return {@code true} if the container will send the file, {@code false} if the caller must stream it
+     */
+    private static boolean useSendfile(final @NotNull HttpServletRequest request,
+                                       final @NotNull Path path,
+                                       final long start,
+                                       final long end) {
+        if (end - start < SENDFILE_MIN_SIZE
+                || !Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))) {
+            return false;
+        }
+
+        request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, path.toAbsolutePath().normalize().toString());
+        request.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+        request.setAttribute(SENDFILE_END_ATTRIBUTE, end);
+        return true;
+    }
+
+    /**
+     * <p>Creates a strong entity tag for an image file. Image IDs are never reused, so the file name (containing the
+     * ID, the variant, and the extension) together with the size and modification time of the file on disk identify
+     * the representation exactly.</p>
+     *
+     * @param path the path of the image file to create the entity tag for
+     * @param attributes the file attributes of the image file
+     * @return the quoted entity tag
+     */
+    private static @NotNull String createETag(final @NotNull Path path,
+                                              final @NotNull BasicFileAttributes attributes) {
+        return "\"%s-%x-%x\"".formatted(
+                path.getFileName().toString().replace('.', '-'),
+                attributes.lastModifiedTime().toMillis(),
+                attributes.size());
+    }
+
+    /**
+     * <p>Evaluates the conditional request headers as described in RFC 9110. If the request contains an
+     * {@code If-None-Match} header, {@code If-Modified-Since} is ignored.</p>
+     *
+     * @param request the current request
+     * @param eTag the entity tag of the current representation
+     * @param lastModified the modification time of the current representation, truncated to seconds
+     * @return {@code true} if the client already has the current representation
+     */
+    private static boolean isNotModified(final @NotNull HttpServletRequest request,
+                                         final @NotNull String eTag,
+                                         final long lastModified) {
+        final var ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            return matchesETag(ifNoneMatch, eTag);
+        }
+
+        try {
+            final var ifModifiedSince = request.getDateHeader("If-Modified-Since");
+            return ifModifiedSince != -1 && lastModified <= ifModifiedSince;
+        } catch (final IllegalArgumentException e) {
+            LOGGER.debug("Ignoring invalid If-Modified-Since header: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean matchesETag(final @Nullable String ifNoneMatch, final @NotNull String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (final var candidate : ifNoneMatch.split(",")) {
+            final var tag = candidate.strip();
+            if (tag.equals("*") || tag.equals(eTag) || tag.equals("W/" + eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void generatePlaceholderImage(final int imageWidth, final int imageHeight,
                                           final @NotNull HttpServletRequest request,
                                           final @NotNull HttpServletResponse response) {
         final var placeholderImage = placeholderImageGenerator.getPlaceholderImage(imageWidth, imageHeight);
+        final var gzip = acceptsGzip(request);
+        final var eTag = gzip ? placeholderImage.gzipETag() : placeholderImage.eTag();
 
         // set response headers
+        response.setHeader("ETag", eTag);
+        response.setHeader("Vary", "Accept-Encoding");
+        response.setHeader("Cache-Control", "public, max-age=" + IMAGE_CACHE_DURATION);
+        if (matchesETag(request.getHeader("If-None-Match"), eTag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        final var content = gzip ? placeholderImage.gzipContent() : placeholderImage.content();
         response.setContentType(ContentType.IMAGE_SVG.getContentType());
         response.setCharacterEncoding(StandardCharsets.UTF_8.name());
-        response.setHeader("Cache-Control", "public, max-age=" + IMAGE_CACHE_DURATION);
+        if (gzip) {
+            response.setHeader("Content-Encoding", "gzip");
+        }
+        response.setContentLength(content.length);
 
         // stream the placeholder image
-        try (PrintWriter out = response.getWriter()) {
-            out.write(placeholderImage);
+        try {
+            response.getOutputStream().write(content);
         } catch (final IOException e) {
             LOGGER.error("Unable to stream placeholder image: {}", e.getMessage(), e);
             redirectToInternalServerErrorPage(request, response);
         }
     }
 
+    /**
+     * <p>Checks whether the client accepts gzip compressed content, i.e. the {@code Accept-Encoding} header lists
+     * {@code gzip} or {@code *} without a quality value of zero.</p>
+     *
+     * @param request the current request
+     * @return {@code true} if the response may be compressed with gzip
+     */
+    private static boolean acceptsGzip(final @NotNull HttpServletRequest request) {
+        final var acceptEncoding = request.getHeader("Accept-Encoding");
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (final var candidate : acceptEncoding.split(",")) {
+            final var parts = candidate.split(";");
+            final var coding = parts[0].strip().toLowerCase(Locale.ROOT);
+            if (coding.equals("gzip") || coding.equals("x-gzip") || coding.equals("*")) {
+                return parts.length < 2 || !parts[1].strip().matches("q=0(\\.0{0,3})?");
+            }
+        }
+        return false;
+    }
+
     private void redirectToNotFoundPage(final @NotNull HttpServletRequest request,
                                         final @NotNull HttpServletResponse response) {
         LOGGER.warn("Requested image not found: {}", request.getPathInfo());
@@ -0,0 +1,61 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.image.control;
+
+import app.komunumo.domain.core.image.entity.ImageDto;
+import app.komunumo.util.ImageUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * <p>Stores the image files on the local file system under {@code komunumo.files.basedir}, which is the working copy
+ * at the same time. This is the default store for single node instances.</p>
+ */
+public final class FileSystemImageStore implements ImageStore {
+
+    @Override
+    public void storeImage(final @NotNull ImageDto image,
+                           final @NotNull Path path,
+                           final @NotNull String hash) throws IOException {
+        final var target = ImageUtil.resolveImagePath(image);
+        if (target == null) {
+            throw new IllegalArgumentException("ImageDto must have an ID!");
+        }
+        if (!Files.exists(target) || !Files.isSameFile(path, target)) {
+            Files.createDirectories(target.getParent());
+            Files.copy(path, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public @NotNull Optional<InputStream> loadImage(final @NotNull ImageDto image) {
+        return ImageUtil.loadImage(image);
+    }
+
+    @Override
+    public void deleteImage(final @NotNull ImageDto image) {
+        ImageUtil.deleteImageFile(image);
+    }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.image.control;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>Keeps the content of small, frequently requested image files in memory, so serving them needs neither opening
+ * nor reading the file.</p>
+ *
+ * <p>The cache is bounded by the total number of bytes it holds. Entries are keyed by the image ID together with the
+ * path, modification time, and size of the file, so a replaced file is never served from the cache. The keys of the
+ * entries are indexed by the image ID as well, so all entries of an image and its variants are removed at once,
+ * without scanning the whole cache.</p>
+ *
+ * <p>Images with the same content are hard links to one blob. Their entries share a single copy of the content,
+ * looked up by the file key of the file system, so the content is read from disk and held in memory only once.</p>
+ */
+public final class ImageContentCache {
+
+    /**
+     * <p>Files larger than this size in bytes are never cached.</p>
+     */
+    public static final long MAX_CACHEABLE_SIZE = 256 * 1024;
+
+    private static final long MAX_CACHE_SIZE = 64 * 1024 * 1024;
+
+    private static final @NotNull Logger LOGGER = LoggerFactory.getLogger(ImageContentCache.class);
+
+    private final @NotNull Cache<@NotNull CacheKey, byte[]> cache = Caffeine.newBuilder()
+            .maximumWeight(MAX_CACHE_SIZE)
+            .weigher((CacheKey _, byte[] content) -> content.length)
+            .evictionListener((CacheKey key, byte[] _, RemovalCause _) -> {
+                if (key != null) {
+                    removeKey(key);
+                }
+            })
+            .recordStats()
+            .build();
+
+    // the keys of the cache above per image ID, to invalidate all entries of an image without scanning the cache
+    private final @NotNull ConcurrentHashMap<@NotNull UUID, @NotNull Set<@NotNull CacheKey>> keysByImage =
+            new ConcurrentHashMap<>();
+
+    // the content of files with the same file key, as long as any entry of the cache above references it
+    private final @NotNull Cache<@NotNull FileIdentity, byte[]> sharedContent = Caffeine.newBuilder()
+            .weakValues()
+            .build();
+
+    /**
+     * <p>Returns the content of the given image file, reading it from disk on a cache miss.</p>
+     *
+     * @param imageId the ID of the image the file belongs to
+     * @param path the path of the image file or one of its variants
+     * @param attributes the current attributes of the file
+     * @return the content of the file, or an empty {@link Optional} if the file is too large to be cached or can't
+     *         be read
+     */
+    public @NotNull Optional<byte[]> getContent(final @NotNull UUID imageId,
+                                                final @NotNull Path path,
+                                                final @NotNull BasicFileAttributes attributes) {
+        if (attributes.size() > MAX_CACHEABLE_SIZE) {
+            return Optional.empty();
+        }
+
+        final var lastModified = attributes.lastModifiedTime().toMillis();
+        final var key = new CacheKey(imageId, path, lastModified, attributes.size());
+        final var fileKey = attributes.fileKey();
+        try {
+            return Optional.of(cache.get(key, _ -> {
+                final var content = fileKey == null
+                        ? readContent(path)
+                        : sharedContent.get(new FileIdentity(fileKey, lastModified, attributes.size()), _ -> readContent(path));
+                keysByImage.computeIfAbsent(imageId, _ -> ConcurrentHashMap.newKeySet()).add(key);
+                return content;
+            }));
+        } catch (final UncheckedIOException e) {
+            LOGGER.warn("Unable to read image file '{}': {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static byte[] readContent(final @NotNull Path path) {
+        try {
+            return Files.readAllBytes(path);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * <p>Removes the content of the given image and all of its variants from the cache.</p>
+     *
+     * @param imageId the ID of the image
+     */
+    public void invalidate(final @NotNull UUID imageId) {
+        final var keys = keysByImage.remove(imageId);
+        if (keys != null) {
+            cache.invalidateAll(keys);
+        }
+    }
+
+    private void removeKey(final @NotNull CacheKey key) {
+        keysByImage.computeIfPresent(key.imageId(), (_, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    /**
+     * <p>Returns the hit and miss statistics of the cache.</p>
+     *
+     * @return a snapshot of the cache statistics
+     */
+    public @NotNull CacheStats getStats() {
+        return cache.stats();
+    }
+
+    @NotNull Cache<?, ?> getCache() {
+        return cache;
+    }
+
+    int getIndexedImageCount() {
+        return keysByImage.size();
+    }
+
+    private record CacheKey(@NotNull UUID imageId, @NotNull Path path, long lastModified, long size) { }
+
+    private record FileIdentity(@NotNull Object fileKey, long lastModified, long size) { }
+
+}
@@ -19,42 +19,105 @@ package app.komunumo.domain.core.image.control;
 
 import app.komunumo.data.db.Tables;
 import app.komunumo.data.db.tables.records.ImageRecord;
+import app.komunumo.domain.core.image.entity.ContentType;
 import app.komunumo.domain.core.image.entity.ImageDto;
+import app.komunumo.domain.core.image.entity.OrphanedImageCleanupDto;
 import app.komunumo.jooq.UniqueIdGenerator;
 import app.komunumo.util.ImageUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jooq.Condition;
 import org.jooq.DSLContext;
+import org.jooq.Record2;
+import org.jooq.SelectSeekStep1;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Executors;
 
 import static app.komunumo.data.db.tables.Community.COMMUNITY;
 import static app.komunumo.data.db.tables.Event.EVENT;
 import static app.komunumo.data.db.tables.Image.IMAGE;
+import static app.komunumo.data.db.tables.ImageBlob.IMAGE_BLOB;
+import static app.komunumo.data.db.tables.ImageVariant.IMAGE_VARIANT;
 import static app.komunumo.data.db.tables.User.USER;
+import static org.jooq.impl.DSL.noCondition;
+import static org.jooq.impl.DSL.select;
 import static org.jooq.impl.DSL.selectOne;
 
 @Service
 public final class ImageService {
 
+    private static final int ORPHANED_IMAGES_CHUNK_SIZE = 500;
+
+    // blob files are written before their row is inserted, so younger files may belong to an image being stored
+    private static final @NotNull Duration ORPHANED_BLOB_FILE_MIN_AGE = Duration.ofDays(1);
+
     private static final @NotNull Logger LOGGER = LoggerFactory.getLogger(ImageService.class);
 
     private final @NotNull DSLContext dsl;
     private final @NotNull UniqueIdGenerator idGenerator;
+    private final @NotNull ImageVariantService imageVariantService;
+    private final @NotNull ImageStore imageStore;
+
+    private final @NotNull Cache<@NotNull UUID, @NotNull ImageDto> imageCache = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .recordStats()
+            .build();
+    private final @NotNull ImageContentCache imageContentCache = new ImageContentCache();
+    private final @NotNull Timer orphanedImagesCleanupTimer;
+    private final @NotNull Counter orphanedImagesDeletedCounter;
+
+    // IDs without an image, so requests for random IDs (e.g. from scraping bots) don't hit the database
+    private final @NotNull Cache<@NotNull UUID, @NotNull Boolean> unknownImageIds = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
 
     public ImageService(final @NotNull DSLContext dsl,
-                        final @NotNull UniqueIdGenerator idGenerator) {
+                        final @NotNull UniqueIdGenerator idGenerator,
+                        final @NotNull ImageVariantService imageVariantService,
+                        final @NotNull ImageStore imageStore,
+                        final @NotNull MeterRegistry meterRegistry) {
         super();
         this.dsl = dsl;
         this.idGenerator = idGenerator;
+        this.imageVariantService = imageVariantService;
+        this.imageStore = imageStore;
+        CaffeineCacheMetrics.monitor(meterRegistry, imageCache, "images");
+        CaffeineCacheMetrics.monitor(meterRegistry, imageContentCache.getCache(), "image.content");
+        this.orphanedImagesCleanupTimer = Timer.builder("images.orphaned.cleanup")
+                .description("Time taken to delete orphaned images from the database")
+                .register(meterRegistry);
+        this.orphanedImagesDeletedCounter = Counter.builder("images.orphaned.deleted")
+                .description("Number of deleted orphaned images")
+                .register(meterRegistry);
     }
 
     public @NotNull ImageDto storeImage(final @NotNull ImageDto image) {
@@ -66,14 +129,235 @@ public final class ImageService {
             imageRecord.setId(idGenerator.getUniqueID(Tables.IMAGE));
         }
         imageRecord.store();
+        invalidateCaches(imageRecord.getId());
         return imageRecord.into(ImageDto.class);
     }
 
+    /**
+     * <p>Records the blob with the given content hash as the content of the image and hands the content over to the
+     * {@link ImageStore}. A blob is shared by all images with the same content and deleted as soon as no image
+     * references it anymore. A blob previously referenced by the image is released.</p>
+     *
+     * <p>The blob is recorded and referenced in a single transaction which locks the image row, so a concurrent
+     * release of the same blob either sees the new reference and keeps the blob, or has deleted it before, in which
+     * case the blob file is restored from the image file.</p>
+     *
+     * @param image the stored image
+     * @param hash the SHA-256 hash of the content, as returned by {@link ImageUtil#storeImage(ImageDto, Path)}
+     * @throws IOException if the content can't be stored in the image store
+     */
+    public void storeImageBlob(final @NotNull ImageDto image, final @NotNull String hash) throws IOException {
+        imageStore.storeImage(image, ImageUtil.resolveImageBlobPath(hash), hash);
+        final String previousHash;
+        try {
+            previousHash = dsl.transactionResult(configuration -> {
+                final var transaction = DSL.using(configuration);
+                final var currentHash = transaction.select(IMAGE.BLOB_HASH)
+                        .from(IMAGE)
+                        .where(IMAGE.ID.eq(image.id()))
+                        .forUpdate()
+                        .fetchOne(IMAGE.BLOB_HASH);
+                // waits for a concurrent release of the same blob, which deletes its file before it commits
+                transaction.insertInto(IMAGE_BLOB)
+                        .set(IMAGE_BLOB.HASH, hash)
+                        .set(IMAGE_BLOB.CREATED, ZonedDateTime.now(ZoneOffset.UTC))
+                        .onDuplicateKeyIgnore()
+                        .execute();
+                transaction.update(IMAGE)
+                        .set(IMAGE.BLOB_HASH, hash)
+                        .where(IMAGE.ID.eq(image.id()))
+                        .execute();
+                ImageUtil.restoreImageBlob(image, hash);
+                return currentHash;
+            });
+        } catch (final DataAccessException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw e;
+        }
+        invalidateCaches(image.id());
+        if (previousHash != null && !previousHash.equals(hash)) {
+            releaseImageBlobs(List.of(previousHash));
+        }
+    }
+
+    /**
+     * <p>Returns the number of images sharing the blob with the given content hash.</p>
+     *
+     * @param hash the SHA-256 hash of the content
+     * @return the number of images referencing the blob
+     */
+    public int getImageBlobReferenceCount(final @NotNull String hash) {
+        return dsl.fetchCount(IMAGE, IMAGE.BLOB_HASH.eq(hash));
+    }
+
+    /**
+     * <p>Checks whether the content of the image with the given ID is completely stored. The blob hash is only
+     * recorded after the content was handed over to the {@link ImageStore}, so an image without a blob hash, or
+     * whose blob file is missing, was interrupted while storing and must be stored again. The check bypasses the
+     * caches.</p>
+     *
+     * @param id the ID of the image
+     * @return {@code true} if the image exists and its content is completely stored
+     */
+    public boolean isImageContentStored(final @NotNull UUID id) {
+        final var hash = dsl.select(IMAGE.BLOB_HASH)
+                .from(IMAGE)
+                .where(IMAGE.ID.eq(id))
+                .fetchOne(IMAGE.BLOB_HASH);
+        return hash != null && Files.exists(ImageUtil.resolveImageBlobPath(hash));
+    }
+
+    /**
+     * <p>Deletes the given blobs if no image references them anymore. The check and the delete are done in a single
+     * statement, so a blob which got referenced again in the meantime is kept. The blob file is deleted before the
+     * transaction commits, so a concurrent {@link #storeImageBlob(ImageDto, String)} of the same content waits for it
+     * and restores the file afterwards.</p>
+     *
+     * @param hashes the content hashes of the blobs which may have become unreferenced
+     */
+    private void releaseImageBlobs(final @NotNull Collection<@NotNull String> hashes) {
+        for (final var hash : hashes) {
+            dsl.transaction(configuration -> {
+                final var deleted = DSL.using(configuration).delete(IMAGE_BLOB)
+                        .where(IMAGE_BLOB.HASH.eq(hash))
+                        .andNotExists(selectOne().from(IMAGE).where(IMAGE.BLOB_HASH.eq(IMAGE_BLOB.HASH)))
+                        .execute();
+                if (deleted > 0) {
+                    ImageUtil.deleteImageBlob(hash);
+                }
+            });
+        }
+    }
+
+    private void cleanupUnreferencedImageBlobs() {
+        final var hashes = dsl.select(IMAGE_BLOB.HASH)
+                .from(IMAGE_BLOB)
+                .whereNotExists(selectOne().from(IMAGE).where(IMAGE.BLOB_HASH.eq(IMAGE_BLOB.HASH)))
+                .fetch(IMAGE_BLOB.HASH);
+        releaseImageBlobs(hashes);
+        LOGGER.info("Unreferenced image blobs cleaned: {}", hashes.size());
+
+        // files of blobs which were never recorded, e.g. because storing the image failed
+        final var orphanedFiles = ImageUtil.cleanupOrphanedImageBlobFiles(
+                candidates -> Set.copyOf(dsl.select(IMAGE_BLOB.HASH)
+                        .from(IMAGE_BLOB)
+                        .where(IMAGE_BLOB.HASH.in(candidates))
+                        .fetch(IMAGE_BLOB.HASH)),
+                Instant.now().minus(ORPHANED_BLOB_FILE_MIN_AGE));
+        LOGGER.info("Orphaned image blob files cleaned: {}", orphanedFiles);
+    }
+
+    /**
+     * <p>Checks whether an image with the given ID exists in the database. Unlike {@link #getImage(UUID)}, the
+     * check bypasses the caches, so an image stored a moment ago is found even if its ID was cached as unknown.</p>
+     *
+     * @param id the ID of the image
+     * @return {@code true} if the image exists
+     */
+    public boolean existsImage(final @NotNull UUID id) {
+        return dsl.fetchExists(IMAGE, IMAGE.ID.eq(id));
+    }
+
     public @NotNull Optional<ImageDto> getImage(final @Nullable UUID id) {
-        return id == null ? Optional.empty() : dsl
+        if (id == null) {
+            return Optional.empty();
+        }
+        final var cachedImage = imageCache.getIfPresent(id);
+        if (cachedImage != null) {
+            return Optional.of(cachedImage);
+        }
+        if (unknownImageIds.getIfPresent(id) != null) {
+            return Optional.empty();
+        }
+        final var image = dsl
                 .selectFrom(IMAGE)
                 .where(IMAGE.ID.eq(id))
                 .fetchOptionalInto(ImageDto.class);
+        image.ifPresentOrElse(dto -> imageCache.put(id, dto), () -> unknownImageIds.put(id, Boolean.TRUE));
+        return image;
+    }
+
+    /**
+     * <p>Returns the content of a small image file from the in-memory cache, reading it from disk on a cache miss.
+     * The file may be the original image or one of its variants.</p>
+     *
+     * @param image the image the file belongs to
+     * @param path the path of the image file
+     * @param attributes the current attributes of the image file
+     * @return the content of the file, or an empty {@link Optional} if the file is too large to be cached
+     */
+    public @NotNull Optional<byte[]> getImageContent(final @NotNull ImageDto image,
+                                                     final @NotNull Path path,
+                                                     final @NotNull BasicFileAttributes attributes) {
+        final var imageId = image.id();
+        return imageId == null ? Optional.empty() : imageContentCache.getContent(imageId, path, attributes);
+    }
+
+    private void invalidateCaches(final @Nullable UUID imageId) {
+        if (imageId != null) {
+            imageCache.invalidate(imageId);
+            unknownImageIds.invalidate(imageId);
+            imageContentCache.invalidate(imageId);
+        }
+    }
+
+    /**
+     * <p>Starts the generation of the common variants of the given image in the background. Call this method after
+     * the image file has been written to the file storage.</p>
+     *
+     * @param image the stored image
+     */
+    public void generateImageVariants(final @NotNull ImageDto image) {
+        imageVariantService.enqueueImageVariants(image);
+    }
+
+    public @NotNull Optional<Path> getImageVariant(final @NotNull ImageDto image,
+                                                   final int width,
+                                                   final @NotNull ContentType contentType) {
+        loadImageWorkingCopy(image);
+        return imageVariantService.getImageVariant(image, width, contentType);
+    }
+
+    /**
+     * <p>Returns a URI from which clients can download the original image directly from the {@link ImageStore}.</p>
+     *
+     * @param image the image to download
+     * @return a temporary download URI, or an empty {@link Optional} if the image must be served by the application
+     */
+    public @NotNull Optional<URI> getImageDownloadUri(final @NotNull ImageDto image) {
+        return imageStore.getDownloadUri(image);
+    }
+
+    /**
+     * <p>Loads the original content of the given image from the {@link ImageStore}. The caller is responsible to
+     * close the stream.</p>
+     *
+     * @param image the image to load the content for
+     * @return the content of the image, or an empty {@link Optional} if it is not stored
+     */
+    public @NotNull Optional<InputStream> loadImage(final @NotNull ImageDto image) {
+        return imageStore.loadImage(image);
+    }
+
+    /**
+     * <p>Copies the original image from the {@link ImageStore} to the local working copy, if it is missing there,
+     * e.g. because the image was uploaded on another node.</p>
+     */
+    private void loadImageWorkingCopy(final @NotNull ImageDto image) {
+        final var path = ImageUtil.resolveImagePath(image);
+        if (path == null || Files.exists(path)) {
+            return;
+        }
+        imageStore.loadImage(image).ifPresent(stream -> {
+            try (stream) {
+                Files.createDirectories(path.getParent());
+                Files.copy(stream, path, StandardCopyOption.REPLACE_EXISTING);
+            } catch (final IOException e) {
+                LOGGER.warn("Failed to copy image '{}' from the image store: {}", image.id(), e.getMessage());
+            }
+        });
     }
 
     public List<ImageDto> getImages() {
@@ -90,31 +374,160 @@ public final class ImageService {
     }
 
     public @NotNull List<@NotNull ImageDto> findOrphanedImages() {
-        return dsl.selectFrom(IMAGE)
-                .whereNotExists(
-                        selectOne()
-                                .from(COMMUNITY)
-                                .where(COMMUNITY.IMAGE_ID.eq(IMAGE.ID))
-                )
-                .andNotExists(
-                        selectOne()
-                                .from(EVENT)
-                                .where(EVENT.IMAGE_ID.eq(IMAGE.ID))
-                )
-                .andNotExists(
-                        selectOne()
-                                .from(USER)
-                                .where(USER.IMAGE_ID.eq(IMAGE.ID))
-                )
+        return selectOrphanedImages(noCondition())
                 .fetchInto(ImageDto.class);
     }
 
+    /**
+     * <p>Selects all images which are not used by any community, event, or user. The used image IDs are collected
+     * in a single derived table, which is anti-joined with the images.</p>
+     *
+     * @param condition an additional condition for the orphaned images
+     * @return the select statement for the orphaned images, ordered by ID
+     */
+    private @NotNull SelectSeekStep1<Record2<UUID, ContentType>, UUID> selectOrphanedImages(
+            final @NotNull Condition condition) {
+        final var usedImages = select(COMMUNITY.IMAGE_ID).from(COMMUNITY).where(COMMUNITY.IMAGE_ID.isNotNull())
+                .union(select(EVENT.IMAGE_ID).from(EVENT).where(EVENT.IMAGE_ID.isNotNull()))
+                .union(select(USER.IMAGE_ID).from(USER).where(USER.IMAGE_ID.isNotNull()))
+                .asTable("used_image", "image_id");
+        final var usedImageId = usedImages.field("image_id", UUID.class);
+        return dsl.select(IMAGE.ID, IMAGE.CONTENT_TYPE)
+                .from(IMAGE)
+                .leftJoin(usedImages).on(IMAGE.ID.eq(usedImageId))
+                .where(usedImageId.isNull())
+                .and(condition)
+                .orderBy(IMAGE.ID);
+    }
+
     @Scheduled(cron = "0 0 0 * * *")
     public void cleanupOrphanedImages() {
-        LOGGER.info("Cleaning up orphaned images...");
-        findOrphanedImages().forEach(this::deleteImage);
+        cleanupOrphanedImages(false);
+        cleanupUnreferencedImageBlobs();
         ImageUtil.cleanupOrphanedImageFiles(this);
-        LOGGER.info("Orphaned images cleaned.");
+    }
+
+    /**
+     * <p>Deletes all images which are not used by any community, event, or user.</p>
+     *
+     * <p>The orphaned images are processed in chunks: every chunk is deleted from the database in a short transaction
+     * with batched statements, so the {@code image} table is never locked for long. Images which got used in the
+     * meantime are skipped. The files of the deleted images are removed in the background while the next chunk is
+     * processed.</p>
+     *
+     * @param dryRun if {@code true}, the orphaned images are only counted and logged, but not deleted
+     * @return the outcome of the cleanup
+     */
+    public @NotNull OrphanedImageCleanupDto cleanupOrphanedImages(final boolean dryRun) {
+        LOGGER.info("Cleaning up orphaned images{}...", dryRun ? " (dry run)" : "");
+        final var start = System.nanoTime();
+        var orphanedImages = 0;
+        var deletedImages = 0;
+
+        try (var fileExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            UUID lastImageId = null;
+            List<ImageDto> chunk;
+            do {
+                chunk = selectOrphanedImages(lastImageId == null ? noCondition() : IMAGE.ID.gt(lastImageId))
+                        .limit(ORPHANED_IMAGES_CHUNK_SIZE)
+                        .fetchInto(ImageDto.class);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                lastImageId = chunk.getLast().id();
+                orphanedImages += chunk.size();
+
+                if (dryRun) {
+                    chunk.forEach(image -> LOGGER.info("Orphaned image found: {}", image.id()));
+                } else {
+                    final var deleted = deleteOrphanedImages(chunk);
+                    deletedImages += deleted.size();
+                    deleted.forEach(image -> fileExecutor.execute(() -> deleteImageFiles(image)));
+                }
+            } while (chunk.size() == ORPHANED_IMAGES_CHUNK_SIZE);
+        }
+
+        final var duration = Duration.ofNanos(System.nanoTime() - start);
+        orphanedImagesCleanupTimer.record(duration);
+        orphanedImagesDeletedCounter.increment(deletedImages);
+        LOGGER.info("Orphaned images cleaned: {} found, {} deleted in {} ms.", orphanedImages, deletedImages, duration.toMillis());
+        return new OrphanedImageCleanupDto(dryRun, orphanedImages, deletedImages, duration);
+    }
+
+    private @NotNull List<@NotNull ImageDto> deleteOrphanedImages(final @NotNull List<@NotNull ImageDto> images) {
+        final var imageIds = images.stream().map(ImageDto::id).toList();
+        final var blobHashes = dsl.selectDistinct(IMAGE.BLOB_HASH)
+                .from(IMAGE)
+                .where(IMAGE.ID.in(imageIds))
+                .and(IMAGE.BLOB_HASH.isNotNull())
+                .fetch(IMAGE.BLOB_HASH);
+        final var remainingImageIds = dsl.transactionResult(configuration -> {
+            final var transaction = DSL.using(configuration);
+            transaction.delete(IMAGE_VARIANT)
+                    .where(IMAGE_VARIANT.IMAGE_ID.in(imageIds))
+                    .execute();
+            // images which got used in the meantime must not be deleted
+            transaction.delete(IMAGE)
+                    .where(IMAGE.ID.in(imageIds))
+                    .andNotExists(selectOne().from(COMMUNITY).where(COMMUNITY.IMAGE_ID.eq(IMAGE.ID)))
+                    .andNotExists(selectOne().from(EVENT).where(EVENT.IMAGE_ID.eq(IMAGE.ID)))
+                    .andNotExists(selectOne().from(USER).where(USER.IMAGE_ID.eq(IMAGE.ID)))
+                    .execute();
+            return Set.copyOf(transaction.select(IMAGE.ID)
+                    .from(IMAGE)
+                    .where(IMAGE.ID.in(imageIds))
+                    .fetch(IMAGE.ID));
+        });
+
+        final var deletedImages = images.stream()
+                .filter(image -> !remainingImageIds.contains(image.id()))
+                .toList();
+        deletedImages.forEach(image -> invalidateCaches(image.id()));
+        releaseImageBlobs(blobHashes);
+        return deletedImages;
+    }
+
+    private void deleteImageFiles(final @NotNull ImageDto image) {
+        // the image store deletes the local working copy as well
+        imageStore.deleteImage(image);
+        ImageUtil.deleteImageVariants(image);
+    }
+
+    /**
+     * <p>Deletes all images except the given ones from the database, e.g. to reset the data of an instance. The images
+     * must not be used anymore. Call this method within a transaction and delete the files of the returned images with
+     * {@link #deleteImageFiles(Collection)} after the transaction has been committed, so a rollback doesn't leave
+     * images without files.</p>
+     *
+     * @param keptImageIds the IDs of the images to keep
+     * @return the deleted images
+     */
+    public @NotNull List<@NotNull ImageDto> deleteImagesExcept(final @NotNull Set<@NotNull UUID> keptImageIds) {
+        final var images = dsl.select(IMAGE.ID, IMAGE.CONTENT_TYPE)
+                .from(IMAGE)
+                .where(keptImageIds.isEmpty() ? noCondition() : IMAGE.ID.notIn(keptImageIds))
+                .fetchInto(ImageDto.class);
+        dsl.deleteFrom(IMAGE_VARIANT)
+                .where(keptImageIds.isEmpty() ? noCondition() : IMAGE_VARIANT.IMAGE_ID.notIn(keptImageIds))
+                .execute();
+        dsl.deleteFrom(IMAGE)
+                .where(keptImageIds.isEmpty() ? noCondition() : IMAGE.ID.notIn(keptImageIds))
+                .execute();
+        return images;
+    }
+
+    /**
+     * <p>Deletes the files of images which have been deleted from the database with
+     * {@link #deleteImagesExcept(Set)}, and the blobs no image references anymore.</p>
+     *
+     * @param images the deleted images
+     */
+    public void deleteImageFiles(final @NotNull Collection<@NotNull ImageDto> images) {
+        images.forEach(image -> {
+            invalidateCaches(image.id());
+            deleteImageFiles(image);
+        });
+        cleanupUnreferencedImageBlobs();
     }
 
     public List<UUID> getAllImageIds() {
@@ -126,18 +539,21 @@ public final class ImageService {
     }
 
     public boolean deleteImage(final @NotNull ImageDto image) {
-        final var path = ImageUtil.resolveImagePath(image);
-        if (path != null) {
-            try {
-                Files.deleteIfExists(path);
-            } catch (final IOException e) {
-                LOGGER.error("Failed to delete image file: {}", path.toAbsolutePath(), e);
-            }
-        }
+        imageStore.deleteImage(image);
+        imageVariantService.deleteImageVariants(image);
+        invalidateCaches(image.id());
 
-        return dsl.delete(Tables.IMAGE)
+        final var blobHash = dsl.select(IMAGE.BLOB_HASH)
+                .from(IMAGE)
+                .where(IMAGE.ID.eq(image.id()))
+                .fetchOne(IMAGE.BLOB_HASH);
+        final var deleted = dsl.delete(Tables.IMAGE)
                 .where(Tables.IMAGE.ID.eq(image.id()))
                 .execute() > 0;
+        if (blobHash != null) {
+            releaseImageBlobs(List.of(blobHash));
+        }
+        return deleted;
     }
 
 }
@@ -0,0 +1,73 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.image.control;
+
+import app.komunumo.domain.core.image.entity.ImageDto;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * <p>The storage holding the original image files. The local file system under {@code komunumo.files.basedir} is
+ * always used as a working copy to serve images and to generate variants; the image store is the authoritative
+ * storage which is shared by all nodes of an instance.</p>
+ */
+public interface ImageStore {
+
+    /**
+     * <p>Stores the content of the given image.</p>
+     *
+     * @param image the image to store the content for
+     * @param path the local file with the content of the image
+     * @param hash the SHA-256 hash of the content as a lowercase hex string, which is known from the blob store
+     * @throws IOException if the content can't be stored
+     */
+    void storeImage(@NotNull ImageDto image, @NotNull Path path, @NotNull String hash) throws IOException;
+
+    /**
+     * <p>Loads the content of the given image. The caller is responsible to close the stream.</p>
+     *
+     * @param image the image to load the content for
+     * @return the content of the image, or an empty {@link Optional} if it is not stored
+     */
+    @NotNull Optional<InputStream> loadImage(@NotNull ImageDto image);
+
+    /**
+     * <p>Deletes the content of the given image, including the local working copy. Errors are logged, but not
+     * thrown.</p>
+     *
+     * @param image the image to delete the content of
+     */
+    void deleteImage(@NotNull ImageDto image);
+
+    /**
+     * <p>Returns a URI from which a client can download the content of the given image directly, without the
+     * application serving the bytes.</p>
+     *
+     * @param image the image to download
+     * @return a temporary download URI, or an empty {@link Optional} if the store does not support direct downloads
+     */
+    default @NotNull Optional<URI> getDownloadUri(final @NotNull ImageDto image) {
+        return Optional.empty();
+    }
+
+}
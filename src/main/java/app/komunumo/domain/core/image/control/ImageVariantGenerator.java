@@ -0,0 +1,277 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.image.control;
+
+import app.komunumo.domain.core.image.entity.ContentType;
+import app.komunumo.domain.core.image.entity.ImageDto;
+import app.komunumo.util.ImageUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * <p>Creates resized variants of stored images and keeps them on disk next to the original image, so every variant
+ * is generated only once.</p>
+ *
+ * <p>Requested widths are snapped to a fixed set of widths, which bounds the number of variants per image. Vector
+ * images and animated GIFs are never resized, and variants are only written in formats supported by the JDK image
+ * writers.</p>
+ *
+ * <p>The dimensions of an original image are read from its header before it is decoded. Images with more pixels than
+ * {@link #MAX_PIXELS} are never decoded, so a small file declaring huge dimensions can't exhaust the memory, and
+ * images much wider than the variant are decoded with source subsampling.</p>
+ */
+public final class ImageVariantGenerator {
+
+    /**
+     * <p>The widths in pixels in which variants are generated.</p>
+     */
+    public static final @NotNull List<Integer> VARIANT_WIDTHS = List.of(160, 320, 480, 640, 960, 1280, 1920);
+
+    /**
+     * <p>The maximum number of pixels of an original image to be decoded for generating variants.</p>
+     */
+    public static final long MAX_PIXELS = 40_000_000L;
+
+    // Images are decoded with at least this multiple of the variant width, to keep the quality of the downscaling
+    private static final int SUBSAMPLING_MARGIN = 2;
+
+    private static final @NotNull Map<ContentType, String> WRITER_FORMATS = Map.of(
+            ContentType.IMAGE_JPEG, "jpeg",
+            ContentType.IMAGE_PNG, "png");
+
+    private static final @NotNull Logger LOGGER = LoggerFactory.getLogger(ImageVariantGenerator.class);
+
+    // Synchronization locks per variant, so concurrent requests generate a variant only once
+    private final @NotNull ConcurrentHashMap<Path, ReentrantLock> variantLocks = new ConcurrentHashMap<>();
+
+    // Variants for which the original image is served, to avoid decoding the original image on every request
+    private final @NotNull Cache<@NotNull Path, @NotNull Boolean> servedAsOriginal = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .build();
+
+    /**
+     * <p>Returns the path of a variant of the given image with the requested width and content type, generating it
+     * if it does not exist yet.</p>
+     *
+     * <p>An empty {@link Optional} means that the original image should be served instead. This is the case if the
+     * original image can't be resized, if the requested content type can't be written, or if the original image is
+     * not wider than the requested width and already has the requested content type.</p>
+     *
+     * @param image the original image
+     * @param requestedWidth the requested width in pixels
+     * @param contentType the requested content type
+     * @return the path of the variant, or an empty {@link Optional} if the original image should be served
+     */
+    public @NotNull Optional<Path> getImageVariant(final @NotNull ImageDto image,
+                                                   final int requestedWidth,
+                                                   final @NotNull ContentType contentType) {
+        return getImageVariant(image, requestedWidth, contentType, _ -> { });
+    }
+
+    /**
+     * <p>Returns the path of a variant like {@link #getImageVariant(ImageDto, int, ContentType)}, and notifies the
+     * given callback if the variant was actually generated by this call. A variant which exists already is only
+     * served, without notifying the callback.</p>
+     *
+     * @param image the original image
+     * @param requestedWidth the requested width in pixels
+     * @param contentType the requested content type
+     * @param generatedCallback called with the path of the variant after it was generated
+     * @return the path of the variant, or an empty {@link Optional} if the original image should be served
+     */
+    public @NotNull Optional<Path> getImageVariant(final @NotNull ImageDto image,
+                                                   final int requestedWidth,
+                                                   final @NotNull ContentType contentType,
+                                                   final @NotNull Consumer<Path> generatedCallback) {
+        if (!WRITER_FORMATS.containsKey(image.contentType()) || !WRITER_FORMATS.containsKey(contentType)) {
+            return Optional.empty();
+        }
+
+        final int width = snapWidth(requestedWidth);
+        final var variantPath = ImageUtil.resolveImageVariantPath(image, width, contentType);
+        if (variantPath == null) {
+            return Optional.empty();
+        }
+        if (Files.exists(variantPath)) {
+            return Optional.of(variantPath);
+        }
+        if (servedAsOriginal.getIfPresent(variantPath) != null) {
+            return Optional.empty();
+        }
+
+        final Optional<Path> generatedVariant;
+        final var lock = variantLocks.computeIfAbsent(variantPath, _ -> new ReentrantLock());
+        lock.lock();
+        try {
+            if (Files.exists(variantPath)) {
+                return Optional.of(variantPath);
+            }
+            generatedVariant = generateImageVariant(image, width, contentType, variantPath);
+        } finally {
+            lock.unlock();
+            variantLocks.remove(variantPath, lock);
+        }
+        generatedVariant.ifPresent(generatedCallback);
+        return generatedVariant;
+    }
+
+    /**
+     * <p>Snaps a requested width to the smallest available variant width that is not smaller than the requested
+     * width. Requests wider than the widest variant are snapped to the widest variant.</p>
+     *
+     * @param requestedWidth the requested width in pixels
+     * @return the width of the variant to use
+     */
+    static int snapWidth(final int requestedWidth) {
+        return VARIANT_WIDTHS.stream()
+                .filter(width -> width >= requestedWidth)
+                .findFirst()
+                .orElse(VARIANT_WIDTHS.getLast());
+    }
+
+    private @NotNull Optional<Path> generateImageVariant(final @NotNull ImageDto image,
+                                                         final int width,
+                                                         final @NotNull ContentType contentType,
+                                                         final @NotNull Path variantPath) {
+        final var originalPath = ImageUtil.resolveImagePath(image);
+        if (originalPath == null || !Files.exists(originalPath)) {
+            return Optional.empty();
+        }
+
+        try {
+            final var original = readImage(originalPath, width, image.contentType() == contentType, variantPath);
+            if (original == null) {
+                return Optional.empty();
+            }
+
+            final var variant = resize(original, Math.min(width, original.getWidth()), contentType);
+            final var tempFile = Files.createTempFile(variantPath.getParent(), "variant-", ".tmp");
+            try {
+                if (!ImageIO.write(variant, WRITER_FORMATS.get(contentType), tempFile.toFile())) {
+                    LOGGER.warn("No image writer available for '{}', serving original image.", contentType);
+                    return Optional.empty();
+                }
+                Files.move(tempFile, variantPath, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+
+            LOGGER.info("Generated image variant '{}'", variantPath.toAbsolutePath());
+            return Optional.of(variantPath);
+        } catch (final IOException e) {
+            LOGGER.error("Failed to generate image variant '{}': {}", variantPath, e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * <p>Reads the original image, checking its dimensions before decoding it. Returns {@code null} if the original
+     * image should be served instead, because it can't be read, because it exceeds {@link #MAX_PIXELS}, or because it
+     * is not wider than the variant and needs no conversion.</p>
+     *
+     * @param originalPath the path of the original image
+     * @param width the width of the variant in pixels
+     * @param sameContentType {@code true} if the variant has the content type of the original image
+     * @param variantPath the path of the variant
+     * @return the decoded image, possibly subsampled, or {@code null} if the original image should be served
+     * @throws IOException if the original image can't be read
+     */
+    private @Nullable BufferedImage readImage(final @NotNull Path originalPath,
+                                              final int width,
+                                              final boolean sameContentType,
+                                              final @NotNull Path variantPath) throws IOException {
+        try (var input = ImageIO.createImageInputStream(originalPath.toFile())) {
+            final var readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                LOGGER.warn("No image reader available for '{}', serving original image.", originalPath);
+                return null;
+            }
+
+            final var reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                final int originalWidth = reader.getWidth(0);
+                final int originalHeight = reader.getHeight(0);
+                if ((long) originalWidth * originalHeight > MAX_PIXELS) {
+                    LOGGER.warn("Image '{}' has {}x{} pixels, which exceeds the limit of {} pixels, serving original image.",
+                            originalPath, originalWidth, originalHeight, MAX_PIXELS);
+                    servedAsOriginal.put(variantPath, Boolean.TRUE);
+                    return null;
+                }
+                if (originalWidth <= width && sameContentType) {
+                    servedAsOriginal.put(variantPath, Boolean.TRUE);
+                    return null;
+                }
+
+                final var param = reader.getDefaultReadParam();
+                final int subsampling = originalWidth / (width * SUBSAMPLING_MARGIN);
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static @NotNull BufferedImage resize(final @NotNull BufferedImage original,
+                                                 final int width,
+                                                 final @NotNull ContentType contentType) {
+        final int height = Math.max(1, Math.round((float) original.getHeight() * width / original.getWidth()));
+        final var hasAlpha = contentType != ContentType.IMAGE_JPEG && original.getColorModel().hasAlpha();
+        final var variant = new BufferedImage(width, height,
+                hasAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+
+        final var graphics = variant.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            if (!hasAlpha) {
+                // JPEG has no transparency, so transparent areas become white instead of black
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+            }
+            graphics.drawImage(original, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return variant;
+    }
+
+}
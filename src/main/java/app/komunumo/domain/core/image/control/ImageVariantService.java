@@ -0,0 +1,161 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.image.control;
+
+import app.komunumo.domain.core.image.entity.ContentType;
+import app.komunumo.domain.core.image.entity.ImageDto;
+import app.komunumo.domain.core.image.entity.ImageVariantDto;
+import app.komunumo.util.ImageUtil;
+import jakarta.annotation.PreDestroy;
+import org.jetbrains.annotations.NotNull;
+import org.jooq.DSLContext;
+import org.jooq.exception.DataAccessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static app.komunumo.data.db.tables.ImageVariant.IMAGE_VARIANT;
+
+/**
+ * <p>Manages the resized variants of stored images.</p>
+ *
+ * <p>Variants are generated in two ways: lazily, when a variant is requested for the first time, and eagerly, when
+ * a new image is stored. Eager generation runs in a bounded background pipeline on virtual threads, so the first
+ * visitor of a freshly created event or community does not have to wait for the variants. Every generated variant
+ * is tracked in the {@code image_variant} table.</p>
+ */
+@Service
+public final class ImageVariantService {
+
+    /**
+     * <p>The widths in pixels of the variants which are generated eagerly when an image is stored.</p>
+     */
+    public static final @NotNull List<Integer> PREGENERATED_WIDTHS = List.of(160, 480, 960);
+
+    private static final int MAX_CONCURRENT_GENERATIONS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private static final int MAX_QUEUED_IMAGES = 1_000;
+
+    private static final @NotNull Logger LOGGER = LoggerFactory.getLogger(ImageVariantService.class);
+
+    private final @NotNull DSLContext dsl;
+    private final @NotNull ImageVariantGenerator imageVariantGenerator;
+    private final @NotNull ThreadPoolExecutor executor;
+
+    public ImageVariantService(final @NotNull DSLContext dsl) {
+        super();
+        this.dsl = dsl;
+        this.imageVariantGenerator = new ImageVariantGenerator();
+        this.executor = new ThreadPoolExecutor(
+                MAX_CONCURRENT_GENERATIONS, MAX_CONCURRENT_GENERATIONS,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(MAX_QUEUED_IMAGES),
+                Thread.ofVirtual().name("image-variant-", 0).factory(),
+                (_, _) -> LOGGER.warn("Image variant queue is full, variants will be generated on demand."));
+    }
+
+    /**
+     * <p>Returns a variant of the given image, generating it on demand if it does not exist yet. Only a generated
+     * variant is recorded in the database, so serving an existing variant doesn't write to the database.</p>
+     *
+     * @param image the original image
+     * @param width the requested width in pixels
+     * @param contentType the requested content type
+     * @return the path of the variant, or an empty {@link Optional} if the original image should be served
+     * @see ImageVariantGenerator#getImageVariant(ImageDto, int, ContentType)
+     */
+    public @NotNull Optional<Path> getImageVariant(final @NotNull ImageDto image,
+                                                   final int width,
+                                                   final @NotNull ContentType contentType) {
+        return imageVariantGenerator.getImageVariant(image, width, contentType,
+                _ -> storeImageVariant(image, ImageVariantGenerator.snapWidth(width), contentType));
+    }
+
+    /**
+     * <p>Enqueues the given image for the eager generation of its variants. If the queue is full, the image is
+     * skipped and its variants are generated on demand instead.</p>
+     *
+     * @param image the stored image
+     */
+    public void enqueueImageVariants(final @NotNull ImageDto image) {
+        if (image.id() == null) {
+            return;
+        }
+        executor.execute(() -> generateImageVariants(image));
+    }
+
+    void generateImageVariants(final @NotNull ImageDto image) {
+        try {
+            PREGENERATED_WIDTHS.forEach(width -> getImageVariant(image, width, image.contentType()));
+        } catch (final RuntimeException e) {
+            LOGGER.error("Failed to generate variants of image '{}': {}", image.id(), e.getMessage(), e);
+        }
+    }
+
+    public @NotNull List<@NotNull ImageVariantDto> getImageVariants(final @NotNull ImageDto image) {
+        return dsl.select(IMAGE_VARIANT.IMAGE_ID, IMAGE_VARIANT.WIDTH, IMAGE_VARIANT.CONTENT_TYPE)
+                .from(IMAGE_VARIANT)
+                .where(IMAGE_VARIANT.IMAGE_ID.eq(image.id()))
+                .orderBy(IMAGE_VARIANT.WIDTH, IMAGE_VARIANT.CONTENT_TYPE)
+                .fetchInto(ImageVariantDto.class);
+    }
+
+    private void storeImageVariant(final @NotNull ImageDto image,
+                                   final int width,
+                                   final @NotNull ContentType contentType) {
+        try {
+            dsl.insertInto(IMAGE_VARIANT)
+                    .set(IMAGE_VARIANT.IMAGE_ID, image.id())
+                    .set(IMAGE_VARIANT.WIDTH, width)
+                    .set(IMAGE_VARIANT.CONTENT_TYPE, contentType)
+                    .set(IMAGE_VARIANT.CREATED, ZonedDateTime.now(ZoneOffset.UTC))
+                    .onDuplicateKeyIgnore()
+                    .execute();
+        } catch (final DataAccessException e) {
+            // e.g. the file of an image without a row was served, the variant can still be served
+            LOGGER.warn("Failed to record variant {}/{} of image '{}': {}",
+                    width, contentType, image.id(), e.getMessage());
+        }
+    }
+
+    /**
+     * <p>Deletes all variants of the given image, both the files and their entries in the database.</p>
+     *
+     * @param image the original image
+     */
+    public void deleteImageVariants(final @NotNull ImageDto image) {
+        ImageUtil.deleteImageVariants(image);
+        dsl.delete(IMAGE_VARIANT)
+                .where(IMAGE_VARIANT.IMAGE_ID.eq(image.id()))
+                .execute();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+}
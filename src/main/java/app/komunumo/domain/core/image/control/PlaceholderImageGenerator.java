@@ -24,10 +24,15 @@ import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
 
 import static app.komunumo.util.ResourceUtil.getResourceAsString;
 import static app.komunumo.util.TemplateUtil.replaceVariables;
@@ -46,6 +51,12 @@ public final class PlaceholderImageGenerator {
 
     private static final @NotNull String KOMUNUMO_LOGO_FILE = "/META-INF/resources/images/komunumo.svg";
 
+    // placeholder dimensions are snapped to multiples of this step within the given bounds
+    private static final int DIMENSION_STEP = 25;
+    private static final int MAX_DIMENSION = 2000;
+
+    private static final long MAX_CACHE_SIZE = 16 * 1024 * 1024;
+
     private final int baseLogoWidth;
     private final int baseLogoHeight;
     private final double baseLogoAspectRatio;
@@ -53,9 +64,10 @@ public final class PlaceholderImageGenerator {
     private final @NotNull SvgHelper templateApplier;
     private final @NotNull String placeholderImageTemplate;
 
-    // Cache for recently generated placeholder images
-    private final @NotNull Cache<@NotNull CacheKey, @NotNull String> imageCache = Caffeine.newBuilder()
-            .maximumSize(100)
+    // Cache for recently generated placeholder images, bounded by their size in bytes
+    private final @NotNull Cache<@NotNull CacheKey, @NotNull PlaceholderImage> imageCache = Caffeine.newBuilder()
+            .maximumWeight(MAX_CACHE_SIZE)
+            .weigher((CacheKey _, PlaceholderImage image) -> image.content().length + image.gzipContent().length)
             .build();
 
     public PlaceholderImageGenerator(final @NotNull AppConfig appConfig) {
@@ -92,16 +104,40 @@ public final class PlaceholderImageGenerator {
     }
 
     /**
-     * <p>Returns a placeholder image SVG code for the given dimensions.
-     * The image is cached to avoid generating it multiple times.</p>
+     * <p>Returns a placeholder image for the given dimensions, encoded as UTF-8 and pre-compressed with gzip.
+     * The dimensions are snapped to multiples of 25 pixels up to 2000 pixels, which bounds the number of different
+     * placeholder images. The image is cached to avoid generating it multiple times.</p>
      *
      * @param imageWidth  the width of the placeholder image
      * @param imageHeight the height of the placeholder image
-     * @return the SVG code for the placeholder image
+     * @return the placeholder image
      */
-    public String getPlaceholderImage(final int imageWidth, final int imageHeight) {
-        final var cacheKey = new CacheKey(imageWidth, imageHeight);
-        return imageCache.get(cacheKey, _ -> generatePlaceholderImage(imageWidth, imageHeight));
+    public @NotNull PlaceholderImage getPlaceholderImage(final int imageWidth, final int imageHeight) {
+        final var cacheKey = new CacheKey(snapDimension(imageWidth), snapDimension(imageHeight));
+        return imageCache.get(cacheKey, key -> createPlaceholderImage(key.imageWidth(), key.imageHeight()));
+    }
+
+    static int snapDimension(final int dimension) {
+        final var snapped = Math.round((float) dimension / DIMENSION_STEP) * DIMENSION_STEP;
+        return Math.clamp(snapped, DIMENSION_STEP, MAX_DIMENSION);
+    }
+
+    private @NotNull PlaceholderImage createPlaceholderImage(final int imageWidth, final int imageHeight) {
+        final var content = generatePlaceholderImage(imageWidth, imageHeight).getBytes(StandardCharsets.UTF_8);
+        final var checksum = new CRC32();
+        checksum.update(content);
+        final var eTag = "placeholder-%dx%d-%08x".formatted(imageWidth, imageHeight, checksum.getValue());
+        return new PlaceholderImage(content, gzip(content), "\"%s\"".formatted(eTag), "\"%s-gzip\"".formatted(eTag));
+    }
+
+    private static byte[] gzip(final byte[] content) {
+        final var buffer = new ByteArrayOutputStream(content.length / 2);
+        try (var gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(content);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e); // never thrown by an in-memory stream
+        }
+        return buffer.toByteArray();
     }
 
     @SuppressWarnings("ExtractMethodRecommender")
@@ -141,4 +177,18 @@ public final class PlaceholderImageGenerator {
 
     private record CacheKey(int imageWidth, int imageHeight) { }
 
+    /**
+     * <p>A generated placeholder image, ready to be sent to the client.</p>
+     *
+     * @param content the SVG code encoded as UTF-8
+     * @param gzipContent the SVG code encoded as UTF-8 and compressed with gzip
+     * @param eTag the strong entity tag of the uncompressed content
+     * @param gzipETag the strong entity tag of the compressed content
+     */
+    @SuppressWarnings("java:S6218") // equals, hashCode, and toString are not used
+    public record PlaceholderImage(byte[] content,
+                                   byte[] gzipContent,
+                                   @NotNull String eTag,
+                                   @NotNull String gzipETag) { }
+
 }
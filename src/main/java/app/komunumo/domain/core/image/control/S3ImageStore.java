@@ -0,0 +1,159 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.image.control;
+
+import app.komunumo.domain.core.config.entity.S3Config;
+import app.komunumo.domain.core.image.entity.ImageDto;
+import app.komunumo.util.ImageUtil;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * <p>Stores the image files in a bucket of an S3-compatible object storage (e.g. AWS S3, MinIO, or Garage), so all
+ * nodes of an instance share the same images. Objects are addressed path-style ({@code <endpoint>/<bucket>/<key>}),
+ * which is supported by all common implementations.</p>
+ *
+ * <p>Clients download the original images directly from the object storage using presigned URLs, so the application
+ * nodes don't need to proxy the bytes.</p>
+ */
+public final class S3ImageStore implements ImageStore {
+
+    private static final @NotNull String KEY_PREFIX = "images/";
+    private static final @NotNull Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final @NotNull Logger LOGGER = LoggerFactory.getLogger(S3ImageStore.class);
+
+    private final @NotNull HttpClient httpClient;
+    private final @NotNull String bucketUri;
+    private final @NotNull Duration presignDuration;
+    private final @NotNull S3RequestSigner signer;
+
+    public S3ImageStore(final @NotNull S3Config config) {
+        this(config, HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build());
+    }
+
+    S3ImageStore(final @NotNull S3Config config, final @NotNull HttpClient httpClient) {
+        this.httpClient = httpClient;
+        this.bucketUri = config.endpoint().replaceAll("/+$", "") + "/" + config.bucket() + "/";
+        this.presignDuration = config.presignDuration();
+        this.signer = new S3RequestSigner(config.accessKey(), config.secretKey(), config.region());
+    }
+
+    @Override
+    public void storeImage(final @NotNull ImageDto image,
+                           final @NotNull Path path,
+                           final @NotNull String hash) throws IOException {
+        final var uri = resolveObjectUri(image);
+        // the signed payload hash lets the object storage verify the upload
+        final var request = signedRequest("PUT", uri, hash)
+                .header("Content-Type", image.contentType().getContentType())
+                .PUT(HttpRequest.BodyPublishers.ofFile(path))
+                .build();
+        final var response = send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Failed to upload image '%s' to '%s': HTTP status %d"
+                    .formatted(image.id(), uri, response.statusCode()));
+        }
+        LOGGER.info("Uploaded image '{}' to '{}'", image.id(), uri);
+    }
+
+    @Override
+    public @NotNull Optional<InputStream> loadImage(final @NotNull ImageDto image) {
+        final var uri = resolveObjectUri(image);
+        final var request = signedRequest("GET", uri, S3RequestSigner.UNSIGNED_PAYLOAD)
+                .GET()
+                .build();
+        try {
+            final var response = send(request, HttpResponse.BodyHandlers.ofInputStream());
+            if (response.statusCode() == 200) {
+                return Optional.of(response.body());
+            }
+            response.body().close();
+            if (response.statusCode() != 404) {
+                LOGGER.warn("Failed to load image '{}' from '{}': HTTP status {}", image.id(), uri, response.statusCode());
+            }
+        } catch (final IOException e) {
+            LOGGER.warn("Failed to load image '{}' from '{}': {}", image.id(), uri, e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void deleteImage(final @NotNull ImageDto image) {
+        if (image.id() == null) {
+            return;
+        }
+        ImageUtil.deleteImageFile(image);
+        final var uri = resolveObjectUri(image);
+        final var request = signedRequest("DELETE", uri, S3RequestSigner.UNSIGNED_PAYLOAD)
+                .DELETE()
+                .build();
+        try {
+            final var response = send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() / 100 != 2 && response.statusCode() != 404) {
+                LOGGER.error("Failed to delete image '{}' from '{}': HTTP status {}", image.id(), uri, response.statusCode());
+            }
+        } catch (final IOException e) {
+            LOGGER.error("Failed to delete image '{}' from '{}': {}", image.id(), uri, e.getMessage());
+        }
+    }
+
+    @Override
+    public @NotNull Optional<URI> getDownloadUri(final @NotNull ImageDto image) {
+        return Optional.of(signer.presign("GET", resolveObjectUri(image), Instant.now(), presignDuration));
+    }
+
+    private @NotNull URI resolveObjectUri(final @NotNull ImageDto image) {
+        final var imageId = Objects.requireNonNull(image.id(), "ImageDto must have an ID!");
+        return URI.create(bucketUri + KEY_PREFIX + imageId + image.contentType().getExtension());
+    }
+
+    private @NotNull HttpRequest.Builder signedRequest(final @NotNull String method,
+                                                       final @NotNull URI uri,
+                                                       final @NotNull String payloadHash) {
+        final var builder = HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT);
+        signer.signHeaders(method, uri, Instant.now(), payloadHash).forEach(builder::header);
+        return builder;
+    }
+
+    private <T> @NotNull HttpResponse<T> send(final @NotNull HttpRequest request,
+                                              final @NotNull HttpResponse.BodyHandler<T> bodyHandler) throws IOException {
+        try {
+            return httpClient.send(request, bodyHandler);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while sending %s request to '%s'".formatted(request.method(), request.uri()), e);
+        }
+    }
+
+}
@@ -0,0 +1,226 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.image.control;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * <p>Signs requests to an S3-compatible object storage with the AWS Signature Version 4, either by adding the
+ * signature to the headers of a request or as a presigned URL which can be handed to a client.</p>
+ *
+ * <p>The path of the URIs passed to the signer must already be encoded. Object keys used by Komunumo consist of
+ * unreserved characters only, so they need no encoding at all.</p>
+ */
+final class S3RequestSigner {
+
+    static final @NotNull String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+
+    private static final @NotNull String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final @NotNull String SERVICE = "s3";
+    private static final @NotNull String TERMINATOR = "aws4_request";
+    private static final @NotNull DateTimeFormatter DATE_TIME_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final @NotNull DateTimeFormatter DATE_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+
+    private final @NotNull String accessKey;
+    private final @NotNull String secretKey;
+    private final @NotNull String region;
+
+    S3RequestSigner(final @NotNull String accessKey,
+                    final @NotNull String secretKey,
+                    final @NotNull String region) {
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+        this.region = region;
+    }
+
+    /**
+     * <p>Creates a presigned URL, which allows anybody to send a request with the given method to the given URI
+     * until it expires, without any credentials.</p>
+     *
+     * @param method the HTTP method of the request
+     * @param uri the URI of the object
+     * @param timestamp the time of signing
+     * @param expiry how long the URL stays valid
+     * @return the URI with the signature as query parameters
+     */
+    @NotNull URI presign(final @NotNull String method,
+                         final @NotNull URI uri,
+                         final @NotNull Instant timestamp,
+                         final @NotNull Duration expiry) {
+        final var dateTime = DATE_TIME_FORMATTER.format(timestamp);
+        final var scope = scope(timestamp);
+
+        final var query = new TreeMap<String, String>();
+        query.put("X-Amz-Algorithm", ALGORITHM);
+        query.put("X-Amz-Credential", accessKey + "/" + scope);
+        query.put("X-Amz-Date", dateTime);
+        query.put("X-Amz-Expires", Long.toString(expiry.toSeconds()));
+        query.put("X-Amz-SignedHeaders", "host");
+        final var canonicalQuery = canonicalQuery(query);
+
+        final var canonicalRequest = String.join("\n",
+                method,
+                canonicalPath(uri),
+                canonicalQuery,
+                "host:" + host(uri) + "\n",
+                "host",
+                UNSIGNED_PAYLOAD);
+        final var signature = sign(canonicalRequest, dateTime, timestamp);
+
+        return URI.create("%s://%s%s?%s&X-Amz-Signature=%s".formatted(
+                uri.getScheme(), uri.getRawAuthority(), canonicalPath(uri), canonicalQuery, signature));
+    }
+
+    /**
+     * <p>Creates the headers to authenticate a request with the given method to the given URI. The request must be
+     * sent with exactly these headers, the {@code Host} header is derived from the URI.</p>
+     *
+     * @param method the HTTP method of the request
+     * @param uri the URI of the object
+     * @param timestamp the time of signing
+     * @param payloadHash the hex encoded SHA-256 hash of the request body, or {@link #UNSIGNED_PAYLOAD}
+     * @return the headers to add to the request
+     */
+    @NotNull Map<String, String> signHeaders(final @NotNull String method,
+                                             final @NotNull URI uri,
+                                             final @NotNull Instant timestamp,
+                                             final @NotNull String payloadHash) {
+        final var dateTime = DATE_TIME_FORMATTER.format(timestamp);
+        final var signedHeaders = "host;x-amz-content-sha256;x-amz-date";
+        final var canonicalHeaders = "host:" + host(uri) + "\n"
+                + "x-amz-content-sha256:" + payloadHash + "\n"
+                + "x-amz-date:" + dateTime + "\n";
+
+        final var canonicalRequest = String.join("\n",
+                method,
+                canonicalPath(uri),
+                canonicalQuery(uri.getRawQuery()),
+                canonicalHeaders,
+                signedHeaders,
+                payloadHash);
+        final var signature = sign(canonicalRequest, dateTime, timestamp);
+
+        return Map.of(
+                "Authorization", "%s Credential=%s/%s, SignedHeaders=%s, Signature=%s".formatted(
+                        ALGORITHM, accessKey, scope(timestamp), signedHeaders, signature),
+                "x-amz-content-sha256", payloadHash,
+                "x-amz-date", dateTime);
+    }
+
+    private @NotNull String sign(final @NotNull String canonicalRequest,
+                                 final @NotNull String dateTime,
+                                 final @NotNull Instant timestamp) {
+        final var stringToSign = String.join("\n",
+                ALGORITHM,
+                dateTime,
+                scope(timestamp),
+                sha256Hex(canonicalRequest));
+
+        var key = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), DATE_FORMATTER.format(timestamp));
+        key = hmac(key, region);
+        key = hmac(key, SERVICE);
+        key = hmac(key, TERMINATOR);
+        return HexFormat.of().formatHex(hmac(key, stringToSign));
+    }
+
+    private @NotNull String scope(final @NotNull Instant timestamp) {
+        return String.join("/", DATE_FORMATTER.format(timestamp), region, SERVICE, TERMINATOR);
+    }
+
+    private static @NotNull String canonicalPath(final @NotNull URI uri) {
+        final var path = uri.getRawPath();
+        return path == null || path.isEmpty() ? "/" : path;
+    }
+
+    private static @NotNull String canonicalQuery(final @NotNull Map<String, String> query) {
+        return query.entrySet().stream()
+                .map(entry -> encode(entry.getKey()) + "=" + encode(entry.getValue()))
+                .collect(Collectors.joining("&"));
+    }
+
+    private static @NotNull String canonicalQuery(final @Nullable String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return "";
+        }
+        return Arrays.stream(rawQuery.split("&"))
+                .map(parameter -> parameter.contains("=") ? parameter : parameter + "=")
+                .sorted()
+                .collect(Collectors.joining("&"));
+    }
+
+    private static @NotNull String host(final @NotNull URI uri) {
+        return uri.getPort() == -1 ? uri.getHost() : uri.getHost() + ":" + uri.getPort();
+    }
+
+    /**
+     * <p>Encodes a query parameter as required by the signature: all characters except the unreserved ones are
+     * percent-encoded with uppercase hex digits.</p>
+     */
+    private static @NotNull String encode(final @NotNull String value) {
+        final var encoded = new StringBuilder();
+        for (final byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            final var c = (char) (b & 0xFF);
+            if (c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z' || c >= '0' && c <= '9'
+                    || c == '-' || c == '_' || c == '.' || c == '~') {
+                encoded.append(c);
+            } else {
+                encoded.append('%').append(HexFormat.of().withUpperCase().toHexDigits(b));
+            }
+        }
+        return encoded.toString();
+    }
+
+    private static @NotNull String sha256Hex(final @NotNull String value) {
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (final GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this JVM", e);
+        }
+    }
+
+    private static byte[] hmac(final byte[] key, final @NotNull String value) {
+        try {
+            final var mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(value.getBytes(StandardCharsets.UTF_8));
+        } catch (final GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not supported by this JVM", e);
+        }
+    }
+
+}
@@ -20,28 +20,32 @@ package app.komunumo.domain.core.image.control;
 import app.komunumo.KomunumoException;
 import app.komunumo.util.ImageUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.VisibleForTesting;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.xml.sax.EntityResolver;
-import org.xml.sax.InputSource;
 
 import javax.xml.XMLConstants;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerConfigurationException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathFactory;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLResolver;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Namespace;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
 import java.io.ByteArrayInputStream;
-import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringWriter;
-import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 
+/**
+ * <p>Wraps the instance logo into SVG templates, e.g. for placeholder images.</p>
+ *
+ * <p>All SVG code is processed with a streaming StAX parser, so neither the logo nor the templates are ever held as
+ * a DOM tree in memory. The parser is hardened: DTDs are ignored, and external entities, DTDs, and schemas are never
+ * loaded.</p>
+ */
 final class SvgHelper {
 
     // Store the user SVG as a string (without <svg> element)
@@ -52,15 +56,21 @@ final class SvgHelper {
 
     private static final String SPLIT_MARKE_STRING = "___USVG__";
 
+    private static final @NotNull QName ID_ATTRIBUTE = new QName("id");
+    private static final @NotNull QName VIEW_BOX_ATTRIBUTE = new QName("viewBox");
+
+    private static final @NotNull XMLInputFactory INPUT_FACTORY = newHardenedInputFactory();
+    private static final @NotNull XMLEventFactory EVENT_FACTORY = XMLEventFactory.newFactory();
+    private static final @NotNull XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+
     SvgHelper(final @NotNull String instanceLogo) {
         try {
-            final var inputStream = new ByteArrayInputStream(instanceLogo.getBytes(StandardCharsets.UTF_8));
-            final var svgDocument = parseSvg(inputStream, true);
-            final var svgElement = svgDocument.getDocumentElement();
+            final var reader = createEventReader(instanceLogo);
+            final var svgElement = nextStartElement(reader);
 
-            userSvgString = stripSvgShellElement(svgDocument);
             userSvgWidth = deriveSvgDimension(svgElement, "width");
             userSvgHeight = deriveSvgDimension(svgElement, "height");
+            userSvgString = stripSvgShellElement(reader, svgElement);
         } catch (final Exception e) {
             throw new KomunumoException("Failed to initialize template parser: " + e.getMessage(), e);
         }
@@ -79,29 +89,30 @@ final class SvgHelper {
      */
     String parseTemplate(final @NotNull String wrapperSvg) {
         try {
-            final var document = parseSvg(wrapperSvg, false);
-
-            final var xPath = XPathFactory.newInstance().newXPath();
-            final var xpathExpr = String.format("//%s[@id='%s']", "g", "Logo");
-            final var gLogo = (Element) xPath.evaluate(xpathExpr, document, XPathConstants.NODE);
-
-            if (gLogo == null) {
-                throw new KomunumoException("Container element not found");
+            final var reader = createEventReader(wrapperSvg);
+            final var writer = new StringWriter();
+            final var eventWriter = OUTPUT_FACTORY.createXMLEventWriter(writer);
+            var containerFound = false;
+
+            while (reader.hasNext()) {
+                final var event = reader.nextEvent();
+                if (event.getEventType() == XMLEvent.DTD) {
+                    continue;
+                }
+                eventWriter.add(event);
+
+                if (!containerFound && isLogoContainer(event)) {
+                    containerFound = true;
+                    skipElementContent(reader);
+                    eventWriter.add(EVENT_FACTORY.createCharacters(SPLIT_MARKE_STRING));
+                    eventWriter.add(reader.nextEvent()); // the end element of the container
+                }
             }
+            eventWriter.close();
 
-            while (gLogo.hasChildNodes()) {
-                gLogo.removeChild(gLogo.getFirstChild());
+            if (!containerFound) {
+                throw new KomunumoException("Container element not found");
             }
-            gLogo.appendChild(document.createTextNode(SPLIT_MARKE_STRING));
-
-            final var writer = new StringWriter();
-            final var transformer = newHardenedTransformer();
-            transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "no");
-            transformer.setOutputProperty(OutputKeys.METHOD, "xml");
-            transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
-            transformer.setOutputProperty(OutputKeys.STANDALONE, "no");
-            transformer.setOutputProperty(OutputKeys.INDENT, "no");
-            transformer.transform(new DOMSource(document), new StreamResult(writer));
             return writer.toString();
         } catch (final Exception e) {
             throw new KomunumoException("Failed to parse SVG template: " + e.getMessage(), e);
@@ -115,137 +126,151 @@ final class SvgHelper {
         return preppedTemplate.replace(SPLIT_MARKE_STRING, userSvgString);
     }
 
-    // Parse the SVG and extract its inner contents, stripping away the <svg> wrapper
-    private String stripSvgShellElement(final @NotNull Document doc) throws Exception {
-        final var svgContent = new StringBuilder();
-        final var rootElement = doc.getDocumentElement();
+    private static boolean isLogoContainer(final @NotNull XMLEvent event) {
+        if (!event.isStartElement()) {
+            return false;
+        }
+        final var element = event.asStartElement();
+        final var id = element.getAttributeByName(ID_ATTRIBUTE);
+        return "g".equals(element.getName().getLocalPart()) && id != null && "Logo".equals(id.getValue());
+    }
 
-        final Transformer transformer = newHardenedTransformer();
-        transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
-        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+    // Skip all events up to (but excluding) the end element of the current element
+    private static void skipElementContent(final @NotNull XMLEventReader reader) throws XMLStreamException {
+        var depth = 0;
+        while (reader.hasNext()) {
+            final var event = reader.peek();
+            if (event.isEndElement() && depth == 0) {
+                return;
+            }
+            reader.nextEvent();
+            if (event.isStartElement()) {
+                depth++;
+            } else if (event.isEndElement()) {
+                depth--;
+            }
+        }
+    }
 
-        final var children = rootElement.getChildNodes();
-        for (int i = 0; i < children.getLength(); i++) {
-            final var child = children.item(i);
-            final var writer = new StringWriter();
-            transformer.transform(new DOMSource(child), new StreamResult(writer));
-            svgContent.append(writer);
+    // Copy the inner contents of the SVG element the reader is positioned in, stripping away the <svg> wrapper
+    private static String stripSvgShellElement(final @NotNull XMLEventReader reader,
+                                               final @NotNull StartElement svgElement) throws XMLStreamException {
+        final var writer = new StringWriter();
+        final var eventWriter = OUTPUT_FACTORY.createXMLEventWriter(writer);
+
+        var depth = 0;
+        while (reader.hasNext()) {
+            final var event = reader.nextEvent();
+            if (event.isEndElement() && depth == 0) {
+                break;
+            }
+            if (event.isStartElement()) {
+                // top level elements must declare the namespaces of the stripped <svg> element themselves
+                eventWriter.add(depth == 0 ? inheritNamespaces(event.asStartElement(), svgElement) : event);
+                depth++;
+            } else {
+                if (event.isEndElement()) {
+                    depth--;
+                }
+                eventWriter.add(event);
+            }
         }
+        eventWriter.close();
 
-        return svgContent.toString();
+        return writer.toString();
     }
 
-    /**
-     *  Builds a hardened Transformer that avoids any external access (DTD/XSL).
-     */
-    private static Transformer newHardenedTransformer() throws TransformerConfigurationException {
-        return newHardenedTransformer(TransformerFactory.newInstance());
+    private static @NotNull StartElement inheritNamespaces(final @NotNull StartElement element,
+                                                           final @NotNull StartElement parent) {
+        final var namespaces = new LinkedHashMap<String, Namespace>();
+        parent.getNamespaces().forEachRemaining(namespace -> namespaces.put(namespace.getPrefix(), namespace));
+        element.getNamespaces().forEachRemaining(namespace -> namespaces.put(namespace.getPrefix(), namespace));
+        final var name = element.getName();
+        return EVENT_FACTORY.createStartElement(name.getPrefix(), name.getNamespaceURI(), name.getLocalPart(),
+                element.getAttributes(), namespaces.values().iterator());
     }
 
     /**
-     *  Testable seam: harden a provided TransformerFactory instance.
+     * <p>Creates an {@link XMLInputFactory} which can parse SVG code from untrusted sources.</p>
+     *
+     * <p>SVG code may contain DOCTYPE declarations, so they are accepted, but the parser neither loads external DTDs,
+     * schemas, or entities nor processes the internal DTD subset. Entity references which are not predefined by XML
+     * result in a parsing error instead of being expanded.</p>
+     *
+     * @return the hardened factory
      */
     @VisibleForTesting
-    static Transformer newHardenedTransformer(final TransformerFactory tf) throws TransformerConfigurationException {
-        // Enable secure processing (limits expansion, time, memory; implementation-dependent)
-        tf.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-
-        // Forbid external DTDs and stylesheets (prevents network/file access)
+    static @NotNull XMLInputFactory newHardenedInputFactory() {
+        final var factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        factory.setXMLResolver(noOpXmlResolver());
+
+        // Forbid any external access for DTDs and XML Schemas (not supported by all implementations)
         try {
-            tf.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
-            tf.setAttribute(XMLConstants.ACCESS_EXTERNAL_STYLESHEET, "");
-        } catch (IllegalArgumentException ignored) {
-            // Some TransformerFactory implementations may not support these attributes.
+            factory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+            factory.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+        } catch (final IllegalArgumentException ignored) {
+            // The other settings already prevent any external access.
         }
-
-        final Transformer transformer = tf.newTransformer();
-
-        // Never resolve URIs in XSLT (extra safety even though we use no stylesheets)
-        transformer.setURIResolver((_, _) -> null);
-
-        return transformer;
+        return factory;
     }
 
     /**
-     * <p>Parses an SVG from the given {@link InputStream} into a DOM {@link Document}.</p>
-     *
-     * <p>This method is configured to accept DOCTYPE declarations in the SVG,
-     * but prevents the parser from loading any external DTDs or schemas.
-     * Network requests (e.g., to w3.org) are disabled by:</p>
-     *
-     * <ul>
-     *   <li>Disallowing access to external DTDs and schemas via JAXP properties</li>
-     *   <li>Disabling the loading of external DTDs</li>
-     *   <li>Providing a no-op {@link org.xml.sax.EntityResolver} to resolve entities locally</li>
-     * </ul>
-     *
-     * <p>This ensures the SVG can be parsed without validation and without
-     * triggering HTTP requests, while still producing a usable DOM tree.</p>
-     *
-     * @param inputStream the input stream containing the SVG content; must not be {@code null}
-     * @return the parsed SVG as a DOM {@link Document}; will never be {@code null}
-     * @throws Exception if parsing fails for any reason
+     *  Returns a no-op XMLResolver that never fetches external resources.
      */
-    @SuppressWarnings("HttpUrlsUsage")
     @VisibleForTesting
-    static @NotNull Document parseSvg(final @NotNull InputStream inputStream,
-                                      final boolean namespaceAwareness) throws Exception {
-        final var factory = DocumentBuilderFactory.newInstance();
-        factory.setNamespaceAware(namespaceAwareness);
-        factory.setValidating(false); // no validation needed
-
-        // Prevent any external access for DTDs and XML Schemas
-        factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
-        factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
-
-        // Do not load external DTDs (avoids network calls to w3.org)
-        factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-
-        // Allow DOCTYPE declarations (explicitly set to be clear)
-        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", false);
-
-        final var builder = factory.newDocumentBuilder();
-
-        // No-op EntityResolver: if a DOCTYPE systemId is present, nothing will be loaded
-        builder.setEntityResolver(noOpEntityResolver());
+    static @NotNull XMLResolver noOpXmlResolver() {
+        return (_, _, _, _) -> new ByteArrayInputStream(new byte[0]);
+    }
 
-        return builder.parse(inputStream);
+    private static @NotNull XMLEventReader createEventReader(final @NotNull String svg) throws XMLStreamException {
+        return INPUT_FACTORY.createXMLEventReader(Reader.of(svg));
     }
 
-    /**
-     *  Returns a no-op EntityResolver that never fetches external resources.
-     */
-    @VisibleForTesting
-    static @NotNull EntityResolver noOpEntityResolver() {
-        return (_, _) -> new InputSource(Reader.of(""));
+    private static @NotNull StartElement nextStartElement(final @NotNull XMLEventReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            final var event = reader.nextEvent();
+            if (event.isStartElement()) {
+                return event.asStartElement();
+            }
+        }
+        throw new XMLStreamException("No root element found in SVG.");
     }
 
     /**
-     * Parses an SVG from the given String into a DOM {@link Document}.
-     * Delegates to {@link #parseSvg(InputStream,boolean)} to avoid code duplication.
+     * <p>Parses the given SVG code up to its root element.</p>
+     *
+     * @param svg the SVG code
+     * @return the root element including its attributes
+     * @throws XMLStreamException if the SVG code can't be parsed
      */
-    static @NotNull Document parseSvg(final @NotNull String svg,
-                                      final boolean namespaceAwareness) throws Exception {
-        try (var in = new ByteArrayInputStream(svg.getBytes(StandardCharsets.UTF_8))) {
-            return parseSvg(in, namespaceAwareness);
+    @VisibleForTesting
+    static @NotNull StartElement parseRootElement(final @NotNull String svg) throws XMLStreamException {
+        final var reader = createEventReader(svg);
+        try {
+            return nextStartElement(reader);
+        } finally {
+            reader.close();
         }
     }
 
     // Parse the SVG dimension and convert it to pixels (handling various units)
-    double deriveSvgDimension(final @NotNull Element docElement,
+    double deriveSvgDimension(final @NotNull StartElement svgElement,
                               final @NotNull String dimensionType) {
-        final var dimension = docElement.getAttribute(dimensionType);
+        final var dimension = getAttribute(svgElement, new QName(dimensionType));
 
         // If width/height is not provided, fall back to the viewBox values
-        //noinspection ConstantValue (dimension can be null)
         if (dimension == null || dimension.isBlank()) {
-            return getDimensionFromViewBox(docElement, dimensionType);
+            return getDimensionFromViewBox(svgElement, dimensionType);
         }
 
         // Handle % unit (percentage of the viewBox)
         double referenceValue = 0;
         if (dimension.endsWith("%")) {
-            referenceValue = getDimensionFromViewBox(docElement, dimensionType);
+            referenceValue = getDimensionFromViewBox(svgElement, dimensionType);
         }
 
         // Handle different units like in, mm, cm, pt, pc
@@ -253,10 +278,9 @@ final class SvgHelper {
     }
 
     // Extract the width/height from the viewBox if width/height are not provided
-    private double getDimensionFromViewBox(final @NotNull Element docElement,
+    private double getDimensionFromViewBox(final @NotNull StartElement svgElement,
                                            final @NotNull String dimensionType) {
-        final var viewBox = docElement.getAttribute("viewBox");
-        //noinspection ConstantValue (viewbox can be null)
+        final var viewBox = getAttribute(svgElement, VIEW_BOX_ATTRIBUTE);
         if (viewBox == null || viewBox.isBlank()) {
             throw new IllegalArgumentException("No viewBox or dimensions found in SVG.");
         }
@@ -276,4 +300,9 @@ final class SvgHelper {
         return 0;
     }
 
+    private static @Nullable String getAttribute(final @NotNull StartElement element, final @NotNull QName name) {
+        final var attribute = element.getAttributeByName(name);
+        return attribute == null ? null : attribute.getValue();
+    }
+
 }
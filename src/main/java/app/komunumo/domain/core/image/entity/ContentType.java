@@ -44,6 +44,15 @@ public enum ContentType {
         throw new IllegalArgumentException("Unknown content type: " + contentType);
     }
 
+    public static ContentType fromExtension(final @Nullable String extension) {
+        for (ContentType imageType : values()) {
+            if (imageType.extension.equals(extension)) {
+                return imageType;
+            }
+        }
+        throw new IllegalArgumentException("Unknown extension: " + extension);
+    }
+
     public @NotNull String getContentType() {
         return contentType;
     }
@@ -0,0 +1,37 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.image.entity;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+
+/**
+ * <p>The outcome of a cleanup of orphaned images.</p>
+ *
+ * @param dryRun {@code true} if nothing was deleted
+ * @param orphanedImages the number of orphaned images found
+ * @param deletedImages the number of images deleted (always zero for a dry run)
+ * @param duration the time the cleanup of the database took
+ */
+public record OrphanedImageCleanupDto(
+        boolean dryRun,
+        int orphanedImages,
+        int deletedImages,
+        @NotNull Duration duration
+) { }
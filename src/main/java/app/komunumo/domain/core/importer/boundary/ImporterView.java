@@ -17,6 +17,7 @@
  */
 package app.komunumo.domain.core.importer.boundary;
 
+import app.komunumo.domain.core.importer.control.ImportJobService;
 import app.komunumo.domain.core.importer.control.ImporterLog;
 import app.komunumo.domain.core.importer.control.JSONImporter;
 import app.komunumo.domain.community.control.CommunityService;
@@ -28,6 +29,7 @@ import app.komunumo.domain.core.mail.control.MailService;
 import app.komunumo.domain.core.image.control.ImageService;
 import app.komunumo.domain.member.control.MemberService;
 import app.komunumo.domain.user.control.UserService;
+import app.komunumo.util.DateTimeUtil;
 import app.komunumo.vaadin.components.AbstractView;
 import app.komunumo.domain.core.layout.boundary.WebsiteLayout;
 import com.vaadin.flow.component.UI;
@@ -35,6 +37,7 @@ import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.html.H2;
 import com.vaadin.flow.component.html.H3;
 import com.vaadin.flow.component.html.ListItem;
+import com.vaadin.flow.component.html.Paragraph;
 import com.vaadin.flow.component.html.UnorderedList;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
@@ -63,6 +66,7 @@ public final class ImporterView extends AbstractView {
     private final @NotNull ParticipantService participantService;
     private final @NotNull GlobalPageService globalPageService;
     private final @NotNull MailService mailService;
+    private final @NotNull ImportJobService importJobService;
 
     private final @NotNull UI ui;
     private final @NotNull TextField urlField;
@@ -83,7 +87,8 @@ public final class ImporterView extends AbstractView {
                         final @NotNull EventService eventService,
                         final @NotNull ParticipantService participantService,
                         final @NotNull GlobalPageService globalPageService,
-                        final @NotNull MailService mailService) {
+                        final @NotNull MailService mailService,
+                        final @NotNull ImportJobService importJobService) {
         super(configurationService);
 
         this.configurationService = configurationService;
@@ -95,6 +100,7 @@ public final class ImporterView extends AbstractView {
         this.participantService = participantService;
         this.globalPageService = globalPageService;
         this.mailService = mailService;
+        this.importJobService = importJobService;
         this.ui = UI.getCurrent();
 
         final var uploadHandler = UploadHandler
@@ -140,6 +146,7 @@ public final class ImporterView extends AbstractView {
         importFieldsContainer.add(uploadField);
         importFieldsContainer.add(urlField);
         importFieldsContainer.add(importButton);
+        addUnfinishedImports(importFieldsContainer);
         add(importFieldsContainer);
 
         importLogContainer = new VerticalLayout();
@@ -150,6 +157,41 @@ public final class ImporterView extends AbstractView {
         add(importLogContainer);
     }
 
+    /**
+     * <p>Lists the unfinished imports. An interrupted import is resumed by importing the same data again, so an
+     * import from a URL can be resumed directly, while an uploaded file has to be uploaded again.</p>
+     *
+     * @param container the container to add the list to
+     */
+    private void addUnfinishedImports(final @NotNull VerticalLayout container) {
+        final var unfinishedImportJobs = importJobService.getUnfinishedImportJobs();
+        if (unfinishedImportJobs.isEmpty()) {
+            return;
+        }
+
+        final var unfinishedImports = new UnorderedList();
+        unfinishedImports.addClassName("unfinished-imports");
+        for (final var importJob : unfinishedImportJobs) {
+            final var source = importJob.source();
+            final var listItem = new ListItem(getTranslation("core.importer.boundary.ImporterView.unfinishedImport",
+                    source, DateTimeUtil.getLocalizedDateTimeString(importJob.updated())));
+            if (source.startsWith("http://") || source.startsWith("https://")) {
+                final var resumeButton = new Button(getTranslation("core.importer.boundary.ImporterView.resumeImportButton"));
+                resumeButton.addClassName("resume-import-button");
+                resumeButton.addClickListener(_ -> {
+                    urlField.setValue(source);
+                    processImport();
+                });
+                listItem.add(resumeButton);
+            }
+            unfinishedImports.add(listItem);
+        }
+
+        container.add(new H3(getTranslation("core.importer.boundary.ImporterView.unfinishedImportsTitle")));
+        container.add(new Paragraph(getTranslation("core.importer.boundary.ImporterView.unfinishedImportsHint")));
+        container.add(unfinishedImports);
+    }
+
     private void processUploadSuccess(final @NotNull UploadMetadata metadata, final @NotNull File file) {
         file.deleteOnExit();
         uploadFile = file;
@@ -164,19 +206,24 @@ public final class ImporterView extends AbstractView {
         CompletableFuture
                 .runAsync(() -> {
                     final var jsonDataUrl = urlField.getValue();
-                    final var jsonImporter = uploadFile == null
+                    try (var jsonImporter = uploadFile == null
                             ? new JSONImporter(importerLog, jsonDataUrl)
-                            : new JSONImporter(importerLog, uploadFile);
-
-                    jsonImporter.importSettings(configurationService);
-                    jsonImporter.importImages(imageService);
-                    jsonImporter.importUsers(userService);
-                    jsonImporter.importCommunities(communityService);
-                    jsonImporter.importMembers(memberService);
-                    jsonImporter.importEvents(eventService);
-                    jsonImporter.importParticipants(participantService);
-                    jsonImporter.importGlobalPages(globalPageService);
-                    jsonImporter.importMailTemplates(mailService);
+                            : new JSONImporter(importerLog, uploadFile)) {
+                        jsonImporter.setBulkMode(true);
+                        jsonImporter.startImportJob(importJobService,
+                                uploadFile == null ? jsonDataUrl : uploadFile.getName());
+
+                        jsonImporter.importSettings(configurationService);
+                        jsonImporter.importImages(imageService);
+                        jsonImporter.importUsers(userService);
+                        jsonImporter.importCommunities(communityService);
+                        jsonImporter.importMembers(memberService);
+                        jsonImporter.importEvents(eventService);
+                        jsonImporter.importParticipants(participantService);
+                        jsonImporter.importGlobalPages(globalPageService);
+                        jsonImporter.importMailTemplates(mailService);
+                        jsonImporter.finishImportJob();
+                    }
                 })
                 .thenRunAsync(() -> ui.access(() -> {
                     if (uploadFile != null) {
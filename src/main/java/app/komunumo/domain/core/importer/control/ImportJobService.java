@@ -0,0 +1,188 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.importer.control;
+
+import app.komunumo.domain.core.importer.entity.ImportJobDto;
+import org.jetbrains.annotations.NotNull;
+import org.jooq.DSLContext;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static app.komunumo.data.db.tables.ImportJob.IMPORT_JOB;
+import static app.komunumo.data.db.tables.ImportJobSection.IMPORT_JOB_SECTION;
+
+/**
+ * <p>Service for recording the progress of imports, so an import which was interrupted can be resumed.</p>
+ *
+ * <p>An import job is identified by the hash of the imported JSON data, so importing the same data again resumes
+ * the unfinished job. For every section (the top-level arrays of the JSON data), the job records the number of
+ * items which are already stored, and whether the section is finished. A job is deleted when the import finished
+ * successfully; unfinished jobs are removed after {@link #IMPORT_JOB_RETENTION}.</p>
+ *
+ * <p>Checkpoints are saved after the items they cover have been stored. If an import is interrupted between
+ * storing a chunk and saving its checkpoint, the chunk is stored again when the import is resumed, which is safe
+ * because all imported items are upserted.</p>
+ */
+@Service
+public class ImportJobService {
+
+    /**
+     * <p>The time after which an unfinished import job can no longer be resumed.</p>
+     */
+    public static final @NotNull Duration IMPORT_JOB_RETENTION = Duration.ofDays(7);
+
+    private final @NotNull DSLContext dsl;
+
+    /**
+     * <p>Creates a new {@code ImportJobService} using the provided jOOQ {@link DSLContext}.</p>
+     *
+     * @param dsl the jOOQ DSL context used to interact with the database
+     */
+    public ImportJobService(final @NotNull DSLContext dsl) {
+        super();
+        this.dsl = dsl;
+    }
+
+    /**
+     * <p>Starts an import job, or resumes it if an unfinished job with the same ID exists.</p>
+     *
+     * @param jobId  the ID of the job, which is the hash of the imported JSON data
+     * @param source the source of the imported JSON data, for information only
+     * @return {@code true} if an unfinished job was resumed, {@code false} if a new job was started
+     */
+    public boolean startImportJob(final @NotNull String jobId,
+                                  final @NotNull String source) {
+        final var now = ZonedDateTime.now(ZoneOffset.UTC);
+        final var resumed = dsl.update(IMPORT_JOB)
+                .set(IMPORT_JOB.SOURCE, source)
+                .set(IMPORT_JOB.UPDATED, now)
+                .where(IMPORT_JOB.ID.eq(jobId))
+                .execute() > 0;
+        if (!resumed) {
+            dsl.insertInto(IMPORT_JOB)
+                    .set(IMPORT_JOB.ID, jobId)
+                    .set(IMPORT_JOB.SOURCE, source)
+                    .set(IMPORT_JOB.CREATED, now)
+                    .set(IMPORT_JOB.UPDATED, now)
+                    .execute();
+        }
+        return resumed;
+    }
+
+    /**
+     * <p>Returns the unfinished import jobs, most recently updated first. A job is unfinished while its import is
+     * running, or when the import was interrupted and can be resumed by importing the same data again.</p>
+     *
+     * @return the unfinished import jobs
+     */
+    public @NotNull List<@NotNull ImportJobDto> getUnfinishedImportJobs() {
+        return dsl.selectFrom(IMPORT_JOB)
+                .orderBy(IMPORT_JOB.UPDATED.desc())
+                .fetchInto(ImportJobDto.class);
+    }
+
+    /**
+     * <p>Returns the number of items of a section which are already stored.</p>
+     *
+     * @param jobId   the ID of the job
+     * @param section the name of the section
+     * @return the number of items to skip when the section is resumed, {@code 0} if there is no checkpoint
+     */
+    public int getPosition(final @NotNull String jobId,
+                           final @NotNull String section) {
+        return dsl.select(IMPORT_JOB_SECTION.POSITION)
+                .from(IMPORT_JOB_SECTION)
+                .where(IMPORT_JOB_SECTION.JOB_ID.eq(jobId))
+                .and(IMPORT_JOB_SECTION.SECTION.eq(section))
+                .fetchOptional(IMPORT_JOB_SECTION.POSITION)
+                .orElse(0);
+    }
+
+    /**
+     * <p>Checks whether a section was completely imported.</p>
+     *
+     * @param jobId   the ID of the job
+     * @param section the name of the section
+     * @return {@code true} if the section is finished
+     */
+    public boolean isSectionFinished(final @NotNull String jobId,
+                                     final @NotNull String section) {
+        return dsl.fetchExists(IMPORT_JOB_SECTION,
+                IMPORT_JOB_SECTION.JOB_ID.eq(jobId)
+                        .and(IMPORT_JOB_SECTION.SECTION.eq(section))
+                        .and(IMPORT_JOB_SECTION.FINISHED.isNotNull()));
+    }
+
+    /**
+     * <p>Saves the progress of a section.</p>
+     *
+     * @param jobId    the ID of the job
+     * @param section  the name of the section
+     * @param position the number of items of the section which are stored
+     * @param finished {@code true} if the section is completely imported
+     */
+    public void saveCheckpoint(final @NotNull String jobId,
+                               final @NotNull String section,
+                               final int position,
+                               final boolean finished) {
+        final var now = ZonedDateTime.now(ZoneOffset.UTC);
+        final var finishedAt = finished ? now : null;
+        dsl.transaction(configuration -> {
+            final var tx = configuration.dsl();
+            tx.insertInto(IMPORT_JOB_SECTION)
+                    .set(IMPORT_JOB_SECTION.JOB_ID, jobId)
+                    .set(IMPORT_JOB_SECTION.SECTION, section)
+                    .set(IMPORT_JOB_SECTION.POSITION, position)
+                    .set(IMPORT_JOB_SECTION.FINISHED, finishedAt)
+                    .onDuplicateKeyUpdate()
+                    .set(IMPORT_JOB_SECTION.POSITION, position)
+                    .set(IMPORT_JOB_SECTION.FINISHED, finishedAt)
+                    .execute();
+            tx.update(IMPORT_JOB)
+                    .set(IMPORT_JOB.UPDATED, now)
+                    .where(IMPORT_JOB.ID.eq(jobId))
+                    .execute();
+        });
+    }
+
+    /**
+     * <p>Finishes an import job by deleting it, so importing the same data again starts from scratch.</p>
+     *
+     * @param jobId the ID of the job
+     */
+    public void finishImportJob(final @NotNull String jobId) {
+        dsl.deleteFrom(IMPORT_JOB)
+                .where(IMPORT_JOB.ID.eq(jobId))
+                .execute();
+    }
+
+    /**
+     * <p>Removes unfinished import jobs which were not updated within the {@link #IMPORT_JOB_RETENTION}.</p>
+     */
+    @Scheduled(cron = "0 30 0 * * *")
+    public void cleanupImportJobs() {
+        dsl.deleteFrom(IMPORT_JOB)
+                .where(IMPORT_JOB.UPDATED.lt(ZonedDateTime.now(ZoneOffset.UTC).minus(IMPORT_JOB_RETENTION)))
+                .execute();
+    }
+}
@@ -47,51 +47,225 @@ import app.komunumo.util.DownloadUtil;
 import app.komunumo.util.ImageUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import tools.jackson.core.JsonToken;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @SuppressWarnings("java:S1192") // Suppressing "String literals should not be duplicated" because of different contexts
-public final class JSONImporter {
+public final class JSONImporter implements AutoCloseable {
+
+    /**
+     * <p>The number of items which are stored at once in bulk mode.</p>
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1_000;
+
+    private static final int MAX_DOWNLOADS = 16;
+    private static final int MAX_DOWNLOADS_PER_HOST = 4;
+    private static final int MAX_DOWNLOAD_ATTEMPTS = 3;
+    private static final @NotNull Duration INITIAL_DOWNLOAD_BACKOFF = Duration.ofMillis(500);
+    private static final int MAX_PENDING_IMAGES = 2 * MAX_DOWNLOADS;
+    private static final int IMAGE_PROGRESS_INTERVAL = 100;
 
     private final @NotNull ImporterLog importerLog;
-    private final @NotNull JsonNode root;
     private final @NotNull ObjectMapper objectMapper;
+    private final @NotNull Path jsonFile;
+    private final boolean temporaryFile;
+    private final @NotNull Map<String, Integer> arrayItemCounts;
+
+    private boolean bulkMode;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private boolean skipStoredImages;
+    private @Nullable ImportJob importJob;
 
     public JSONImporter(final @NotNull ImporterLog importerLog,
                         final @NotNull String jsonDataUrl) {
         this.importerLog = importerLog;
         this.objectMapper = new ObjectMapper();
+        Path downloadedFile = null;
         try {
-            final var json = DownloadUtil.getString(jsonDataUrl);
-            this.root = objectMapper.readTree(json);
-            logJSONInfo();
+            downloadedFile = DownloadUtil.getFile(jsonDataUrl);
+            this.arrayItemCounts = countArrayItems(downloadedFile);
         } catch (IOException | URISyntaxException e) {
+            deleteTemporaryFile(downloadedFile);
             importerLog.error("Failed to download JSON data from URL: %s".formatted(jsonDataUrl));
             throw new KomunumoException("Failed to download JSON data from URL: %s".formatted(jsonDataUrl), e);
         }
+        this.jsonFile = downloadedFile;
+        this.temporaryFile = true;
+        logJSONInfo();
     }
 
     public JSONImporter(final @NotNull ImporterLog importerLog,
                         final @NotNull File jsonDataFile) {
         this.importerLog = importerLog;
         this.objectMapper = new ObjectMapper();
+        this.jsonFile = jsonDataFile.toPath();
+        this.temporaryFile = false;
         try {
-            final var json = Files.readString(jsonDataFile.toPath());
-            this.root = objectMapper.readTree(json);
-            logJSONInfo();
+            this.arrayItemCounts = countArrayItems(jsonFile);
         } catch (IOException e) {
             importerLog.error("Failed to download JSON data from URL: %s".formatted(jsonDataFile.getName()));
             throw new KomunumoException("Failed to load JSON data from file: %s".formatted(jsonDataFile.getName()), e);
         }
+        logJSONInfo();
+    }
+
+    /**
+     * <p>Deletes the downloaded JSON data, if the importer was created with a URL.</p>
+     */
+    @Override
+    public void close() {
+        if (temporaryFile) {
+            deleteTemporaryFile(jsonFile);
+        }
+    }
+
+    private void deleteTemporaryFile(final @Nullable Path file) {
+        try {
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+        } catch (final IOException e) {
+            importerLog.warn("Failed to delete temporary file '%s': %s".formatted(file, e.getMessage()));
+        }
+    }
+
+    /**
+     * <p>Enables or disables the bulk mode for users, communities, events, members, and participants. In bulk mode,
+     * the items are stored in chunks, each with a few statements in a single transaction, instead of one by one.
+     * This is much faster for large imports.</p>
+     *
+     * @param bulkMode {@code true} to enable the bulk mode
+     */
+    public void setBulkMode(final boolean bulkMode) {
+        this.bulkMode = bulkMode;
+    }
+
+    /**
+     * <p>Sets the number of items which are stored at once in bulk mode.</p>
+     *
+     * @param chunkSize the chunk size, must be positive
+     */
+    public void setChunkSize(final int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("The chunk size must be positive, but was " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * <p>Enables or disables skipping images which are already stored. Images are immutable, so an image with the
+     * same ID is not downloaded and stored again, unless storing its content was interrupted.</p>
+     *
+     * @param skipStoredImages {@code true} to skip images which are already stored
+     */
+    public void setSkipStoredImages(final boolean skipStoredImages) {
+        this.skipStoredImages = skipStoredImages;
+    }
+
+    /**
+     * <p>Records the progress of this import in an import job, so an interrupted import of the same JSON data can
+     * be resumed: finished sections are skipped, the other sections continue after the last stored chunk, and
+     * images which are already stored are not downloaded again.</p>
+     *
+     * @param importJobService the service to record the progress with
+     * @param source           the source of the JSON data, for information only
+     */
+    public void startImportJob(final @NotNull ImportJobService importJobService,
+                               final @NotNull String source) {
+        final var jobId = hashJsonData();
+        if (importJobService.startImportJob(jobId, source)) {
+            importerLog.info("Resuming the unfinished import of this data.");
+        }
+        importJob = new ImportJob(importJobService, jobId);
+        skipStoredImages = true;
+    }
+
+    /**
+     * <p>Finishes the import job after all sections were imported, so importing the same JSON data again starts
+     * from scratch.</p>
+     */
+    public void finishImportJob() {
+        final var job = importJob;
+        if (job != null) {
+            job.service().finishImportJob(job.id());
+            importJob = null;
+        }
+    }
+
+    private @NotNull String hashJsonData() {
+        try (var input = new DigestInputStream(Files.newInputStream(jsonFile), MessageDigest.getInstance("SHA-256"))) {
+            input.transferTo(OutputStream.nullOutputStream());
+            return HexFormat.of().formatHex(input.getMessageDigest().digest());
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this JVM", e);
+        } catch (final IOException e) {
+            importerLog.error("Failed to read JSON data: %s".formatted(e.getMessage()));
+            throw new KomunumoException("Failed to read JSON data: %s".formatted(e.getMessage()), e);
+        }
+    }
+
+    private boolean isSectionFinished(final @NotNull String section) {
+        final var job = importJob;
+        if (job != null && job.service().isSectionFinished(job.id(), section)) {
+            importerLog.info("Skipping %s, they were already imported.".formatted(section));
+            return true;
+        }
+        return false;
+    }
+
+    private int getCheckpoint(final @NotNull String section) {
+        final var job = importJob;
+        final var position = job == null ? 0 : job.service().getPosition(job.id(), section);
+        if (position > 0) {
+            importerLog.info("Resuming import of %s after %d items.".formatted(section, position));
+        }
+        return position;
+    }
+
+    private void saveCheckpoint(final @NotNull String section, final int position, final boolean finished) {
+        final var job = importJob;
+        if (job != null) {
+            job.service().saveCheckpoint(job.id(), section, position, finished);
+        }
+    }
+
+    /**
+     * <p>The import job recording the progress of this import.</p>
+     *
+     * @param service the service to record the progress with
+     * @param id      the ID of the import job
+     */
+    private record ImportJob(@NotNull ImportJobService service,
+                             @NotNull String id) {
     }
 
     private void logJSONInfo() {
@@ -111,15 +285,87 @@ public final class JSONImporter {
     }
 
     private int countArrayItems(final @NotNull String arrayName) {
-        final var node = root.get(arrayName);
-        return node != null && node.isArray() ? node.size() : 0;
+        return arrayItemCounts.getOrDefault(arrayName, 0);
+    }
+
+    private boolean hasArray(final @NotNull String arrayName) {
+        return arrayItemCounts.containsKey(arrayName);
+    }
+
+    /**
+     * <p>Counts the items of all top-level arrays in a single streaming pass over the JSON data. The items are
+     * skipped without being parsed. Top-level properties which are not arrays are counted with zero items.</p>
+     *
+     * @param file the file containing the JSON data
+     * @return the number of items per top-level property
+     * @throws IOException if the file could not be read
+     */
+    private @NotNull Map<String, Integer> countArrayItems(final @NotNull Path file) throws IOException {
+        final var counts = new HashMap<String, Integer>();
+        try (var inputStream = Files.newInputStream(file);
+             var parser = objectMapper.createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return counts;
+            }
+            while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+                final var name = parser.currentName();
+                var count = 0;
+                if (parser.nextToken() == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        parser.skipChildren();
+                        count++;
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+                counts.put(name, count);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * <p>Streams the items of a top-level array, one by one. Only the current item is held in memory, all other
+     * properties are skipped without being parsed.</p>
+     *
+     * @param arrayName the name of the top-level array
+     * @param action    the action to perform for every item
+     */
+    private void forEachArrayItem(final @NotNull String arrayName,
+                                  final @NotNull Consumer<JsonNode> action) {
+        try (var inputStream = Files.newInputStream(jsonFile);
+             var parser = objectMapper.createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return;
+            }
+            while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+                final var name = parser.currentName();
+                final var token = parser.nextToken();
+                if (!arrayName.equals(name)) {
+                    parser.skipChildren();
+                } else if (token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        action.accept(objectMapper.readTree(parser));
+                    }
+                    return;
+                } else {
+                    return;
+                }
+            }
+        } catch (final IOException e) {
+            importerLog.error("Failed to read JSON data: %s".formatted(e.getMessage()));
+            throw new KomunumoException("Failed to read JSON data: %s".formatted(e.getMessage()), e);
+        }
     }
 
     public void importSettings(final @NotNull ConfigurationService configurationService) {
-        if (root.has("settings")) {
+        if (isSectionFinished("settings")) {
+            return;
+        }
+        if (hasArray("settings")) {
             final var counter = new AtomicInteger(0);
             importerLog.info("Start importing settings...");
-            root.get("settings").forEach(node -> {
+            forEachArrayItem("settings", node -> {
                 try {
                     final var setting = ConfigurationSetting.fromString(node.path("setting").asString());
                     final var language = node.path("language").asString(null);
@@ -143,6 +389,7 @@ public final class JSONImporter {
                 }
             });
             configurationService.clearCache();
+            saveCheckpoint("settings", countArrayItems("settings"), true);
             importerLog.info("...finished importing %d settings.".formatted(counter.get()));
         } else {
             importerLog.warn("No settings found in JSON data.");
@@ -150,168 +397,232 @@ public final class JSONImporter {
     }
 
     public void importUsers(final @NotNull UserService userService) {
-        if (root.has("users")) {
-            final var counter = new AtomicInteger(0);
-            importerLog.info("Start importing users...");
-            root.get("users").forEach(node -> {
-                try {
-                    final var userId = UUID.fromString(node.path("userId").asString());
-                    final var profile = node.path("profile").asString().trim();
-                    final var email = node.path("email").asString().trim();
-                    final var name = node.path("name").asString().trim();
-                    final var bio = node.path("bio").asString().trim();
-                    final var imageId = parseUUID(node.path("imageId").asString());
-                    final var role = UserRole.valueOf(node.path("role").asString().trim());
-                    final var type = UserType.valueOf(node.path("type").asString().trim());
-
-                    final var user = new UserDto(userId, null, null, profile, email, name, bio, imageId,
-                            role, type);
-                    userService.storeUser(user);
-                    counter.incrementAndGet();
-                } catch (final Exception e) {
-                    importerLog.warn("Skipping user '%s': %s".formatted(node, e.getMessage()));
-                }
-            });
-            importerLog.info("...finished importing %d users.".formatted(counter.get()));
-        } else {
-            importerLog.warn("No users found in JSON data.");
-        }
+        importItems("users", "user", JSONImporter::parseUser, userService::storeUser, userService::storeUsers);
+    }
+
+    private static @NotNull UserDto parseUser(final @NotNull JsonNode node) {
+        final var userId = UUID.fromString(node.path("userId").asString());
+        final var profile = node.path("profile").asString().trim();
+        final var email = node.path("email").asString().trim();
+        final var name = node.path("name").asString().trim();
+        final var bio = node.path("bio").asString().trim();
+        final var imageId = parseUUID(node.path("imageId").asString());
+        final var role = UserRole.valueOf(node.path("role").asString().trim());
+        final var type = UserType.valueOf(node.path("type").asString().trim());
+
+        return new UserDto(userId, null, null, profile, email, name, bio, imageId,
+                role, type);
+    }
+
+    /**
+     * <p>Returns the IDs of all images in the JSON data. Images with an invalid ID are ignored, because they are
+     * skipped by the import, too.</p>
+     *
+     * @return the IDs of the images
+     */
+    public @NotNull Set<UUID> getImageIds() {
+        final var imageIds = new HashSet<UUID>();
+        forEachArrayItem("images", node -> {
+            try {
+                imageIds.add(UUID.fromString(node.path("imageId").asString()));
+            } catch (final IllegalArgumentException e) {
+                importerLog.warn("Ignoring image '%s': %s".formatted(node, e.getMessage()));
+            }
+        });
+        return imageIds;
     }
 
     public void importImages(final @NotNull ImageService imageService) {
-        if (root.has("images")) {
+        if (isSectionFinished("images")) {
+            return;
+        }
+        if (hasArray("images")) {
             final var counter = new AtomicInteger(0);
+            final var skipped = new AtomicInteger(0);
+            final var total = countArrayItems("images");
+            final var start = System.nanoTime();
             importerLog.info("Start importing images...");
-            root.get("images").forEach(node -> {
-                try {
-                    final var imageId = UUID.fromString(node.path("imageId").asString());
-                    final var contentType = ContentType.fromContentType(node.path("contentType").asString());
-
-                    final var url = node.path("url").asString();
-                    final var path = DownloadUtil.downloadFile(url);
-
-                    final var image = new ImageDto(imageId, contentType);
-                    ImageUtil.storeImage(image, path);
-                    imageService.storeImage(image);
-                    counter.incrementAndGet();
-                } catch (final Exception e) {
-                    importerLog.warn("Skipping image '%s': %s".formatted(node, e.getMessage()));
+            final var resumePosition = getCheckpoint("images");
+            final var position = new AtomicInteger(0);
+            try (var downloader = new ParallelDownloader(MAX_DOWNLOADS, MAX_DOWNLOADS_PER_HOST,
+                    MAX_DOWNLOAD_ATTEMPTS, INITIAL_DOWNLOAD_BACKOFF)) {
+                // downloads run ahead concurrently, the images are stored in the order of the JSON data
+                final var pendingImages = new ArrayDeque<PendingImage>();
+                forEachArrayItem("images", node -> {
+                    if (position.getAndIncrement() < resumePosition) {
+                        return;
+                    }
+                    pendingImages.add(downloadImage(imageService, downloader, node, position.get()));
+                    if (pendingImages.size() >= MAX_PENDING_IMAGES) {
+                        storeImage(imageService, downloader, pendingImages.remove(), counter, skipped, total, start);
+                    }
+                });
+                while (!pendingImages.isEmpty()) {
+                    storeImage(imageService, downloader, pendingImages.remove(), counter, skipped, total, start);
                 }
-            });
-            importerLog.info("...finished importing %d images.".formatted(counter.get()));
+            }
+            saveCheckpoint("images", position.get(), true);
+            final var duration = Duration.ofNanos(System.nanoTime() - start);
+            importerLog.info("...finished importing %d images (%d of them already stored) in %d ms (%d per second)."
+                    .formatted(counter.get(), skipped.get(), duration.toMillis(), perSecond(counter.get(), duration)));
         } else {
             importerLog.warn("No images found in JSON data.");
         }
     }
 
-    public void importCommunities(final @NotNull CommunityService communityService) {
-        if (root.has("communities")) {
-            final var counter = new AtomicInteger(0);
-            importerLog.info("Start importing communities...");
-            root.get("communities").forEach(node -> {
-                try {
-                    final var communityId = UUID.fromString(node.path("communityId").asString());
-                    final var profile = node.path("profile").asString().trim();
-                    final var name = node.path("name").asString().trim();
-                    final var description = node.path("description").asString().trim();
-                    final var imageId = parseUUID(node.path("imageId").asString());
-
-                    final var community = new CommunityDto(communityId, profile, null, null,
-                            name, description, imageId);
-                    communityService.storeCommunity(community);
-                    counter.incrementAndGet();
-                } catch (final Exception e) {
-                    importerLog.warn("Skipping community '%s': %s".formatted(node, e.getMessage()));
-                }
-            });
-            importerLog.info("...finished importing %d communities.".formatted(counter.get()));
-        } else {
-            importerLog.warn("No communities found in JSON data.");
+    private @NotNull PendingImage downloadImage(final @NotNull ImageService imageService,
+                                                final @NotNull ParallelDownloader downloader,
+                                                final @NotNull JsonNode node,
+                                                final int position) {
+        try {
+            final var imageId = UUID.fromString(node.path("imageId").asString());
+            final var contentType = ContentType.fromContentType(node.path("contentType").asString());
+            final var image = new ImageDto(imageId, contentType);
+
+            if (skipStoredImages && imageService.isImageContentStored(imageId)) {
+                return new PendingImage(node, position, null, null);
+            }
+
+            final var url = node.path("url").asString();
+            return new PendingImage(node, position, image, downloader.download(url));
+        } catch (final Exception e) {
+            return new PendingImage(node, position, null, CompletableFuture.failedFuture(e));
         }
     }
 
-    public void importEvents(final @NotNull EventService eventService) {
-        if (root.has("events")) {
-            final var counter = new AtomicInteger(0);
-            importerLog.info("Start importing events...");
-            root.get("events").forEach(node -> {
-                try {
-                    final var eventId = UUID.fromString(node.path("eventId").asString());
-                    final var communityId = UUID.fromString(node.path("communityId").asString());
-                    final var title = node.path("title").asString().trim();
-                    final var description = node.path("description").asString().trim();
-                    final var location = node.path("location").asString().trim();
-                    final var begin = parseDateTime(node.path("begin").asString());
-                    final var end = parseDateTime(node.path("end").asString());
-                    final var imageId = parseUUID(node.path("imageId").asString());
-                    final var visibility = EventVisibility.valueOf(node.path("visibility").asString());
-                    final var status = EventStatus.valueOf(node.path("status").asString());
-
-                    final var event = new EventDto(eventId, communityId, null, null,
-                            title, description, location, begin, end, imageId, visibility, status);
-                    eventService.storeEvent(event);
-                    counter.incrementAndGet();
-                } catch (final Exception e) {
-                    importerLog.warn("Skipping event '%s': %s".formatted(node, e.getMessage()));
-                }
-            });
-            importerLog.info("...finished importing %d events.".formatted(counter.get()));
-        } else {
-            importerLog.warn("No events found in JSON data.");
+    private void storeImage(final @NotNull ImageService imageService,
+                            final @NotNull ParallelDownloader downloader,
+                            final @NotNull PendingImage pendingImage,
+                            final @NotNull AtomicInteger counter,
+                            final @NotNull AtomicInteger skipped,
+                            final int total,
+                            final long start) {
+        final var download = pendingImage.download();
+        if (download == null) {
+            // the image is stored already, which counts as imported
+            skipped.incrementAndGet();
+            countImage(pendingImage, counter, total, start);
+            return;
+        }
+        try {
+            final var path = download.get();
+            try {
+                final var image = Objects.requireNonNull(pendingImage.image());
+                final var hash = ImageUtil.storeImage(image, path);
+                imageService.storeImage(image);
+                imageService.storeImageBlob(image, hash);
+                imageService.generateImageVariants(image);
+            } finally {
+                // the file has been moved into the blob store already, unless storing the image failed
+                downloader.deleteFile(path);
+            }
+            countImage(pendingImage, counter, total, start);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KomunumoException("Importing images was interrupted", e);
+        } catch (final ExecutionException e) {
+            importerLog.warn("Skipping image '%s': %s".formatted(pendingImage.node(), e.getCause().getMessage()));
+        } catch (final Exception e) {
+            importerLog.warn("Skipping image '%s': %s".formatted(pendingImage.node(), e.getMessage()));
         }
     }
 
-    public void importParticipants(final @NotNull ParticipantService participantService) {
-        if (root.has("participants")) {
-            final var counter = new AtomicInteger(0);
-            importerLog.info("Start importing participants...");
-            root.get("participants").forEach(node -> {
-                try {
-                    final var eventId = UUID.fromString(node.path("eventId").asString());
-                    final var userId = UUID.fromString(node.path("userId").asString());
-                    final var registeredDate = parseDateTime(node.path("registered").asString());
-                    final var participant =  new ParticipantDto(eventId, userId, registeredDate);
-                    participantService.storeParticipant(participant);
-                    counter.incrementAndGet();
-                } catch (final Exception e) {
-                    importerLog.warn("Skipping participant '%s': %s".formatted(node, e.getMessage()));
-                }
-            });
-            importerLog.info("...finished importing %d participants.".formatted(counter.get()));
-        } else {
-            importerLog.warn("No participants found in JSON data.");
+    private void countImage(final @NotNull PendingImage pendingImage,
+                            final @NotNull AtomicInteger counter,
+                            final int total,
+                            final long start) {
+        final var count = counter.incrementAndGet();
+        if (count % IMAGE_PROGRESS_INTERVAL == 0) {
+            saveCheckpoint("images", pendingImage.position(), false);
+            final var duration = Duration.ofNanos(System.nanoTime() - start);
+            importerLog.info("...imported %d of %d images (%d per second)..."
+                    .formatted(count, total, perSecond(count, duration)));
         }
     }
 
+    /**
+     * <p>An image of the JSON data whose download may still be running.</p>
+     *
+     * @param node     the JSON node of the image
+     * @param position the number of images in the JSON data up to and including this one
+     * @param image    the image, or {@code null} if the JSON node is invalid or the image is already stored
+     * @param download the download of the image file, or {@code null} if the image is already stored
+     */
+    private record PendingImage(@NotNull JsonNode node,
+                                int position,
+                                @Nullable ImageDto image,
+                                @Nullable CompletableFuture<Path> download) {
+    }
+
+    public void importCommunities(final @NotNull CommunityService communityService) {
+        importItems("communities", "community", JSONImporter::parseCommunity,
+                communityService::storeCommunity, communityService::storeCommunities);
+    }
+
+    private static @NotNull CommunityDto parseCommunity(final @NotNull JsonNode node) {
+        final var communityId = UUID.fromString(node.path("communityId").asString());
+        final var profile = node.path("profile").asString().trim();
+        final var name = node.path("name").asString().trim();
+        final var description = node.path("description").asString().trim();
+        final var imageId = parseUUID(node.path("imageId").asString());
+
+        return new CommunityDto(communityId, profile, null, null,
+                name, description, imageId);
+    }
+
+    public void importEvents(final @NotNull EventService eventService) {
+        importItems("events", "event", JSONImporter::parseEvent, eventService::storeEvent, eventService::storeEvents);
+    }
+
+    private static @NotNull EventDto parseEvent(final @NotNull JsonNode node) {
+        final var eventId = UUID.fromString(node.path("eventId").asString());
+        final var communityId = UUID.fromString(node.path("communityId").asString());
+        final var title = node.path("title").asString().trim();
+        final var description = node.path("description").asString().trim();
+        final var location = node.path("location").asString().trim();
+        final var begin = parseDateTime(node.path("begin").asString());
+        final var end = parseDateTime(node.path("end").asString());
+        final var imageId = parseUUID(node.path("imageId").asString());
+        final var visibility = EventVisibility.valueOf(node.path("visibility").asString());
+        final var status = EventStatus.valueOf(node.path("status").asString());
+
+        return new EventDto(eventId, communityId, null, null,
+                title, description, location, begin, end, imageId, visibility, status);
+    }
+
+    public void importParticipants(final @NotNull ParticipantService participantService) {
+        importItems("participants", "participant", JSONImporter::parseParticipant,
+                participantService::storeParticipant, participantService::storeParticipants);
+    }
+
+    private static @NotNull ParticipantDto parseParticipant(final @NotNull JsonNode node) {
+        final var eventId = UUID.fromString(node.path("eventId").asString());
+        final var userId = UUID.fromString(node.path("userId").asString());
+        final var registeredDate = parseDateTime(node.path("registered").asString());
+        return new ParticipantDto(eventId, userId, registeredDate);
+    }
+
     public void importMembers(final @NotNull MemberService memberService) {
-        if (root.has("members")) {
-            final var counter = new AtomicInteger(0);
-            importerLog.info("Start importing members...");
-            root.get("members").forEach(node -> {
-                try {
-                    final var userId = UUID.fromString(node.path("userId").asString());
-                    final var communityId = UUID.fromString(node.path("communityId").asString());
-                    final var role = MemberRole.valueOf(node.path("role").asString());
-                    final var since = parseDateTime(node.path("since").asString());
+        importItems("members", "member", JSONImporter::parseMember, memberService::storeMember, memberService::storeMembers);
+    }
 
-                    final var member = new MemberDto(userId, communityId, role, since);
-                    memberService.storeMember(member);
-                    counter.incrementAndGet();
-                } catch (final Exception e) {
-                    importerLog.warn("Skipping member '%s': %s".formatted(node, e.getMessage()));
-                }
-            });
-            importerLog.info("...finished importing %d members.".formatted(counter.get()));
-        } else {
-            importerLog.warn("No members found in JSON data.");
-        }
+    private static @NotNull MemberDto parseMember(final @NotNull JsonNode node) {
+        final var userId = UUID.fromString(node.path("userId").asString());
+        final var communityId = UUID.fromString(node.path("communityId").asString());
+        final var role = MemberRole.valueOf(node.path("role").asString());
+        final var since = parseDateTime(node.path("since").asString());
+
+        return new MemberDto(userId, communityId, role, since);
     }
 
     public void importGlobalPages(final @NotNull GlobalPageService globalPageService) {
-        if (root.has("globalPages")) {
+        if (isSectionFinished("globalPages")) {
+            return;
+        }
+        if (hasArray("globalPages")) {
             final var counter = new AtomicInteger(0);
             importerLog.info("Start importing global pages...");
-            root.get("globalPages").forEach(node -> {
+            forEachArrayItem("globalPages", node -> {
                 try {
                     final var slot = node.path("slot").asString().trim();
                     final var languageNode = node.path("language");
@@ -332,6 +643,7 @@ public final class JSONImporter {
                     importerLog.warn("Skipping global page '%s': %s".formatted(node, e.getMessage()));
                 }
             });
+            saveCheckpoint("globalPages", countArrayItems("globalPages"), true);
             importerLog.info("...finished importing %d global pages.".formatted(counter.get()));
         } else {
             importerLog.warn("No global pages found in JSON data.");
@@ -339,10 +651,13 @@ public final class JSONImporter {
     }
 
     public void importMailTemplates(final @NotNull MailService mailService) {
-        if (root.has("mailTemplates")) {
+        if (isSectionFinished("mailTemplates")) {
+            return;
+        }
+        if (hasArray("mailTemplates")) {
             final var counter = new AtomicInteger(0);
             importerLog.info("Start importing mail templates...");
-            root.get("mailTemplates").forEach(node -> {
+            forEachArrayItem("mailTemplates", node -> {
                 try {
                     final var mailTemplateId = MailTemplateId.valueOf(node.path("mailTemplateId").asString());
                     final var language = Locale.forLanguageTag(node.path("language").asString());
@@ -357,12 +672,126 @@ public final class JSONImporter {
                     importerLog.warn("Skipping mail template '%s': %s".formatted(node, e.getMessage()));
                 }
             });
+            saveCheckpoint("mailTemplates", countArrayItems("mailTemplates"), true);
             importerLog.info("...finished importing %d mail templates.".formatted(counter.get()));
         } else {
             importerLog.warn("No mail templates found in JSON data.");
         }
     }
 
+    /**
+     * <p>Imports the items of a JSON array. In the default mode, every item is stored on its own. In bulk mode,
+     * the items are validated and buffered into chunks, and every chunk is stored at once. If storing a chunk
+     * fails, its items are stored one by one, so only the failing items are skipped.</p>
+     *
+     * <p>If an import job is started, a checkpoint is saved after every chunk, and a resumed import skips the
+     * items up to the last checkpoint.</p>
+     *
+     * @param arrayName the name of the JSON array, which is also the plural name of the items
+     * @param itemName  the singular name of the items
+     * @param parser    the function to create a DTO from a JSON node
+     * @param store     the function to store a single DTO
+     * @param bulkStore the function to store a chunk of DTOs
+     * @param <T>       the type of the DTOs
+     */
+    private <T> void importItems(final @NotNull String arrayName,
+                                 final @NotNull String itemName,
+                                 final @NotNull Function<JsonNode, T> parser,
+                                 final @NotNull Consumer<T> store,
+                                 final @NotNull Consumer<List<T>> bulkStore) {
+        if (isSectionFinished(arrayName)) {
+            return;
+        }
+        if (!hasArray(arrayName)) {
+            importerLog.warn("No %s found in JSON data.".formatted(arrayName));
+            return;
+        }
+
+        final var counter = new AtomicInteger(0);
+        final var start = System.nanoTime();
+        importerLog.info("Start importing %s...".formatted(arrayName));
+        final var resumePosition = getCheckpoint(arrayName);
+        final var position = new AtomicInteger(0);
+
+        if (bulkMode) {
+            final var chunk = new ArrayList<Map.Entry<JsonNode, T>>(chunkSize);
+            forEachArrayItem(arrayName, node -> {
+                if (position.getAndIncrement() < resumePosition) {
+                    return;
+                }
+                try {
+                    chunk.add(Map.entry(node, parser.apply(node)));
+                } catch (final Exception e) {
+                    importerLog.warn("Skipping %s '%s': %s".formatted(itemName, node, e.getMessage()));
+                }
+                if (chunk.size() >= chunkSize) {
+                    counter.addAndGet(storeChunk(chunk, arrayName, itemName, store, bulkStore));
+                    chunk.clear();
+                    saveCheckpoint(arrayName, position.get(), false);
+                }
+            });
+            counter.addAndGet(storeChunk(chunk, arrayName, itemName, store, bulkStore));
+            saveCheckpoint(arrayName, position.get(), true);
+
+            final var duration = Duration.ofNanos(System.nanoTime() - start);
+            importerLog.info("...finished importing %d %s in %d ms (%d per second)."
+                    .formatted(counter.get(), arrayName, duration.toMillis(), perSecond(counter.get(), duration)));
+        } else {
+            forEachArrayItem(arrayName, node -> {
+                if (position.getAndIncrement() < resumePosition) {
+                    return;
+                }
+                try {
+                    store.accept(parser.apply(node));
+                    counter.incrementAndGet();
+                } catch (final Exception e) {
+                    importerLog.warn("Skipping %s '%s': %s".formatted(itemName, node, e.getMessage()));
+                }
+                if (position.get() % chunkSize == 0) {
+                    saveCheckpoint(arrayName, position.get(), false);
+                }
+            });
+            saveCheckpoint(arrayName, position.get(), true);
+            importerLog.info("...finished importing %d %s.".formatted(counter.get(), arrayName));
+        }
+    }
+
+    /**
+     * <p>Stores a chunk of validated items at once, or one by one if storing the chunk fails.</p>
+     *
+     * @return the number of stored items
+     */
+    private <T> int storeChunk(final @NotNull List<Map.Entry<JsonNode, T>> chunk,
+                               final @NotNull String arrayName,
+                               final @NotNull String itemName,
+                               final @NotNull Consumer<T> store,
+                               final @NotNull Consumer<List<T>> bulkStore) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        try {
+            bulkStore.accept(chunk.stream().map(Map.Entry::getValue).toList());
+            return chunk.size();
+        } catch (final Exception e) {
+            importerLog.warn("Storing a chunk of %d %s failed, storing them one by one: %s"
+                    .formatted(chunk.size(), arrayName, e.getMessage()));
+        }
+        var stored = 0;
+        for (final var item : chunk) {
+            try {
+                store.accept(item.getValue());
+                stored++;
+            } catch (final Exception e) {
+                importerLog.warn("Skipping %s '%s': %s".formatted(itemName, item.getKey(), e.getMessage()));
+            }
+        }
+        return stored;
+    }
+
+    private static long perSecond(final int count, final @NotNull Duration duration) {
+        return count * 1_000L / Math.max(1, duration.toMillis());
+    }
+
     private static @Nullable UUID parseUUID(final @NotNull String uuidString) {
         return uuidString.isBlank() ? null : UUID.fromString(uuidString);
     }
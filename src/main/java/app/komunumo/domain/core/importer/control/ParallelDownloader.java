@@ -0,0 +1,130 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.importer.control;
+
+import app.komunumo.util.DownloadUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * <p>Downloads files concurrently, each on its own virtual thread.</p>
+ *
+ * <p>The number of concurrent downloads is bounded, in total and per host, so a large import neither exhausts
+ * the network nor floods a single server. Failing downloads are retried with an exponential backoff by
+ * {@link DownloadUtil#downloadFile(String, int, Duration, List)}, which shares one HTTP client for all downloads.
+ * The permits are only held during an attempt, not while waiting for the next one.</p>
+ *
+ * <p>The downloader owns the temporary files of the downloads. The caller deletes each file with
+ * {@link #deleteFile(Path)} after using it, and all files which have not been deleted, e.g. because an import was
+ * aborted, are deleted when the downloader is closed.</p>
+ */
+final class ParallelDownloader implements AutoCloseable {
+
+    private static final @NotNull Logger LOGGER = LoggerFactory.getLogger(ParallelDownloader.class);
+
+    private final @NotNull ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final @NotNull Set<Path> downloadedFiles = ConcurrentHashMap.newKeySet();
+    private final @NotNull Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    private final @NotNull Semaphore permits;
+    private final int maxDownloadsPerHost;
+    private final int maxAttempts;
+    private final @NotNull Duration initialBackoff;
+
+    /**
+     * <p>Creates a new downloader.</p>
+     *
+     * @param maxDownloads        the maximum number of concurrent downloads
+     * @param maxDownloadsPerHost the maximum number of concurrent downloads from the same host
+     * @param maxAttempts         the maximum number of attempts per download
+     * @param initialBackoff      the time to wait before the second attempt of a download
+     */
+    ParallelDownloader(final int maxDownloads,
+                       final int maxDownloadsPerHost,
+                       final int maxAttempts,
+                       final @NotNull Duration initialBackoff) {
+        this.permits = new Semaphore(maxDownloads, true);
+        this.maxDownloadsPerHost = maxDownloadsPerHost;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+    }
+
+    /**
+     * <p>Starts downloading the given location into a temporary file.</p>
+     *
+     * @param location the URL of the file, either an HTTP(S) URL or a data URL
+     * @return a future completed with the path of the temporary file, or exceptionally if the download failed
+     */
+    @NotNull CompletableFuture<Path> download(final @NotNull String location) {
+        return CompletableFuture.supplyAsync(() -> downloadWithPermits(location), executor);
+    }
+
+    private @NotNull Path downloadWithPermits(final @NotNull String location) {
+        final var host = getHost(location);
+        // the host permit is acquired first, so waiting for a busy host does not block downloads from other hosts
+        final var downloadPermits = host == null ? List.of(permits)
+                : List.of(hostPermits.computeIfAbsent(host, _ -> new Semaphore(maxDownloadsPerHost, true)), permits);
+        final var file = DownloadUtil.downloadFile(location, maxAttempts, initialBackoff, downloadPermits);
+        downloadedFiles.add(file);
+        return file;
+    }
+
+    /**
+     * <p>Deletes the temporary file of a finished download, if it still exists.</p>
+     *
+     * @param file the temporary file of the download
+     */
+    void deleteFile(final @NotNull Path file) {
+        downloadedFiles.remove(file);
+        try {
+            Files.deleteIfExists(file);
+        } catch (final IOException e) {
+            LOGGER.warn("Could not delete temporary file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static @Nullable String getHost(final @NotNull String location) {
+        return location.startsWith("data:") ? null : URI.create(location).getHost();
+    }
+
+    /**
+     * <p>Waits for all running downloads to finish and deletes the temporary files which have not been deleted
+     * yet.</p>
+     */
+    @Override
+    public void close() {
+        executor.close();
+        List.copyOf(downloadedFiles).forEach(this::deleteFile);
+    }
+
+}
@@ -32,4 +32,15 @@ public class EventGrid extends KomunumoGrid {
         addClassName("event-grid");
     }
 
+    /**
+     * <p>Adds more events at the end of the grid.</p>
+     *
+     * @param events the events to add
+     */
+    public void addEvents(final @NotNull List<EventWithImageDto> events) {
+        add(events.stream()
+                .map(EventCard::new)
+                .toArray(EventCard[]::new));
+    }
+
 }
@@ -26,6 +26,9 @@ import com.vaadin.flow.router.Route;
 import com.vaadin.flow.server.auth.AnonymousAllowed;
 import org.jetbrains.annotations.NotNull;
 
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
 @Route(value = "events", layout = WebsiteLayout.class)
 @AnonymousAllowed
 public final class EventGridView extends AbstractView {
@@ -34,8 +37,8 @@ public final class EventGridView extends AbstractView {
                          final @NotNull EventService eventService) {
         super(configurationService);
         setId("events-view");
-        final var events = eventService.getUpcomingEventsWithImage();
-        add(new EventGrid(events));
+        final var now = ZonedDateTime.now(ZoneOffset.UTC); // the same for all pages of the listing
+        add(new PagedEventGrid(cursor -> eventService.getUpcomingEventsWithImage(null, now, cursor, PagedEventGrid.PAGE_SIZE)));
     }
 
     @Override
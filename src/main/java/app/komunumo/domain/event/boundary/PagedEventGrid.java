@@ -0,0 +1,83 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.event.boundary;
+
+import app.komunumo.domain.event.entity.EventCursorDto;
+import app.komunumo.domain.event.entity.EventPageDto;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.html.Div;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * <p>A grid of events which shows one page of events at a time. More events are loaded page by page with a button
+ * below the grid, so only the events which are actually shown are loaded and rendered.</p>
+ */
+public final class PagedEventGrid extends Div {
+
+    /**
+     * <p>The number of events loaded at once.</p>
+     */
+    public static final int PAGE_SIZE = 24;
+
+    private final @NotNull Function<@Nullable EventCursorDto, @NotNull EventPageDto> pageLoader;
+    private final @NotNull EventGrid eventGrid;
+    private final @NotNull Button showMoreButton;
+
+    private @Nullable EventCursorDto nextCursor;
+    private final boolean empty;
+
+    /**
+     * <p>Creates a grid showing the first page of events.</p>
+     *
+     * @param pageLoader loads the page of events following the given cursor, or the first page for {@code null}
+     */
+    public PagedEventGrid(final @NotNull Function<@Nullable EventCursorDto, @NotNull EventPageDto> pageLoader) {
+        super();
+        this.pageLoader = pageLoader;
+        addClassName("paged-event-grid");
+
+        eventGrid = new EventGrid(List.of());
+        showMoreButton = new Button(getTranslation("event.boundary.PagedEventGrid.showMore"), _ -> showNextPage());
+        showMoreButton.addClassName("show-more-button");
+        add(eventGrid, showMoreButton);
+
+        showNextPage();
+        empty = eventGrid.getComponentCount() == 0;
+    }
+
+    /**
+     * <p>Checks whether there are no events at all.</p>
+     *
+     * @return {@code true} if there are no events
+     */
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    private void showNextPage() {
+        final var page = pageLoader.apply(nextCursor);
+        eventGrid.addEvents(page.events());
+        nextCursor = page.nextCursor();
+        showMoreButton.setVisible(nextCursor != null);
+    }
+
+}
@@ -17,12 +17,13 @@
  */
 package app.komunumo.domain.event.control;
 
+import app.komunumo.domain.event.entity.EventCursorDto;
 import app.komunumo.domain.event.entity.EventDto;
+import app.komunumo.domain.event.entity.EventPageDto;
 import app.komunumo.domain.event.entity.EventStatus;
 import app.komunumo.domain.event.entity.EventVisibility;
 import app.komunumo.domain.event.entity.EventWithImageDto;
 import app.komunumo.data.db.tables.Image;
-import app.komunumo.data.db.tables.records.EventRecord;
 import app.komunumo.domain.community.entity.CommunityDto;
 import app.komunumo.domain.core.image.entity.ContentType;
 import app.komunumo.domain.core.image.entity.ImageDto;
@@ -33,13 +34,16 @@ import app.komunumo.jooq.UniqueIdGenerator;
 import app.komunumo.jooq.StorageService;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jooq.Condition;
 import org.jooq.DSLContext;
 import org.jooq.Record;
+import org.jooq.SelectConditionStep;
 import org.springframework.stereotype.Service;
 
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -56,15 +60,16 @@ public final class EventService extends StorageService {
 
     public EventService(final @NotNull DSLContext dsl,
                         final @NotNull UniqueIdGenerator idGenerator) {
-        super(idGenerator);
+        super(dsl, idGenerator);
         this.dsl = dsl;
     }
 
     public @NotNull EventDto storeEvent(final @NotNull EventDto event) {
-        final EventRecord eventRecord = dsl.fetchOptional(EVENT, EVENT.ID.eq(event.id()))
-                .orElse(dsl.newRecord(EVENT));
-        createOrUpdate(EVENT, event, eventRecord);
-        return eventRecord.into(EventDto.class);
+        return createOrUpdate(EVENT, event).into(EventDto.class);
+    }
+
+    public void storeEvents(final @NotNull List<@NotNull EventDto> events) {
+        createOrUpdateAll(EVENT, events);
     }
 
     public @NotNull Optional<EventDto> getEvent(final @NotNull UUID id) {
@@ -96,45 +101,140 @@ public final class EventService extends StorageService {
     }
 
     public @NotNull List<@NotNull EventWithImageDto> getUpcomingEventsWithImage(final @Nullable CommunityDto community) {
-        final var now = ZonedDateTime.now(ZoneOffset.UTC);
-        var communityImage = IMAGE.as("COMMUNITY_IMAGE");
-        return dsl.select()
-                .from(EVENT)
-                .leftJoin(IMAGE).on(EVENT.IMAGE_ID.eq(IMAGE.ID))
-                .leftJoin(COMMUNITY).on(EVENT.COMMUNITY_ID.eq(COMMUNITY.ID))
-                .leftJoin(communityImage).on(COMMUNITY.IMAGE_ID.eq(communityImage.ID))
-                .where(
-                        EVENT.BEGIN.isNotNull()
-                                .and(EVENT.END.isNotNull())
-                                .and(EVENT.END.gt(now))
-                                .and(EVENT.VISIBILITY.eq(EventVisibility.PUBLIC))
-                                .and(EVENT.STATUS.in(EventStatus.PUBLISHED, EventStatus.CANCELED))
-                                .and(community != null ? EVENT.COMMUNITY_ID.eq(community.id()) : noCondition()))
-                .orderBy(EVENT.BEGIN.asc())
+        final var communityImage = IMAGE.as("COMMUNITY_IMAGE");
+        return selectEventsWithImage(communityImage, upcomingEventsCondition(community, ZonedDateTime.now(ZoneOffset.UTC)))
+                .orderBy(EVENT.BEGIN.asc(), EVENT.ID.asc())
                 .fetch(record -> mapRecordToEventWithImage(record, communityImage));
     }
 
+    /**
+     * <p>Returns a page of the upcoming events, ordered by their begin, earliest first.</p>
+     *
+     * <p>All pages of a listing have to be loaded with the same {@code now}, otherwise events which end between
+     * loading two pages are dropped from the listing.</p>
+     *
+     * @param community the community to return the events of, or {@code null} for the events of all communities
+     * @param now the point in time after which the events end, the same for all pages of a listing
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param pageSize the maximum number of events of the page, must be positive
+     * @return the page of events
+     */
+    public @NotNull EventPageDto getUpcomingEventsWithImage(final @Nullable CommunityDto community,
+                                                            final @NotNull ZonedDateTime now,
+                                                            final @Nullable EventCursorDto cursor,
+                                                            final int pageSize) {
+        return getEventPage(upcomingEventsCondition(community, now), true, cursor, pageSize);
+    }
+
     public @NotNull List<@NotNull EventWithImageDto> getPastEventsWithImage() {
         return getPastEventsWithImage(null);
     }
 
     public @NotNull List<@NotNull EventWithImageDto> getPastEventsWithImage(final @Nullable CommunityDto community) {
-        final var now = ZonedDateTime.now(ZoneOffset.UTC);
-        var communityImage = IMAGE.as("COMMUNITY_IMAGE");
+        final var communityImage = IMAGE.as("COMMUNITY_IMAGE");
+        return selectEventsWithImage(communityImage, pastEventsCondition(community, ZonedDateTime.now(ZoneOffset.UTC)))
+                .orderBy(EVENT.BEGIN.desc(), EVENT.ID.desc())
+                .fetch(record -> mapRecordToEventWithImage(record, communityImage));
+    }
+
+    /**
+     * <p>Returns a page of the past events, ordered by their begin, latest first.</p>
+     *
+     * <p>All pages of a listing have to be loaded with the same {@code now}, otherwise events which end between
+     * loading two pages show up on later pages out of order.</p>
+     *
+     * @param community the community to return the events of, or {@code null} for the events of all communities
+     * @param now the point in time before which the events end, the same for all pages of a listing
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param pageSize the maximum number of events of the page, must be positive
+     * @return the page of events
+     */
+    public @NotNull EventPageDto getPastEventsWithImage(final @Nullable CommunityDto community,
+                                                        final @NotNull ZonedDateTime now,
+                                                        final @Nullable EventCursorDto cursor,
+                                                        final int pageSize) {
+        return getEventPage(pastEventsCondition(community, now), false, cursor, pageSize);
+    }
+
+    private static @NotNull Condition upcomingEventsCondition(final @Nullable CommunityDto community,
+                                                              final @NotNull ZonedDateTime now) {
+        return EVENT.END.gt(now)
+                .and(publicEventsCondition(community));
+    }
+
+    private static @NotNull Condition pastEventsCondition(final @Nullable CommunityDto community,
+                                                          final @NotNull ZonedDateTime now) {
+        return EVENT.END.lt(now)
+                .and(publicEventsCondition(community));
+    }
+
+    private static @NotNull Condition publicEventsCondition(final @Nullable CommunityDto community) {
+        return EVENT.BEGIN.isNotNull()
+                .and(EVENT.END.isNotNull())
+                .and(EVENT.VISIBILITY.eq(EventVisibility.PUBLIC))
+                .and(EVENT.STATUS.in(EventStatus.PUBLISHED, EventStatus.CANCELED))
+                .and(community != null ? EVENT.COMMUNITY_ID.eq(community.id()) : noCondition());
+    }
+
+    private @NotNull SelectConditionStep<Record> selectEventsWithImage(final @NotNull Image communityImage,
+                                                                       final @NotNull Condition condition) {
         return dsl.select()
                 .from(EVENT)
                 .leftJoin(IMAGE).on(EVENT.IMAGE_ID.eq(IMAGE.ID))
                 .leftJoin(COMMUNITY).on(EVENT.COMMUNITY_ID.eq(COMMUNITY.ID))
                 .leftJoin(communityImage).on(COMMUNITY.IMAGE_ID.eq(communityImage.ID))
-                .where(
-                        EVENT.BEGIN.isNotNull()
-                                .and(EVENT.END.isNotNull())
-                                .and(EVENT.END.lt(now))
-                                .and(EVENT.VISIBILITY.eq(EventVisibility.PUBLIC))
-                                .and(EVENT.STATUS.in(EventStatus.PUBLISHED, EventStatus.CANCELED))
-                                .and(community != null ? EVENT.COMMUNITY_ID.eq(community.id()) : noCondition()))
-                .orderBy(EVENT.BEGIN.desc())
+                .where(condition);
+    }
+
+    /**
+     * <p>Returns a page of events using keyset pagination: instead of skipping the events of the previous pages
+     * with an offset, the query continues after the {@code (begin, id)} of the last event of the previous page.
+     * This uses the index on these columns, so every page is fetched equally fast, no matter how many events
+     * there are. One more event than requested is fetched to know whether there is a next page.</p>
+     *
+     * <p>The index on {@code (begin, id)} can't serve the filter on the end of the events. For upcoming events,
+     * which would otherwise scan all past events first, the database can use the index on {@code end} instead and
+     * sort the few upcoming events.</p>
+     *
+     * @param condition the condition selecting the events
+     * @param ascending {@code true} to order the events earliest first, {@code false} for latest first
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param pageSize the maximum number of events of the page
+     * @return the page of events
+     */
+    private @NotNull EventPageDto getEventPage(final @NotNull Condition condition,
+                                               final boolean ascending,
+                                               final @Nullable EventCursorDto cursor,
+                                               final int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("The page size must be positive, but was " + pageSize);
+        }
+
+        final Condition seekCondition;
+        if (cursor == null) {
+            seekCondition = noCondition();
+        } else if (ascending) {
+            seekCondition = EVENT.BEGIN.gt(cursor.begin())
+                    .or(EVENT.BEGIN.eq(cursor.begin()).and(EVENT.ID.gt(cursor.id())));
+        } else {
+            seekCondition = EVENT.BEGIN.lt(cursor.begin())
+                    .or(EVENT.BEGIN.eq(cursor.begin()).and(EVENT.ID.lt(cursor.id())));
+        }
+
+        final var communityImage = IMAGE.as("COMMUNITY_IMAGE");
+        final var events = selectEventsWithImage(communityImage, condition.and(seekCondition))
+                .orderBy(ascending ? EVENT.BEGIN.asc() : EVENT.BEGIN.desc(),
+                        ascending ? EVENT.ID.asc() : EVENT.ID.desc())
+                .limit(pageSize + 1)
                 .fetch(record -> mapRecordToEventWithImage(record, communityImage));
+
+        if (events.size() <= pageSize) {
+            return new EventPageDto(events, null);
+        }
+        final var page = List.copyOf(events.subList(0, pageSize));
+        final var lastEvent = page.getLast().event();
+        return new EventPageDto(page, new EventCursorDto(
+                Objects.requireNonNull(lastEvent.begin()), Objects.requireNonNull(lastEvent.id())));
     }
 
     private @NotNull EventWithImageDto mapRecordToEventWithImage(final @NotNull Record record,
@@ -49,6 +49,7 @@ import java.util.Optional;
 import java.util.UUID;
 
 import static app.komunumo.data.db.Tables.MEMBER;
+import static org.jooq.impl.DSL.excluded;
 
 @Service
 public final class MemberService {
@@ -107,30 +108,50 @@ public final class MemberService {
     }
 
     /**
-     * <p>Stores/Updates the Member record to the database.</p>
+     * <p>Stores the member with a single {@code INSERT ... ON DUPLICATE KEY UPDATE} statement, so concurrent joins
+     * of the same user don't conflict. For an existing member, only the role is updated and the date since when
+     * the user is a member is preserved.</p>
      *
-     * @param memberDto a DTO representation of the Member information
-     * @return the persisted Member information in DTO form
+     * @param memberDto the member to store
+     * @return the stored member
      */
     public @NotNull MemberDto storeMember(final @NotNull MemberDto memberDto) {
-        final var memberRecord = dsl.fetchOptional(MEMBER,
-                        MEMBER.USER_ID.eq(memberDto.userId())
-                                .and(MEMBER.COMMUNITY_ID.eq(memberDto.communityId())))
-                .orElse(dsl.newRecord(MEMBER));
+        final var since = memberDto.since() != null ? memberDto.since() : ZonedDateTime.now(ZoneOffset.UTC);
+        dsl.insertInto(MEMBER)
+                .set(MEMBER.USER_ID, memberDto.userId())
+                .set(MEMBER.COMMUNITY_ID, memberDto.communityId())
+                .set(MEMBER.ROLE, memberDto.role().name())
+                .set(MEMBER.SINCE, since)
+                .onDuplicateKeyUpdate()
+                .set(MEMBER.ROLE, memberDto.role().name())
+                .execute();
 
-        memberRecord.setUserId(memberDto.userId());
-        memberRecord.setCommunityId(memberDto.communityId());
-        memberRecord.setRole(memberDto.role().name());
+        // the preserved date of an existing member is only known to the database
+        return dsl.selectFrom(MEMBER)
+                .where(MEMBER.USER_ID.eq(memberDto.userId())
+                        .and(MEMBER.COMMUNITY_ID.eq(memberDto.communityId())))
+                .fetchSingleInto(MemberDto.class);
+    }
 
-        if (memberRecord.getSince() == null && memberDto.since() != null) {
-            memberRecord.setSince(memberDto.since());
-        } else if (memberRecord.getSince() == null) {
-            memberRecord.setSince(ZonedDateTime.now(ZoneOffset.UTC));
+    /**
+     * <p>Stores many members with a single multi-row {@code INSERT ... ON DUPLICATE KEY UPDATE} statement. Like
+     * {@link #storeMember(MemberDto)}, only the role of existing members is updated.</p>
+     *
+     * @param members the members to store
+     */
+    public void storeMembers(final @NotNull List<@NotNull MemberDto> members) {
+        if (members.isEmpty()) {
+            return;
         }
-
-        memberRecord.store();
-
-        return memberRecord.into(MemberDto.class);
+        final var now = ZonedDateTime.now(ZoneOffset.UTC);
+        var insert = dsl.insertInto(MEMBER, MEMBER.USER_ID, MEMBER.COMMUNITY_ID, MEMBER.ROLE, MEMBER.SINCE);
+        for (final var member : members) {
+            insert = insert.values(member.userId(), member.communityId(), member.role().name(),
+                    member.since() != null ? member.since() : now);
+        }
+        insert.onDuplicateKeyUpdate()
+                .set(MEMBER.ROLE, excluded(MEMBER.ROLE))
+                .execute();
     }
 
     public @NotNull List<@NotNull MemberDto> getMembers() {
@@ -17,7 +17,6 @@
  */
 package app.komunumo.domain.participant.control;
 
-import app.komunumo.data.db.tables.records.ParticipantRecord;
 import app.komunumo.domain.core.confirmation.control.ConfirmationHandler;
 import app.komunumo.domain.core.confirmation.control.ConfirmationService;
 import app.komunumo.domain.core.confirmation.entity.ConfirmationContext;
@@ -38,6 +37,7 @@ import app.komunumo.util.LinkUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.VisibleForTesting;
 import org.jooq.DSLContext;
+import org.jooq.Field;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -48,9 +48,12 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static app.komunumo.data.db.tables.Participant.PARTICIPANT;
 import static app.komunumo.data.db.tables.User.USER;
+import static org.jooq.impl.DSL.excluded;
+import static org.jooq.impl.DSL.val;
 
 @Service
 public final class ParticipantService {
@@ -151,18 +154,55 @@ public final class ParticipantService {
         return true;
     }
 
+    /**
+     * <p>Stores the participant with a single {@code INSERT ... ON DUPLICATE KEY UPDATE} statement, so concurrent
+     * registrations of the same user for the same event don't conflict. The registration timestamp of an existing
+     * participant is only changed if the DTO contains one.</p>
+     *
+     * @param participant the participant to store
+     */
     public void storeParticipant(final @NotNull ParticipantDto participant) {
-        final ParticipantRecord participantRecord = dsl.fetchOptional(PARTICIPANT,
-                        PARTICIPANT.EVENT_ID.eq(participant.eventId())
-                                .and(PARTICIPANT.USER_ID.eq(participant.userId())))
-                .orElse(dsl.newRecord(PARTICIPANT));
-        participantRecord.from(participant);
+        final var registered = participant.registered() != null
+                ? participant.registered() : ZonedDateTime.now(ZoneOffset.UTC);
+        dsl.insertInto(PARTICIPANT)
+                .set(PARTICIPANT.EVENT_ID, participant.eventId())
+                .set(PARTICIPANT.USER_ID, participant.userId())
+                .set(PARTICIPANT.REGISTERED, registered)
+                .onDuplicateKeyUpdate()
+                .set(PARTICIPANT.REGISTERED, participant.registered() != null
+                        ? val(registered, PARTICIPANT.REGISTERED) : PARTICIPANT.REGISTERED)
+                .execute();
+    }
+
+    /**
+     * <p>Stores many participants with at most two multi-row {@code INSERT ... ON DUPLICATE KEY UPDATE} statements,
+     * one for the participants with and one for those without a registration timestamp. Like
+     * {@link #storeParticipant(ParticipantDto)}, the registration timestamp of an existing participant is only
+     * changed if the DTO contains one.</p>
+     *
+     * @param participants the participants to store
+     */
+    public void storeParticipants(final @NotNull List<@NotNull ParticipantDto> participants) {
+        final var withRegistration = participants.stream()
+                .collect(Collectors.partitioningBy(participant -> participant.registered() != null));
+        storeParticipants(withRegistration.get(true), excluded(PARTICIPANT.REGISTERED));
+        storeParticipants(withRegistration.get(false), PARTICIPANT.REGISTERED);
+    }
 
+    private void storeParticipants(final @NotNull List<@NotNull ParticipantDto> participants,
+                                   final @NotNull Field<ZonedDateTime> registeredOnUpdate) {
+        if (participants.isEmpty()) {
+            return;
+        }
         final var now = ZonedDateTime.now(ZoneOffset.UTC);
-        if (participantRecord.getRegistered() == null) { // NOSONAR (false positive)
-            participantRecord.setRegistered(now);
+        var insert = dsl.insertInto(PARTICIPANT, PARTICIPANT.EVENT_ID, PARTICIPANT.USER_ID, PARTICIPANT.REGISTERED);
+        for (final var participant : participants) {
+            insert = insert.values(participant.eventId(), participant.userId(),
+                    participant.registered() != null ? participant.registered() : now);
         }
-        participantRecord.store();
+        insert.onDuplicateKeyUpdate()
+                .set(PARTICIPANT.REGISTERED, registeredOnUpdate)
+                .execute();
     }
 
     public @NotNull List<@NotNull ParticipantDto> getAllParticipants() {
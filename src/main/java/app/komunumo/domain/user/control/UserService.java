@@ -17,7 +17,6 @@
  */
 package app.komunumo.domain.user.control;
 
-import app.komunumo.data.db.tables.records.UserRecord;
 import app.komunumo.domain.user.entity.UserDto;
 import app.komunumo.domain.user.entity.UserRole;
 import app.komunumo.domain.user.entity.UserType;
@@ -40,15 +39,16 @@ public final class UserService extends StorageService {
 
     public UserService(final @NotNull DSLContext dsl,
                        final @NotNull UniqueIdGenerator idGenerator) {
-        super(idGenerator);
+        super(dsl, idGenerator);
         this.dsl = dsl;
     }
 
     public @NotNull UserDto storeUser(final @NotNull UserDto user) {
-        final UserRecord userRecord = dsl.fetchOptional(USER, USER.ID.eq(user.id()))
-                .orElse(dsl.newRecord(USER));
-        createOrUpdate(USER, user, userRecord);
-        return userRecord.into(UserDto.class);
+        return createOrUpdate(USER, user).into(UserDto.class);
+    }
+
+    public void storeUsers(final @NotNull List<@NotNull UserDto> users) {
+        createOrUpdateAll(USER, users);
     }
 
     public @NotNull List<@NotNull UserDto> getAllUsers() {
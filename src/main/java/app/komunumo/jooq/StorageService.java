@@ -18,10 +18,22 @@
 package app.komunumo.jooq;
 
 import org.jetbrains.annotations.NotNull;
-import org.jooq.impl.TableImpl;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Table;
+import org.jooq.UpdatableRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
 
 /**
  * <p>Provides generic persistence functionality for database records that
@@ -37,6 +49,24 @@ import java.time.ZonedDateTime;
  */
 public abstract class StorageService {
 
+    /**
+     * <p>How often a new record is stored with a freshly generated ID if the
+     * generated ID exists already.</p>
+     */
+    private static final int MAX_ID_ATTEMPTS = 3;
+
+    private static final @NotNull Logger LOGGER = LoggerFactory.getLogger(StorageService.class);
+
+    /**
+     * <p>The name of the field containing the creation timestamp.</p>
+     */
+    private static final @NotNull String CREATED = "created";
+
+    /**
+     * <p>The jOOQ context used for database access.</p>
+     */
+    private final @NotNull DSLContext dsl;
+
     /**
      * <p>The generator used to create unique identifiers for new records.</p>
      */
@@ -45,43 +75,254 @@ public abstract class StorageService {
     /**
      * <p>Creates a new {@link StorageService} instance.</p>
      *
+     * @param dsl         the jOOQ context used for database access
      * @param idGenerator the unique ID generator used for assigning identifiers
      *                    to newly created records
      */
-    protected StorageService(final @NotNull UniqueIdGenerator idGenerator) {
+    protected StorageService(final @NotNull DSLContext dsl,
+                             final @NotNull UniqueIdGenerator idGenerator) {
+        this.dsl = dsl;
         this.idGenerator = idGenerator;
     }
 
     /**
-     * <p>Inserts or updates a database record depending on whether it already
-     * exists.</p>
+     * <p>Inserts or updates a database record, without reading it first.</p>
+     *
+     * <p>The method copies all field values from the given DTO into a new database
+     * record and sets the {@code updated} timestamp in UTC. Depending on the ID of
+     * the DTO, a single statement is executed in the common cases:</p>
      *
-     * <p>The method copies all field values from the given DTO into the corresponding
-     * database record, assigns a unique ID if the record is new, and updates
-     * the {@code created} and {@code updated} timestamps in UTC. Finally, the record
-     * is stored via jOOQ’s {@link org.jooq.UpdatableRecord#store()} method. </p>
+     * <ul>
+     *     <li>Without an ID, a unique ID is assigned, the {@code created} timestamp
+     *     is set, and the record is inserted. Generated IDs are not checked against
+     *     the database before; if the primary key constraint reports that a generated
+     *     ID exists already, the record is inserted again with a new ID.</li>
+     *     <li>With an ID, the row is updated. The {@code created} timestamp of an
+     *     existing row is never changed. Only if no row with the ID exists, e.g.
+     *     during an import, the record is inserted.</li>
+     * </ul>
      *
-     * @param table  the jOOQ table definition associated with the record
-     * @param dto    the data transfer object containing updated field values
-     * @param record the jOOQ record representing the database row to be created or updated
+     * <p>The update is restricted to the row with the ID on purpose: an
+     * {@code INSERT ... ON DUPLICATE KEY UPDATE} would update another row if a
+     * secondary unique key like the email address or the profile conflicts.</p>
+     *
+     * @param table the jOOQ table definition associated with the record
+     * @param dto   the data transfer object containing the field values
+     * @param <R>   the type of the database record
+     * @return the stored database record
      */
-    protected void createOrUpdate(final @NotNull TableImpl<? extends RecordWithTimestamps> table,
-                                  final @NotNull Record dto,
-                                  final @NotNull RecordWithTimestamps record) {
-        record.from(dto);
+    protected <R extends UpdatableRecord<R> & RecordWithTimestamps> @NotNull R createOrUpdate(
+            final @NotNull Table<R> table,
+            final @NotNull Record dto) {
+        final var record = dsl.newRecord(table, dto);
+
+        final var now = ZonedDateTime.now(ZoneOffset.UTC);
+        record.setUpdated(now);
 
         if (record.getId() == null) { // NOSONAR (false positive: ID may be null for new records)
-            record.setId(idGenerator.getUniqueID(table));
+            record.setCreated(now);
+            insertWithGeneratedId(table, record);
+            return record;
+        }
+
+        if (update(table, record)) {
+            if (record.getCreated() == null) { // NOSONAR (false positive: date may be null in the DTO)
+                record.setCreated(fetchCreated(table, record.getId()));
+            }
+            return record;
         }
 
-        final var now = ZonedDateTime.now(ZoneOffset.UTC);
         if (record.getCreated() == null) { // NOSONAR (false positive: date may be null for new records)
             record.setCreated(now);
-            record.setUpdated(now);
-        } else {
-            record.setUpdated(now);
         }
-        record.store();
+        try {
+            insert(table, record);
+        } catch (final org.jooq.exception.DataAccessException | org.springframework.dao.DataAccessException e) {
+            // the row was inserted concurrently, or the update did not change it
+            if (!idExists(table, record.getId())) {
+                throw e;
+            }
+            update(table, record);
+            record.setCreated(fetchCreated(table, record.getId()));
+        }
+        return record;
+    }
+
+    /**
+     * <p>Inserts or updates many database records in a single transaction.</p>
+     *
+     * <p>The IDs of all DTOs are looked up with one query. Records with an
+     * unknown ID are inserted and known ones are updated, each with one JDBC
+     * batch. Like {@link #createOrUpdate(Table, Record)}, the {@code created}
+     * timestamp of existing rows is never changed. If any record fails, the
+     * transaction is rolled back and none of the records are stored.</p>
+     *
+     * @param table the jOOQ table definition associated with the records
+     * @param dtos  the data transfer objects containing the field values
+     * @param <R>   the type of the database records
+     */
+    protected <R extends UpdatableRecord<R> & RecordWithTimestamps> void createOrUpdateAll(
+            final @NotNull Table<R> table,
+            final @NotNull Collection<? extends Record> dtos) {
+        if (dtos.isEmpty()) {
+            return;
+        }
+        dsl.transaction(configuration -> {
+            final var transaction = configuration.dsl();
+            final var idField = getIdField(table);
+            final var createdField = table.field(CREATED);
+            final var now = ZonedDateTime.now(ZoneOffset.UTC);
+
+            final var records = dtos.stream()
+                    .map(dto -> transaction.newRecord(table, dto))
+                    .toList();
+            final var ids = records.stream()
+                    .map(RecordWithTimestamps::getId)
+                    .filter(Objects::nonNull)
+                    .toList();
+            final var existingIds = new HashSet<>(transaction.select(idField)
+                    .from(table)
+                    .where(idField.in(ids))
+                    .fetch(idField));
+
+            final var inserts = new ArrayList<R>();
+            final var updates = new ArrayList<R>();
+            for (final var record : records) {
+                record.setUpdated(now);
+                if (record.getId() == null) { // NOSONAR (false positive: ID may be null for new records)
+                    record.setId(idGenerator.getUniqueID(table));
+                    record.setCreated(now);
+                    inserts.add(record);
+                } else if (existingIds.contains(record.getId())) {
+                    record.changed(idField, false);
+                    record.changed(createdField, false);
+                    updates.add(record);
+                } else {
+                    if (record.getCreated() == null) { // NOSONAR (false positive: date may be null for new records)
+                        record.setCreated(now);
+                    }
+                    inserts.add(record);
+                }
+            }
+
+            if (!inserts.isEmpty()) {
+                transaction.batchInsert(inserts).execute();
+            }
+            if (!updates.isEmpty()) {
+                transaction.batchUpdate(updates).execute();
+            }
+        });
+    }
+
+    /**
+     * <p>Inserts a new record with a generated ID. If the generated ID exists
+     * already, the record is inserted again with a new ID.</p>
+     *
+     * @param table  the jOOQ table definition
+     * @param record the record to insert
+     * @param <R>    the type of the database record
+     */
+    private <R extends UpdatableRecord<R> & RecordWithTimestamps> void insertWithGeneratedId(
+            final @NotNull Table<R> table,
+            final @NotNull R record) {
+        for (var attempt = 1; ; attempt++) {
+            record.setId(idGenerator.getUniqueID(table));
+            try {
+                insert(table, record);
+                return;
+            } catch (final org.jooq.exception.DataAccessException | org.springframework.dao.DataAccessException e) {
+                if (attempt >= MAX_ID_ATTEMPTS || !idExists(table, record.getId())) {
+                    throw e;
+                }
+                LOGGER.warn("Generated ID '{}' exists already in table '{}', retrying with a new ID.",
+                        record.getId(), table.getName());
+            }
+        }
+    }
+
+    /**
+     * <p>Inserts the record with a single {@code INSERT} statement.</p>
+     *
+     * @param table  the jOOQ table definition
+     * @param record the record to insert
+     * @param <R>    the type of the database record
+     */
+    private <R extends UpdatableRecord<R> & RecordWithTimestamps> void insert(final @NotNull Table<R> table,
+                                                                              final @NotNull R record) {
+        dsl.insertInto(table)
+                .set(record)
+                .execute();
+    }
+
+    /**
+     * <p>Updates all fields of the row with the ID of the record, except the
+     * primary key and the {@code created} timestamp.</p>
+     *
+     * @param table  the jOOQ table definition
+     * @param record the record containing the new field values
+     * @param <R>    the type of the database record
+     * @return {@code true} if a row with the ID was found
+     */
+    private <R extends UpdatableRecord<R> & RecordWithTimestamps> boolean update(final @NotNull Table<R> table,
+                                                                                 final @NotNull R record) {
+        final var idField = getIdField(table);
+        final var primaryKey = table.getPrimaryKey();
+        final Map<Field<?>, Object> values = new LinkedHashMap<>();
+        for (final var field : table.fields()) {
+            final var isKey = primaryKey != null && primaryKey.getFields().contains(field);
+            if (!isKey && !CREATED.equals(field.getName())) {
+                values.put(field, record.get(field));
+            }
+        }
+        return dsl.update(table)
+                .set(values)
+                .where(idField.eq(record.getId()))
+                .execute() > 0;
+    }
+
+    /**
+     * <p>Reads the {@code created} timestamp of the row with the given ID.</p>
+     *
+     * @param table the jOOQ table definition
+     * @param id    the ID of the row
+     * @return the creation timestamp of the row
+     */
+    private @NotNull ZonedDateTime fetchCreated(final @NotNull Table<?> table,
+                                                final @NotNull UUID id) {
+        final var createdField = table.field(CREATED);
+        if (createdField == null || createdField.getType() != ZonedDateTime.class) {
+            throw new IllegalArgumentException("Table '" + table.getName() + "' does not have a 'created' field");
+        }
+        return (ZonedDateTime) dsl.select(createdField)
+                .from(table)
+                .where(getIdField(table).eq(id))
+                .fetchSingle(createdField);
+    }
+
+    /**
+     * <p>Checks whether a row with the given ID exists in the table.</p>
+     *
+     * @param table the jOOQ table definition
+     * @param id    the ID to look for
+     * @return {@code true} if a row with the ID exists
+     */
+    private boolean idExists(final @NotNull Table<?> table,
+                             final @NotNull UUID id) {
+        return dsl.fetchExists(table, getIdField(table).eq(id));
+    }
+
+    /**
+     * <p>Returns the ID field of the table.</p>
+     *
+     * @param table the jOOQ table definition
+     * @return the ID field
+     */
+    private static @NotNull Field<UUID> getIdField(final @NotNull Table<?> table) {
+        final var idField = UniqueIdGenerator.getIdField(table);
+        if (idField == null) {
+            throw new IllegalArgumentException("Table '" + table.getName() + "' does not have a UUID 'id' field");
+        }
+        return idField;
     }
 
 }
@@ -21,23 +21,46 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jooq.Converter;
 
+import java.nio.ByteBuffer;
 import java.util.UUID;
 
-public final class UUIDConverter implements Converter<String, UUID> {
+/**
+ * <p>Converts between {@link UUID} values and their compact binary representation in {@code BINARY(16)}
+ * columns.</p>
+ *
+ * <p>The most significant bits are stored first, so time-ordered UUIDs (version 7) keep their order in the
+ * database and new rows are appended at the end of the index.</p>
+ */
+public final class UUIDConverter implements Converter<byte[], UUID> {
+
+    private static final int UUID_LENGTH = 16;
 
     @Override
-    public @Nullable UUID from(final @Nullable String databaseObject) {
-        return databaseObject == null ? null : UUID.fromString(databaseObject);
+    public @Nullable UUID from(final byte @Nullable [] databaseObject) {
+        if (databaseObject == null) {
+            return null;
+        }
+        if (databaseObject.length != UUID_LENGTH) {
+            throw new IllegalArgumentException("A UUID must be 16 bytes long, but got " + databaseObject.length + " bytes");
+        }
+        final var buffer = ByteBuffer.wrap(databaseObject);
+        return new UUID(buffer.getLong(), buffer.getLong());
     }
 
     @Override
-    public @Nullable String to(final @Nullable UUID userObject) {
-        return userObject == null ? null : userObject.toString();
+    public byte @Nullable [] to(final @Nullable UUID userObject) {
+        if (userObject == null) {
+            return null;
+        }
+        return ByteBuffer.allocate(UUID_LENGTH)
+                .putLong(userObject.getMostSignificantBits())
+                .putLong(userObject.getLeastSignificantBits())
+                .array();
     }
 
     @Override
-    public @NotNull Class<String> fromType() {
-        return String.class;
+    public @NotNull Class<byte[]> fromType() {
+        return byte[].class;
     }
 
     @Override
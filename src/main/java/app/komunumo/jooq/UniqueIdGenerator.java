@@ -20,35 +20,54 @@ package app.komunumo.jooq;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jooq.DSLContext;
 import org.jooq.Field;
 import org.jooq.Table;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.security.SecureRandom;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * <p>Generates the IDs of new records.</p>
+ *
+ * <p>By default, time-ordered UUIDs (version 7) are generated without any locking or database access. Collisions
+ * are practically impossible; the primary key constraint is the safety net, and
+ * {@link StorageService#createOrUpdate} retries with a new ID if it is ever hit.</p>
+ *
+ * <p>For ID suppliers which may repeat themselves, the generator can check each ID against the database, holding a
+ * lock per table to not hand out the same ID twice.</p>
+ */
 @Service
 public class UniqueIdGenerator {
 
     private final @NotNull DSLContext dsl;
     private final @NotNull IdSupplier idSupplier;
+    private final boolean checkDatabase;
 
     @Autowired
     public UniqueIdGenerator(final @NotNull DSLContext dsl) {
-        this(dsl, new RandomUUIDSupplier());
+        this(dsl, new TimeOrderedUUIDSupplier(), false);
     }
 
     UniqueIdGenerator(final @NotNull DSLContext dsl, final @NotNull IdSupplier idSupplier) {
+        this(dsl, idSupplier, true);
+    }
+
+    UniqueIdGenerator(final @NotNull DSLContext dsl, final @NotNull IdSupplier idSupplier, final boolean checkDatabase) {
         super();
         this.dsl = dsl;
         this.idSupplier = idSupplier;
+        this.checkDatabase = checkDatabase;
     }
 
-    // Cache for recently generated UUIDs in the format “table:id”
+    // Cache for recently generated UUIDs whose records may not be stored yet (only used when checking the database)
     private final @NotNull Cache<@NotNull UUID, @NotNull Boolean> idCache = Caffeine.newBuilder()
             .expireAfterWrite(5, TimeUnit.MINUTES)
             .maximumSize(100)
@@ -59,17 +78,23 @@ public class UniqueIdGenerator {
 
     /**
      * Creates a unique UUID for the given table.
-     * The UUID is checked against the database and the local cache.
+     * In lock-free mode, the UUID of the supplier is returned as it is. Otherwise, it is checked against the local
+     * cache and the database.
      *
      * @param table the table for which to generate an ID
      * @return a Universally Unique Identifier (UUID, RFC 4122)
      */
     public @NotNull UUID getUniqueID(final @NotNull Table<?> table) {
         final var tableName = table.getName();
-        final var idField = table.field("id", String.class);
+        final var idField = getIdField(table);
 
         if (idField == null) {
-            throw new IllegalArgumentException("Table '" + tableName + "' does not have a String 'id' field");
+            throw new IllegalArgumentException("Table '" + tableName + "' does not have a UUID 'id' field");
+        }
+
+        if (!checkDatabase) {
+            // the counter of the time-ordered supplier never repeats an ID, the primary key is the safety net
+            return idSupplier.getId();
         }
 
         // Lock per table for thread safety
@@ -95,22 +120,35 @@ public class UniqueIdGenerator {
      * Checks whether a UUID already exists in the table.
      */
     private boolean idExistsInDatabase(final @NotNull Table<?> table,
-                                       final @NotNull Field<String> idField,
+                                       final @NotNull Field<UUID> idField,
                                        final @NotNull UUID uuid) {
         return dsl.selectOne()
                 .from(table)
-                .where(idField.eq(uuid.toString()))
+                .where(idField.eq(uuid))
                 .limit(1)
                 .fetchOptional()
                 .isPresent();
     }
 
+    /**
+     * <p>Returns the {@code id} field of the table, if it is mapped to {@link UUID}. The generated field is used
+     * as it is, because only its converter knows how the UUID is stored in the database.</p>
+     *
+     * @param table the table to get the ID field from
+     * @return the ID field, or {@code null} if the table has no UUID ID field
+     */
+    @SuppressWarnings("unchecked")
+    static @Nullable Field<UUID> getIdField(final @NotNull Table<?> table) {
+        final var field = table.field("id");
+        return field != null && field.getType() == UUID.class ? (Field<UUID>) field : null;
+    }
+
     /** Interface for ID generators. */
     public interface IdSupplier {
         @NotNull UUID getId();
     }
 
-    /** Default implementation with UUID.randomUUID(). */
+    /** Implementation with UUID.randomUUID(). */
     public static final class RandomUUIDSupplier implements IdSupplier {
         @Override
         public @NotNull UUID getId() {
@@ -118,4 +156,32 @@ public class UniqueIdGenerator {
         }
     }
 
+    /**
+     * Default implementation with time-ordered UUIDs (version 7, RFC 9562).
+     * The 48 bit timestamp in milliseconds is followed by a 12 bit counter, so IDs generated by this
+     * supplier are strictly increasing, even within the same millisecond. If the counter overflows, the
+     * timestamp is advanced by one millisecond. The remaining 62 bits are random.
+     */
+    public static final class TimeOrderedUUIDSupplier implements IdSupplier {
+
+        private static final int COUNTER_BITS = 12;
+
+        private final @NotNull SecureRandom random = new SecureRandom();
+
+        // timestamp in milliseconds shifted left by the counter bits, plus the counter
+        private final @NotNull AtomicLong lastTimestampAndCounter = new AtomicLong();
+
+        @Override
+        public @NotNull UUID getId() {
+            final var now = System.currentTimeMillis() << COUNTER_BITS;
+            final var timestampAndCounter = lastTimestampAndCounter.updateAndGet(last -> Math.max(now, last + 1));
+
+            final var timestamp = timestampAndCounter >>> COUNTER_BITS;
+            final var counter = timestampAndCounter & ((1L << COUNTER_BITS) - 1);
+            final var mostSignificantBits = timestamp << 16 | 0x7000L | counter;
+            final var leastSignificantBits = random.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+            return new UUID(mostSignificantBits, leastSignificantBits);
+        }
+    }
+
 }
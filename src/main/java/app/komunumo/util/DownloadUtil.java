@@ -28,13 +28,30 @@ import java.net.URLDecoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public final class DownloadUtil {
 
+    private static final @NotNull Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final @NotNull Duration RESPONSE_TIMEOUT = Duration.ofSeconds(30);
+    private static final @NotNull Duration DOWNLOAD_TIMEOUT = Duration.ofMinutes(5);
+
+    private static final @NotNull HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+            .connectTimeout(CONNECT_TIMEOUT)
+            .build();
+
     public static @NotNull String getString(final @NotNull String location)
             throws IOException, URISyntaxException {
         try (InputStream in = new URI(location).toURL().openStream()) {
@@ -42,8 +59,61 @@ public final class DownloadUtil {
         }
     }
 
-    @SuppressWarnings({"java:S2095", "java:S2142", "LoggingSimilarMessage"})
+    /**
+     * <p>Copies the content of the given location into a temporary file, without holding it in memory. The caller
+     * is responsible for deleting the file.</p>
+     *
+     * @param location the URL of the content
+     * @return the path of the temporary file
+     * @throws IOException if the content could not be read or written
+     * @throws URISyntaxException if the location is not a valid URI
+     */
+    public static @NotNull Path getFile(final @NotNull String location)
+            throws IOException, URISyntaxException {
+        final var tempFile = Files.createTempFile("download-", ".tmp");
+        tempFile.toFile().deleteOnExit();
+        try (InputStream in = new URI(location).toURL().openStream()) {
+            Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            return tempFile;
+        } catch (final IOException | URISyntaxException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    /**
+     * <p>Downloads the content of the given location into a temporary file, without retrying.</p>
+     *
+     * @param location the URL of the content, either an HTTP(S) URL or a data URL
+     * @return the path of the temporary file
+     * @see #downloadFile(String, int, Duration, List)
+     */
     public static @NotNull Path downloadFile(final @NotNull String location) {
+        return downloadFile(location, 1, Duration.ZERO, List.of());
+    }
+
+    /**
+     * <p>Downloads the content of the given location into a temporary file. Network errors and responses
+     * indicating a temporary problem ({@code 429} and {@code 5xx}) are retried, waiting twice as long before
+     * every further attempt. All downloads share the same HTTP client.</p>
+     *
+     * <p>Every attempt is bounded: connecting times out after 10 seconds, the response has to start within 30
+     * seconds, and the whole attempt including the content is cancelled after 5 minutes, so a stalled host can't
+     * block the caller forever. Timeouts are retried like network errors.
+     * The given permits are acquired in the given order for every attempt and released while waiting before the
+     * next attempt, so a download waiting for its retry doesn't block other downloads.</p>
+     *
+     * @param location       the URL of the content, either an HTTP(S) URL or a data URL
+     * @param maxAttempts    the maximum number of attempts
+     * @param initialBackoff the time to wait before the second attempt
+     * @param permits        the permits to hold during every attempt, e.g. to limit concurrent downloads
+     * @return the path of the temporary file
+     */
+    @SuppressWarnings({"java:S2095", "LoggingSimilarMessage"})
+    public static @NotNull Path downloadFile(final @NotNull String location,
+                                             final int maxAttempts,
+                                             final @NotNull Duration initialBackoff,
+                                             final @NotNull List<@NotNull Semaphore> permits) {
         try {
             final var tempFile = Files.createTempFile("download-", ".tmp");
             tempFile.toFile().deleteOnExit();
@@ -70,26 +140,82 @@ public final class DownloadUtil {
                 return tempFile;
             }
 
-            final HttpClient client = HttpClient.newHttpClient();
             final HttpRequest request = HttpRequest.newBuilder()
                     .uri(URI.create(location))
+                    .timeout(RESPONSE_TIMEOUT)
                     .GET()
                     .build();
-            final var response = client.send(request, HttpResponse.BodyHandlers.ofFile(tempFile));
-            final var statusCode = response.statusCode();
-            if (statusCode == 200) {
-                return tempFile;
-            } else {
-                Files.deleteIfExists(tempFile);
-                throw new KomunumoException("Failed to download file from '%s': HTTP status code %s"
-                        .formatted(location, statusCode));
+            var backoff = initialBackoff;
+            for (var attempt = 1; ; attempt++) {
+                acquire(permits);
+                try {
+                    final var response = send(request, tempFile);
+                    final var statusCode = response.statusCode();
+                    if (statusCode == 200) {
+                        return tempFile;
+                    } else if (attempt >= maxAttempts || !isRetryable(statusCode)) {
+                        Files.deleteIfExists(tempFile);
+                        throw new KomunumoException("Failed to download file from '%s': HTTP status code %s"
+                                .formatted(location, statusCode));
+                    }
+                } catch (final IOException e) {
+                    if (attempt >= maxAttempts) {
+                        Files.deleteIfExists(tempFile);
+                        throw e;
+                    }
+                } finally {
+                    release(permits);
+                }
+                Thread.sleep(backoff);
+                backoff = backoff.multipliedBy(2);
             }
         } catch (final IOException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
             throw new KomunumoException("Failed to download file from '%s': %s"
                     .formatted(location, e.getMessage()), e);
         }
     }
 
+    private static @NotNull HttpResponse<Path> send(final @NotNull HttpRequest request,
+                                                    final @NotNull Path file)
+            throws IOException, InterruptedException {
+        final var download = HTTP_CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofFile(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+        try {
+            return download.get(DOWNLOAD_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (final TimeoutException e) {
+            throw new HttpTimeoutException("Download not completed within " + DOWNLOAD_TIMEOUT);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            download.cancel(true); // aborts the exchange if it is still running
+        }
+    }
+
+    private static void acquire(final @NotNull List<@NotNull Semaphore> permits) throws InterruptedException {
+        for (var i = 0; i < permits.size(); i++) {
+            try {
+                permits.get(i).acquire();
+            } catch (final InterruptedException e) {
+                release(permits.subList(0, i));
+                throw e;
+            }
+        }
+    }
+
+    private static void release(final @NotNull List<@NotNull Semaphore> permits) {
+        permits.reversed().forEach(Semaphore::release);
+    }
+
+    private static boolean isRetryable(final int statusCode) {
+        return statusCode == 429 || statusCode >= 500;
+    }
+
     private DownloadUtil() {
         throw new IllegalStateException("Utility class");
     }
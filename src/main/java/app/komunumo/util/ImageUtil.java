@@ -18,6 +18,7 @@
 package app.komunumo.util;
 
 import app.komunumo.domain.core.config.entity.AppConfig;
+import app.komunumo.domain.core.image.entity.ContentType;
 import app.komunumo.domain.core.image.entity.ImageDto;
 import app.komunumo.domain.core.image.control.ImageService;
 import org.jetbrains.annotations.NotNull;
@@ -27,20 +28,41 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystemException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 public final class ImageUtil {
 
     private static final @NotNull String IMAGE_URL_PATTERN = "/images/%s%s";
+    private static final @NotNull String IMAGE_VARIANT_URL_PATTERN = "/images/%s%s?w=%d";
+    private static final @NotNull String IMAGE_VARIANT_SUFFIX = "-w";
+    private static final int UUID_LENGTH = 36;
+    private static final @NotNull String CLEANUP_CHECKPOINT_FILE = ".images-cleanup-checkpoint";
+    private static final @NotNull Object CLEANUP_CHECKPOINT_LOCK = new Object();
     private static final @NotNull Path RELATIVE_IMAGE_PATH = Path.of("uploads", "images");
+    private static final @NotNull Path RELATIVE_BLOB_PATH = Path.of("uploads", "blobs");
     private static final @NotNull Pattern UUID_EXTRACT_PATTERN = Pattern.compile(
             ".*/([0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12})\\.");
 
@@ -53,9 +75,11 @@ public final class ImageUtil {
 
     private static final @NotNull Logger LOGGER = LoggerFactory.getLogger(ImageUtil.class);
     private static Path uploadImagePath;
+    private static Path uploadBlobPath;
 
     public static void initialize(final @NotNull AppConfig appConfig) {
         uploadImagePath = appConfig.files().basedir().resolve(RELATIVE_IMAGE_PATH);
+        uploadBlobPath = appConfig.files().basedir().resolve(RELATIVE_BLOB_PATH);
     }
 
     public static @Nullable String resolveImageUrl(final @Nullable ImageDto image) {
@@ -67,6 +91,16 @@ public final class ImageUtil {
                 image.contentType().getExtension());
     }
 
+    public static @Nullable String resolveImageUrl(final @Nullable ImageDto image, final int width) {
+        if (image == null || image.id() == null) {
+            return null;
+        }
+        return IMAGE_VARIANT_URL_PATTERN.formatted(
+                image.id().toString(),
+                image.contentType().getExtension(),
+                width);
+    }
+
     public static @Nullable Path resolveImagePath(final @Nullable ImageDto image) {
         if (image == null || image.id() == null) {
             return null;
@@ -81,8 +115,69 @@ public final class ImageUtil {
 
     }
 
-    public static @NotNull Optional<InputStream> loadImage(final @Nullable ImageDto image) {
+    /**
+     * <p>Resolves the path of a resized variant of an image. Variants are stored next to the original image, their
+     * file name is the image ID followed by the width and the extension of the content type of the variant
+     * (e.g. {@code <uuid>-w400.jpg}).</p>
+     *
+     * @param image the original image
+     * @param width the width of the variant in pixels
+     * @param contentType the content type of the variant
+     * @return the path of the variant, or {@code null} if the image has no ID
+     */
+    public static @Nullable Path resolveImageVariantPath(final @Nullable ImageDto image,
+                                                         final int width,
+                                                         final @NotNull ContentType contentType) {
         final var path = resolveImagePath(image);
+        if (path == null) {
+            return null;
+        }
+        return path.resolveSibling(image.id() + IMAGE_VARIANT_SUFFIX + width + contentType.getExtension());
+    }
+
+    /**
+     * <p>Deletes the local working copy of the given image. The blob it is linked to is not affected.</p>
+     *
+     * @param image the image to delete the local file of
+     */
+    public static void deleteImageFile(final @NotNull ImageDto image) {
+        final var path = resolveImagePath(image);
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (final IOException e) {
+            LOGGER.error("Failed to delete image file: {}", path.toAbsolutePath(), e);
+        }
+    }
+
+    public static void deleteImageVariants(final @NotNull ImageDto image) {
+        final var path = resolveImagePath(image);
+        if (path == null || !Files.isDirectory(path.getParent())) {
+            return;
+        }
+
+        final var variantPrefix = image.id() + IMAGE_VARIANT_SUFFIX;
+        try (var files = Files.list(path.getParent())) {
+            files.filter(file -> file.getFileName().toString().startsWith(variantPrefix))
+                    .forEach(file -> {
+                        try {
+                            Files.deleteIfExists(file);
+                        } catch (final IOException e) {
+                            LOGGER.warn("Could not delete image variant {}: {}", file, e.getMessage());
+                        }
+                    });
+        } catch (final IOException e) {
+            LOGGER.warn("Could not list image variants of {}: {}", image.id(), e.getMessage());
+        }
+    }
+
+    public static @NotNull Optional<InputStream> loadImage(final @Nullable ImageDto image) {
+        return loadImage(resolveImagePath(image));
+    }
+
+    public static @NotNull Optional<InputStream> loadImage(final @Nullable Path path) {
         if (path == null || !Files.exists(path)) {
             return Optional.empty();
         }
@@ -95,6 +190,23 @@ public final class ImageUtil {
         }
     }
 
+    public static @NotNull Optional<BasicFileAttributes> readImageAttributes(final @Nullable ImageDto image) {
+        return readImageAttributes(resolveImagePath(image));
+    }
+
+    public static @NotNull Optional<BasicFileAttributes> readImageAttributes(final @Nullable Path path) {
+        if (path == null || !Files.exists(path)) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(Files.readAttributes(path, BasicFileAttributes.class));
+        } catch (final IOException e) {
+            LOGGER.warn("Failed to read attributes of image '{}': {}", path, e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
+
     public static @Nullable UUID extractImageIdFromUrl(final @NotNull String url) {
         final var matcher = UUID_EXTRACT_PATTERN.matcher(url);
         if (matcher.find()) {
@@ -104,12 +216,64 @@ public final class ImageUtil {
         return null;
     }
 
-    public static void storeImage(final @NotNull ImageDto image, final @NotNull Path path) throws IOException {
+    /**
+     * <p>Resolves the path of the blob with the given content hash. Blobs are sharded by the first two pairs of
+     * characters of the hash (e.g. {@code ab/cd/abcd...}).</p>
+     *
+     * @param hash the SHA-256 hash of the content as a lowercase hex string
+     * @return the path of the blob
+     */
+    public static @NotNull Path resolveImageBlobPath(final @NotNull String hash) {
+        return uploadBlobPath
+                .resolve(hash.substring(0, 2))
+                .resolve(hash.substring(2, 4))
+                .resolve(hash);
+    }
+
+    /**
+     * <p>Calculates the SHA-256 hash of the content of the given file.</p>
+     *
+     * @param path the file to hash
+     * @return the hash as a lowercase hex string
+     * @throws IOException if the file can't be read
+     */
+    public static @NotNull String hashImage(final @NotNull Path path) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this JVM", e);
+        }
+        try (var input = new DigestInputStream(Files.newInputStream(path), digest)) {
+            input.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * <p>Stores the given file as the content of the image. The content is kept once per distinct SHA-256 hash in the
+     * blob store, the image file is a hard link to the blob, so the same content uploaded for several images uses
+     * the disk and the page cache only once. If the file system does not support hard links, the blob is copied.</p>
+     *
+     * <p>The given file is moved into the blob store, or deleted if a blob with the same content exists already.
+     * The caller is responsible to record the returned hash for the image, so the blob is not removed as
+     * unreferenced.</p>
+     *
+     * @param image the image to store the content for
+     * @param path the file with the content of the image
+     * @return the SHA-256 hash of the content
+     * @throws IOException if the content can't be stored
+     * @see ImageService#storeImageBlob(ImageDto, String)
+     */
+    public static @NotNull String storeImage(final @NotNull ImageDto image, final @NotNull Path path) throws IOException {
         final UUID imageId = image.id();
         if (imageId == null) {
             throw new IllegalArgumentException("ImageDto must have an ID!");
         }
 
+        final var hash = hashImage(path);
+        final var blobFile = storeImageBlob(hash, path);
+
         final String id = imageId.toString();
         final String prefix1 = id.substring(0, 2);
         final String prefix2 = id.substring(2, 4);
@@ -117,59 +281,247 @@ public final class ImageUtil {
         final Path targetFile = targetDir.resolve(id + image.contentType().getExtension());
 
         Files.createDirectories(targetDir);
-        Files.move(path, targetFile, StandardCopyOption.REPLACE_EXISTING);
+        Files.deleteIfExists(targetFile);
+        try {
+            Files.createLink(targetFile, blobFile);
+        } catch (final UnsupportedOperationException | FileSystemException e) {
+            LOGGER.debug("Unable to link image '{}' to blob '{}', copying it: {}", targetFile, blobFile, e.getMessage());
+            Files.copy(blobFile, targetFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        LOGGER.info("Stored image '{}' as '{}' (blob {})", path.toAbsolutePath(), targetFile.toAbsolutePath(), hash);
+        return hash;
+    }
+
+    private static @NotNull Path storeImageBlob(final @NotNull String hash, final @NotNull Path path) throws IOException {
+        final var blobFile = resolveImageBlobPath(hash);
+        if (Files.exists(blobFile)) {
+            Files.delete(path);
+            return blobFile;
+        }
+
+        // move via a temporary file, so a concurrent upload never links a partially written blob
+        Files.createDirectories(blobFile.getParent());
+        final var tempFile = Files.createTempFile(blobFile.getParent(), hash, ".tmp");
+        try {
+            Files.move(path, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tempFile, blobFile, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        return blobFile;
+    }
+
+    /**
+     * <p>Restores the blob with the given content hash from the file of the image, if the blob file is missing, e.g.
+     * because the blob was released as unreferenced while the image was stored.</p>
+     *
+     * @param image the image with the content of the blob
+     * @param hash the SHA-256 hash of the content
+     * @throws IOException if the blob file is missing and can't be restored
+     */
+    public static void restoreImageBlob(final @NotNull ImageDto image, final @NotNull String hash) throws IOException {
+        final var blobFile = resolveImageBlobPath(hash);
+        final var imageFile = resolveImagePath(image);
+        if (Files.exists(blobFile) || imageFile == null) {
+            return;
+        }
+        Files.createDirectories(blobFile.getParent());
+        try {
+            Files.createLink(blobFile, imageFile);
+        } catch (final UnsupportedOperationException | FileSystemException e) {
+            LOGGER.debug("Unable to link blob '{}' to image '{}', copying it: {}", blobFile, imageFile, e.getMessage());
+            Files.copy(imageFile, blobFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        LOGGER.info("Restored image blob {} from image '{}'", hash, imageFile.toAbsolutePath());
+    }
+
+    /**
+     * <p>Deletes the blob files which are not recorded in the database, e.g. because storing an image failed after
+     * its content was moved into the blob store. Files modified after the given instant are kept, because they may
+     * belong to an image which is just being stored.</p>
+     *
+     * @param recordedHashes returns those of the given content hashes which are recorded in the database
+     * @param modifiedBefore only files last modified before this instant are deleted
+     * @return the number of deleted blob files
+     */
+    public static int cleanupOrphanedImageBlobFiles(
+            final @NotNull Function<@NotNull Set<@NotNull String>, @NotNull Set<@NotNull String>> recordedHashes,
+            final @NotNull Instant modifiedBefore) {
+        if (!Files.exists(uploadBlobPath)) {
+            return 0;
+        }
+        var deleted = 0;
+        try (var dirs = Files.find(uploadBlobPath, 2,
+                (path, attributes) -> attributes.isDirectory() && uploadBlobPath.relativize(path).getNameCount() == 2)) {
+            for (final var shard : dirs.sorted().toList()) {
+                deleted += cleanupOrphanedImageBlobFiles(shard, recordedHashes, modifiedBefore);
+            }
+        } catch (final @NotNull IOException | UncheckedIOException e) {
+            LOGGER.warn("Could not clean up image blobs in {}: {}", uploadBlobPath, e.getMessage());
+        }
+        return deleted;
+    }
+
+    private static int cleanupOrphanedImageBlobFiles(
+            final @NotNull Path shard,
+            final @NotNull Function<@NotNull Set<@NotNull String>, @NotNull Set<@NotNull String>> recordedHashes,
+            final @NotNull Instant modifiedBefore) throws IOException {
+        final var candidates = new HashMap<String, Path>();
+        try (var files = Files.list(shard)) {
+            for (final var file : files.toList()) {
+                if (Files.isRegularFile(file) && Files.getLastModifiedTime(file).toInstant().isBefore(modifiedBefore)) {
+                    candidates.put(file.getFileName().toString(), file);
+                }
+            }
+        }
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        final var recorded = recordedHashes.apply(candidates.keySet());
+        var deleted = 0;
+        for (final var candidate : candidates.entrySet()) {
+            if (!recorded.contains(candidate.getKey()) && Files.deleteIfExists(candidate.getValue())) {
+                LOGGER.info("Deleted orphaned image blob: {}", candidate.getValue());
+                deleted++;
+            }
+        }
+        return deleted;
+    }
 
-        LOGGER.info("Stored image '{}' as '{}'", path.toAbsolutePath(), targetFile.toAbsolutePath());
+    /**
+     * <p>Deletes the blob with the given content hash. Image files linked to the blob are not affected.</p>
+     *
+     * @param hash the SHA-256 hash of the content
+     */
+    public static void deleteImageBlob(final @NotNull String hash) {
+        final var blobFile = resolveImageBlobPath(hash);
+        try {
+            Files.deleteIfExists(blobFile);
+        } catch (final IOException e) {
+            LOGGER.warn("Could not delete image blob {}: {}", blobFile, e.getMessage());
+        }
     }
 
+    /**
+     * <p>Deletes all image files (including variants) without a matching image in the database, and all directories
+     * which are empty afterwards.</p>
+     *
+     * @param imageService the image service to look up the known image IDs
+     * @see #cleanupOrphanedImageFiles(ImageService, int)
+     */
     public static void cleanupOrphanedImageFiles(final @NotNull ImageService imageService) {
+        cleanupOrphanedImageFiles(imageService, Integer.MAX_VALUE);
+    }
+
+    /**
+     * <p>Deletes image files (including variants) without a matching image in the database, and all directories
+     * which are empty afterwards, processing at most the given number of first-level shard directories. The shards
+     * are processed in parallel.</p>
+     *
+     * <p>Every processed shard is recorded in a checkpoint file, so the next run continues with the shards not
+     * processed yet, even after an interrupted run. When all shards have been processed, the checkpoint is removed
+     * and the next run starts over.</p>
+     *
+     * @param imageService the image service to look up the known image IDs
+     * @param maxShards the maximum number of shard directories to process in this run
+     */
+    public static void cleanupOrphanedImageFiles(final @NotNull ImageService imageService, final int maxShards) {
         if (!Files.exists(uploadImagePath)) {
             LOGGER.info("No images to clean, directory '{}' does not exist.", uploadImagePath);
             return;
         }
 
         try {
-            final List<UUID> knownImageIds = imageService.getAllImageIds();
-            try (var files = Files.walk(uploadImagePath)) {
-                files
-                        .filter(Files::isRegularFile)
-                        .forEach(path -> {
-                            final var filename = path.getFileName().toString();
-                            final int dotIndex = filename.lastIndexOf('.');
-                            final var uuidPart = filename.substring(0, dotIndex);
-                            try {
-                                final var imageId = UUID.fromString(uuidPart);
-                                if (!knownImageIds.contains(imageId)) {
-                                    Files.delete(path);
-                                    LOGGER.info("Deleted orphaned image file: {}", path);
-                                }
-                            } catch (final @NotNull IllegalArgumentException e) {
-                                LOGGER.warn("Skipping file with invalid UUID: {}", filename);
-                            } catch (final @NotNull IOException e) {
-                                LOGGER.warn("Could not delete file {}: {}", path, e.getMessage());
-                            }
-                        });
+            final var checkpoint = uploadImagePath.resolveSibling(CLEANUP_CHECKPOINT_FILE);
+            final var processedShards = readCleanupCheckpoint(checkpoint);
+            final List<Path> allShards;
+            try (var dirs = Files.list(uploadImagePath)) {
+                allShards = dirs.filter(Files::isDirectory).sorted().toList();
             }
+            final var shards = allShards.stream()
+                    .filter(shard -> !processedShards.contains(shard.getFileName().toString()))
+                    .limit(maxShards)
+                    .toList();
 
-            try (var dirs = Files.walk(uploadImagePath)) {
-                dirs.sorted(Comparator.reverseOrder())
-                        .filter(Files::isDirectory)
-                        .forEach(dir -> {
-                            try (Stream<Path> entries = Files.list(dir)) {
-                                if (entries.findAny().isEmpty()) {
-                                    Files.delete(dir);
-                                    LOGGER.info("Deleted empty directory: {}", dir);
-                                }
-                            } catch (final @NotNull IOException e) {
-                                LOGGER.warn("Could not inspect or delete directory {}: {}", dir, e.getMessage());
-                            }
-                        });
+            final Set<UUID> knownImageIds = new HashSet<>(imageService.getAllImageIds());
+            try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                shards.forEach(shard -> executor.execute(() -> {
+                    cleanupOrphanedImageFiles(imageService, knownImageIds, shard);
+                    writeCleanupCheckpoint(checkpoint, shard);
+                }));
+            }
+
+            if (processedShards.size() + shards.size() >= allShards.size()) {
+                Files.deleteIfExists(checkpoint);
             }
         } catch (final @NotNull Exception e) {
             LOGGER.error("Error while cleaning up orphaned image files: {}", e.getMessage(), e);
         }
     }
 
+    private static void cleanupOrphanedImageFiles(final @NotNull ImageService imageService,
+                                                  final @NotNull Set<UUID> knownImageIds,
+                                                  final @NotNull Path shard) {
+        try (var files = Files.walk(shard)) {
+            files
+                    .filter(Files::isRegularFile)
+                    .forEach(path -> {
+                        final var filename = path.getFileName().toString();
+                        final int dotIndex = filename.lastIndexOf('.');
+                        // variants carry a suffix after the UUID of the original image
+                        final var uuidPart = filename.substring(0,
+                                Math.min(dotIndex < 0 ? filename.length() : dotIndex, UUID_LENGTH));
+                        try {
+                            final var imageId = UUID.fromString(uuidPart);
+                            // images stored after the IDs were loaded are not in the set, so check the database again
+                            if (!knownImageIds.contains(imageId) && !imageService.existsImage(imageId)) {
+                                Files.delete(path);
+                                LOGGER.info("Deleted orphaned image file: {}", path);
+                            }
+                        } catch (final @NotNull IllegalArgumentException e) {
+                            LOGGER.warn("Skipping file with invalid UUID: {}", filename);
+                        } catch (final @NotNull IOException e) {
+                            LOGGER.warn("Could not delete file {}: {}", path, e.getMessage());
+                        }
+                    });
+        } catch (final @NotNull IOException | UncheckedIOException e) {
+            LOGGER.warn("Could not clean up directory {}: {}", shard, e.getMessage());
+        }
+
+        try (var dirs = Files.walk(shard)) {
+            dirs.sorted(Comparator.reverseOrder())
+                    .filter(Files::isDirectory)
+                    .forEach(dir -> {
+                        try (Stream<Path> entries = Files.list(dir)) {
+                            if (entries.findAny().isEmpty()) {
+                                Files.delete(dir);
+                                LOGGER.info("Deleted empty directory: {}", dir);
+                            }
+                        } catch (final @NotNull IOException e) {
+                            LOGGER.warn("Could not inspect or delete directory {}: {}", dir, e.getMessage());
+                        }
+                    });
+        } catch (final @NotNull IOException | UncheckedIOException e) {
+            LOGGER.warn("Could not clean up directory {}: {}", shard, e.getMessage());
+        }
+    }
+
+    private static @NotNull Set<String> readCleanupCheckpoint(final @NotNull Path checkpoint) throws IOException {
+        return Files.exists(checkpoint) ? Set.copyOf(Files.readAllLines(checkpoint)) : Set.of();
+    }
+
+    private static void writeCleanupCheckpoint(final @NotNull Path checkpoint, final @NotNull Path shard) {
+        synchronized (CLEANUP_CHECKPOINT_LOCK) {
+            try {
+                Files.writeString(checkpoint, shard.getFileName() + System.lineSeparator(),
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (final @NotNull IOException e) {
+                LOGGER.warn("Could not write cleanup checkpoint {}: {}", checkpoint, e.getMessage());
+            }
+        }
+    }
+
     /**
      * <p>Converts a dimension string with a unit (e.g., "10mm", "5in", "200px") into pixels.</p>
      *
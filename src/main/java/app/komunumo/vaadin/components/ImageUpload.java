@@ -108,7 +108,9 @@ public final class ImageUpload extends CustomField<ImageDto> {
         final var newImage = imageService.storeImage(new ImageDto(null, contentType));
 
         try {
-            ImageUtil.storeImage(newImage, file.toPath());
+            final var hash = ImageUtil.storeImage(newImage, file.toPath());
+            imageService.storeImageBlob(newImage, hash);
+            imageService.generateImageVariants(newImage);
 
             currentImage = newImage;
             imageFromUpload = true;
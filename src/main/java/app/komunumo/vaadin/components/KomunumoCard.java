@@ -33,6 +33,12 @@ import org.jetbrains.annotations.Nullable;
  */
 public abstract class KomunumoCard extends Card {
 
+    /**
+     * <p>The width in pixels in which card images are requested; the double width is offered to high density
+     * displays.</p>
+     */
+    private static final int CARD_IMAGE_WIDTH = 480;
+
     /**
      * <p>Creates a new {@code KomunumoCard} with default styling and no content.</p>
      *
@@ -61,14 +67,19 @@ public abstract class KomunumoCard extends Card {
      * <p>Sets the image content of the card using the given {@link ImageDto} and {@code alt} text.</p>
      *
      * <p>If the {@code image} is {@code null}, no image is added. Otherwise, a new {@link Image}
-     * component is created and added to the card's media slot.</p>
+     * component is created and added to the card's media slot. The image is requested as a resized variant
+     * that fits the card instead of the original upload.</p>
      *
      * @param image   the image to display; may be {@code null}
      * @param altText the alternative text for the image; must not be {@code null}
      */
     public void setImage(final @Nullable ImageDto image, final @NotNull String altText) {
         if (image != null) {
-            setMedia(new Image(ImageUtil.resolveImageUrl(image), altText));
+            final var media = new Image(ImageUtil.resolveImageUrl(image, CARD_IMAGE_WIDTH), altText);
+            media.getElement().setAttribute("srcset", "%s 1x, %s 2x".formatted(
+                    ImageUtil.resolveImageUrl(image, CARD_IMAGE_WIDTH),
+                    ImageUtil.resolveImageUrl(image, 2 * CARD_IMAGE_WIDTH)));
+            setMedia(media);
         } else {
             setMedia(new Image("/images/placeholder-400x225.svg", "Placeholder Image"));
         }
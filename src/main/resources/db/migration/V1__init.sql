@@ -5,6 +5,15 @@ CREATE TABLE config (
     PRIMARY KEY (setting, language)
 );
 
+CREATE TABLE config_change (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    setting VARCHAR(255) NOT NULL,
+    language VARCHAR(2) NOT NULL DEFAULT '',
+    changed TIMESTAMP NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_config_change_changed (changed)
+);
+
 CREATE TABLE mail_template (
     id VARCHAR(255) NOT NULL,
     language VARCHAR(2) NOT NULL,
@@ -14,20 +23,39 @@ CREATE TABLE mail_template (
 );
 
 CREATE TABLE image (
-    id VARCHAR(36) NOT NULL,
+    id BINARY(16) NOT NULL,
+    content_type VARCHAR(255) NOT NULL,
+    blob_hash CHAR(64) DEFAULT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_image_blob_hash (blob_hash)
+);
+
+CREATE TABLE image_blob (
+    hash CHAR(64) NOT NULL,
+    created TIMESTAMP NOT NULL,
+    PRIMARY KEY (hash)
+);
+
+CREATE TABLE image_variant (
+    image_id BINARY(16) NOT NULL,
+    width INT NOT NULL,
     content_type VARCHAR(255) NOT NULL,
-    PRIMARY KEY (id)
+    created TIMESTAMP NOT NULL,
+    PRIMARY KEY (image_id, width, content_type),
+    CONSTRAINT fk_image_variant_image
+        FOREIGN KEY (image_id)
+            REFERENCES image (id)
 );
 
 CREATE TABLE user (
-    id VARCHAR(36) NOT NULL,
+    id BINARY(16) NOT NULL,
     created TIMESTAMP NOT NULL,
     updated TIMESTAMP NOT NULL,
     profile VARCHAR(255) DEFAULT NULL,
     email VARCHAR(255) DEFAULT NULL,
     name VARCHAR(255) NOT NULL,
     bio TEXT NOT NULL,
-    image_id VARCHAR(36) DEFAULT NULL,
+    image_id BINARY(16) DEFAULT NULL,
     role VARCHAR(255) NOT NULL DEFAULT 'USER',
     type VARCHAR(255) NOT NULL DEFAULT 'LOCAL',
     CHECK (role IN ('ADMIN', 'USER')),
@@ -41,13 +69,13 @@ CREATE TABLE user (
 );
 
 CREATE TABLE community (
-    id VARCHAR(36) NOT NULL,
+    id BINARY(16) NOT NULL,
     profile VARCHAR(255) NOT NULL,
     created TIMESTAMP NOT NULL,
     updated TIMESTAMP NOT NULL,
     name VARCHAR(255) NOT NULL,
     description TEXT NOT NULL,
-    image_id VARCHAR(36) DEFAULT NULL,
+    image_id BINARY(16) DEFAULT NULL,
     PRIMARY KEY (id),
     UNIQUE uk_community_profile (profile),
     CONSTRAINT fk_community_image
@@ -56,8 +84,8 @@ CREATE TABLE community (
 );
 
 CREATE TABLE member (
-    user_id VARCHAR(36) NOT NULL,
-    community_id VARCHAR(36) NOT NULL,
+    user_id BINARY(16) NOT NULL,
+    community_id BINARY(16) NOT NULL,
     role VARCHAR(255) NOT NULL,
     since TIMESTAMP NOT NULL,
     CHECK (role IN ('OWNER', 'ORGANIZER', 'MEMBER')),
@@ -71,8 +99,8 @@ CREATE TABLE member (
 );
 
 CREATE TABLE event (
-    id VARCHAR(36) NOT NULL,
-    community_id VARCHAR(36) NOT NULL,
+    id BINARY(16) NOT NULL,
+    community_id BINARY(16) NOT NULL,
     created TIMESTAMP NOT NULL,
     updated TIMESTAMP NOT NULL,
     title VARCHAR(255) NOT NULL,
@@ -80,12 +108,16 @@ CREATE TABLE event (
     location VARCHAR(255) NOT NULL DEFAULT '',
     begin TIMESTAMP DEFAULT NULL,
     end TIMESTAMP DEFAULT NULL,
-    image_id VARCHAR(36) DEFAULT NULL,
+    image_id BINARY(16) DEFAULT NULL,
     visibility VARCHAR(255) NOT NULL DEFAULT 'PUBLIC',
     status VARCHAR(255) NOT NULL DEFAULT 'DRAFT',
     CHECK (visibility IN ('PUBLIC', 'PRIVATE')),
     CHECK (status IN ('DRAFT', 'PUBLISHED', 'CANCELED')),
     PRIMARY KEY (id),
+    INDEX idx_event_begin_id (begin, id),
+    INDEX idx_event_community_begin_id (community_id, begin, id),
+    INDEX idx_event_end (end),
+    INDEX idx_event_community_end (community_id, end),
     CONSTRAINT fk_event_community
         FOREIGN KEY (community_id)
         REFERENCES community (id),
@@ -95,8 +127,8 @@ CREATE TABLE event (
 );
 
 CREATE TABLE participant (
-    event_id VARCHAR(36) NOT NULL,
-    user_id VARCHAR(36) NOT NULL,
+    event_id BINARY(16) NOT NULL,
+    user_id BINARY(16) NOT NULL,
     registered TIMESTAMP NOT NULL,
     PRIMARY KEY (event_id, user_id),
     CONSTRAINT fk_participant_event
@@ -117,6 +149,27 @@ CREATE TABLE global_page (
     PRIMARY KEY (slot, language)
 );
 
+CREATE TABLE import_job (
+    id CHAR(64) NOT NULL,
+    source VARCHAR(2048) NOT NULL,
+    created TIMESTAMP NOT NULL,
+    updated TIMESTAMP NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_import_job_updated (updated)
+);
+
+CREATE TABLE import_job_section (
+    job_id CHAR(64) NOT NULL,
+    section VARCHAR(255) NOT NULL,
+    position INT NOT NULL,
+    finished TIMESTAMP DEFAULT NULL,
+    PRIMARY KEY (job_id, section),
+    CONSTRAINT fk_import_job_section_import_job
+        FOREIGN KEY (job_id)
+            REFERENCES import_job (id)
+            ON DELETE CASCADE
+);
+
 
 
 -- Attention: Markdown line breaks in this file rely on two spaces at the end of a line.
@@ -93,7 +93,7 @@ class StartupHandlerTest {
     private AppConfig createAppConfig(final @NotNull String email) {
         final var version = "0.0.0";
         final var demoConfig = new DemoConfig(false, "");
-        final var filesConfig = new FilesConfig(Path.of("/tmp"));
+        final var filesConfig = new FilesConfig(Path.of("/tmp"), null);
         final var instanceConfig = new InstanceConfig(email);
         final var mailConfig = new MailConfig("", "");
         return new AppConfig(version, demoConfig, filesConfig, instanceConfig, mailConfig);
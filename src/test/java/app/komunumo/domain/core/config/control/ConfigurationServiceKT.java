@@ -26,18 +26,35 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Locale;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static app.komunumo.data.db.tables.Config.CONFIG;
+import static app.komunumo.data.db.tables.ConfigChange.CONFIG_CHANGE;
 import static app.komunumo.domain.core.config.entity.ConfigurationSetting.INSTANCE_NAME;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.jooq.impl.DSL.max;
 
 class ConfigurationServiceKT extends KaribuTest {
 
     @Autowired
     private DSLContext dsl;
 
+    @Autowired
+    private ConfigurationService scheduledConfigurationService;
+
     private ConfigurationService configurationService;
 
     @BeforeEach
@@ -233,6 +250,163 @@ class ConfigurationServiceKT extends KaribuTest {
         assertThat(value).isEqualTo(expected);
     }
 
+    @Test
+    void shouldInvalidateCachedValueChangedByOtherNode() {
+        final var otherNode = new ConfigurationService(dsl);
+        configurationService.pollConfigurationChanges();
+        otherNode.pollConfigurationChanges();
+
+        configurationService.setConfiguration(INSTANCE_NAME, "Old Name");
+        configurationService.setConfiguration(ConfigurationSetting.INSTANCE_SLOGAN, Locale.ENGLISH, "Old Slogan");
+        otherNode.pollConfigurationChanges();
+        assertThat(otherNode.getConfiguration(INSTANCE_NAME)).isEqualTo("Old Name");
+        assertThat(otherNode.getConfiguration(ConfigurationSetting.INSTANCE_SLOGAN, Locale.GERMAN)).isEqualTo("Old Slogan");
+
+        configurationService.setConfiguration(INSTANCE_NAME, "New Name");
+        configurationService.setConfiguration(ConfigurationSetting.INSTANCE_SLOGAN, Locale.ENGLISH, "New Slogan");
+        assertThat(otherNode.getConfiguration(INSTANCE_NAME)).isEqualTo("Old Name"); // still cached
+
+        otherNode.pollConfigurationChanges();
+        assertThat(otherNode.getConfiguration(INSTANCE_NAME)).isEqualTo("New Name");
+        assertThat(otherNode.getConfiguration(ConfigurationSetting.INSTANCE_SLOGAN, Locale.GERMAN)).isEqualTo("New Slogan");
+
+        configurationService.deleteAllConfigurations();
+        otherNode.pollConfigurationChanges();
+        assertThat(otherNode.getConfiguration(INSTANCE_NAME)).isEqualTo("Your Instance Name");
+    }
+
+    @Test
+    void shouldApplyChangeCommittedAfterChangeWithHigherId() {
+        final var otherNode = new ConfigurationService(dsl);
+        configurationService.setConfiguration(INSTANCE_NAME, "Old Name");
+        otherNode.pollConfigurationChanges();
+        assertThat(otherNode.getConfiguration(INSTANCE_NAME)).isEqualTo("Old Name");
+
+        // a change with a higher ID is committed first
+        final var maxChangeId = dsl.select(max(CONFIG_CHANGE.ID)).from(CONFIG_CHANGE).fetchOne(0, Long.class);
+        insertChange(maxChangeId + 10);
+        otherNode.pollConfigurationChanges();
+
+        // a change with a lower ID becomes visible later
+        dsl.update(CONFIG)
+                .set(CONFIG.VALUE, "Late Name")
+                .where(CONFIG.SETTING.eq(INSTANCE_NAME.setting()))
+                .execute();
+        insertChange(maxChangeId + 5);
+        otherNode.pollConfigurationChanges();
+        assertThat(otherNode.getConfiguration(INSTANCE_NAME)).isEqualTo("Late Name");
+    }
+
+    @Test
+    void shouldPickUpChangeOfOtherNodeWithinPollInterval() {
+        try {
+            scheduledConfigurationService.clearCache();
+            assertThat(scheduledConfigurationService.getConfiguration(INSTANCE_NAME)).isEqualTo("Your Instance Name");
+
+            // the change is made by another node, so only the scheduled poll makes it visible
+            configurationService.setConfiguration(INSTANCE_NAME, "Polled Name");
+            await().atMost(10, SECONDS).untilAsserted(() ->
+                    assertThat(scheduledConfigurationService.getConfiguration(INSTANCE_NAME)).isEqualTo("Polled Name"));
+        } finally {
+            scheduledConfigurationService.deleteConfiguration(INSTANCE_NAME);
+        }
+    }
+
+    @Test
+    void shouldNotReloadForChangesAlreadyAppliedWithinOverlap() {
+        final var otherNode = new ConfigurationService(dsl);
+        otherNode.pollConfigurationChanges();
+        configurationService.setConfiguration(INSTANCE_NAME, "Applied Name");
+        otherNode.pollConfigurationChanges();
+        assertThat(otherNode.getConfiguration(INSTANCE_NAME)).isEqualTo("Applied Name");
+
+        // a value changed without a change log entry is only picked up by a reload
+        dsl.update(CONFIG)
+                .set(CONFIG.VALUE, "Unannounced Name")
+                .where(CONFIG.SETTING.eq(INSTANCE_NAME.setting()))
+                .execute();
+
+        // the overlap reads the applied change again, which must not reload the snapshot
+        otherNode.pollConfigurationChanges();
+        assertThat(otherNode.getConfiguration(INSTANCE_NAME)).isEqualTo("Applied Name");
+    }
+
+    @Test
+    void shouldReplaceSnapshotAsWholeForConcurrentReaders() throws InterruptedException, ExecutionException {
+        final int readerCount = 4;
+        final int changeCount = 20;
+        configurationService.setConfiguration(INSTANCE_NAME, "Name 0");
+        final var running = new AtomicBoolean(true);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(readerCount)) {
+            final List<Future<String>> readers = IntStream.range(0, readerCount)
+                    .mapToObj(_ -> executor.submit(() -> {
+                        var previous = 0;
+                        while (running.get()) {
+                            // readers never see an older value after a newer one
+                            final var name = configurationService.getConfiguration(INSTANCE_NAME);
+                            final var current = Integer.parseInt(name.substring("Name ".length()));
+                            assertThat(current).isGreaterThanOrEqualTo(previous);
+                            previous = current;
+                        }
+                        return configurationService.getConfiguration(INSTANCE_NAME);
+                    }))
+                    .toList();
+
+            for (int i = 1; i <= changeCount; i++) {
+                configurationService.setConfiguration(INSTANCE_NAME, "Name " + i);
+            }
+            running.set(false);
+
+            // the replaced snapshot is visible to all threads as soon as the change is stored
+            for (final var reader : readers) {
+                assertThat(reader.get()).isEqualTo("Name " + changeCount);
+            }
+        }
+    }
+
+    @Test
+    void shouldReloadSnapshotOnlyAfterTransactionIsCommitted() {
+        configurationService.setConfiguration(INSTANCE_NAME, "Committed Name");
+
+        dsl.transaction(_ -> {
+            configurationService.setConfiguration(INSTANCE_NAME, "New Name");
+            configurationService.setConfiguration(ConfigurationSetting.INSTANCE_SLOGAN, Locale.ENGLISH, "New Slogan");
+
+            // other threads keep getting the committed values until the transaction is committed
+            final var name = CompletableFuture.supplyAsync(() -> configurationService.getConfiguration(INSTANCE_NAME));
+            assertThat(name.join()).isEqualTo("Committed Name");
+        });
+
+        assertThat(configurationService.getConfiguration(INSTANCE_NAME)).isEqualTo("New Name");
+        assertThat(configurationService.getConfiguration(ConfigurationSetting.INSTANCE_SLOGAN, Locale.ENGLISH))
+                .isEqualTo("New Slogan");
+    }
+
+    @Test
+    void shouldKeepSnapshotWhenTransactionIsRolledBack() {
+        configurationService.setConfiguration(INSTANCE_NAME, "Committed Name");
+
+        assertThatThrownBy(() -> dsl.transaction(_ -> {
+            configurationService.setConfiguration(INSTANCE_NAME, "Rolled Back Name");
+            configurationService.clearCache();
+            throw new IllegalStateException("Rollback");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(configurationService.getConfiguration(INSTANCE_NAME)).isEqualTo("Committed Name");
+        configurationService.clearCache();
+        assertThat(configurationService.getConfiguration(INSTANCE_NAME)).isEqualTo("Committed Name");
+    }
+
+    private void insertChange(final long id) {
+        dsl.insertInto(CONFIG_CHANGE)
+                .set(CONFIG_CHANGE.ID, id)
+                .set(CONFIG_CHANGE.SETTING, INSTANCE_NAME.setting())
+                .set(CONFIG_CHANGE.LANGUAGE, "")
+                .set(CONFIG_CHANGE.CHANGED, ZonedDateTime.now(ZoneOffset.UTC))
+                .execute();
+    }
+
     @Test
     void testGettingConfigurationWithUnsupportedType() {
         assertThatThrownBy(() ->
@@ -0,0 +1,93 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.exporter.control;
+
+import app.komunumo.test.KaribuTest;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+
+import static app.komunumo.data.db.tables.Community.COMMUNITY;
+import static app.komunumo.data.db.tables.Config.CONFIG;
+import static app.komunumo.data.db.tables.Event.EVENT;
+import static app.komunumo.data.db.tables.GlobalPage.GLOBAL_PAGE;
+import static app.komunumo.data.db.tables.Image.IMAGE;
+import static app.komunumo.data.db.tables.MailTemplate.MAIL_TEMPLATE;
+import static app.komunumo.data.db.tables.Member.MEMBER;
+import static app.komunumo.data.db.tables.Participant.PARTICIPANT;
+import static app.komunumo.data.db.tables.User.USER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JSONExporterKT extends KaribuTest {
+
+    @Autowired
+    private DSLContext dsl;
+
+    @Autowired
+    private JSONExporter jsonExporter;
+
+    private JsonNode exportData(final boolean inlineImages) {
+        final var outputStream = new ByteArrayOutputStream();
+        jsonExporter.exportData(outputStream, inlineImages);
+        return new ObjectMapper().readTree(outputStream.toByteArray());
+    }
+
+    @Test
+    void exportData_containsAllData() {
+        final var json = exportData(false);
+        assertThat(json.path("settings").size()).isEqualTo(dsl.fetchCount(CONFIG));
+        assertThat(json.path("images").size()).isEqualTo(dsl.fetchCount(IMAGE));
+        assertThat(json.path("users").size()).isEqualTo(dsl.fetchCount(USER));
+        assertThat(json.path("communities").size()).isEqualTo(dsl.fetchCount(COMMUNITY));
+        assertThat(json.path("members").size()).isEqualTo(dsl.fetchCount(MEMBER));
+        assertThat(json.path("events").size()).isEqualTo(dsl.fetchCount(EVENT));
+        assertThat(json.path("participants").size()).isEqualTo(dsl.fetchCount(PARTICIPANT));
+        assertThat(json.path("globalPages").size()).isEqualTo(dsl.fetchCount(GLOBAL_PAGE));
+        assertThat(json.path("mailTemplates").size()).isEqualTo(dsl.fetchCount(MAIL_TEMPLATE));
+    }
+
+    @Test
+    void exportData_writesTheImporterFormat() {
+        final var json = exportData(false);
+        final var event = json.path("events").get(0);
+        assertThat(event.path("eventId").asString()).isNotBlank();
+        assertThat(event.path("communityId").asString()).isNotBlank();
+        assertThat(event.path("visibility").asString()).isIn("PUBLIC", "PRIVATE");
+        assertThat(json.path("mailTemplates").get(0).path("language").asString()).isLowerCase();
+    }
+
+    @Test
+    void exportData_referencesImages() {
+        final var json = exportData(false);
+        assertThat(json.path("images").size()).isPositive();
+        json.path("images").forEach(image -> assertThat(image.path("url").asString())
+                .contains("/images/" + image.path("imageId").asString()));
+    }
+
+    @Test
+    void exportData_inlinesImages() {
+        final var json = exportData(true);
+        assertThat(json.path("images").size()).isPositive();
+        json.path("images").forEach(image -> assertThat(image.path("url").asString())
+                .startsWith("data:" + image.path("contentType").asString() + ";base64,"));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.image.boundary;
+
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ByteRangeTest {
+
+    @ParameterizedTest
+    @NullSource
+    @ValueSource(strings = {
+            "",
+            "items=0-10",
+            "bytes=",
+            "bytes=-",
+            "bytes=abc",
+            "bytes=10-5",
+            "bytes=+1-5",
+            "bytes=0-1,0-1,0-1,0-1,0-1,0-1,0-1,0-1,0-1,0-1,0-1,0-1,0-1,0-1,0-1,0-1,0-1",
+            "bytes=99999999999999999999-"
+    })
+    void ignoresInvalidHeaders(final @Nullable String header) {
+        assertThat(ByteRange.parse(header, 1000)).isEmpty();
+    }
+
+    @Test
+    void parsesSingleRange() {
+        assertThat(ByteRange.parse("bytes=0-499", 1000))
+                .contains(List.of(new ByteRange(0, 499)));
+    }
+
+    @Test
+    void parsesOpenEndedRange() {
+        assertThat(ByteRange.parse("bytes=500-", 1000))
+                .contains(List.of(new ByteRange(500, 999)));
+    }
+
+    @Test
+    void parsesSuffixRange() {
+        assertThat(ByteRange.parse("bytes=-200", 1000))
+                .contains(List.of(new ByteRange(800, 999)));
+        assertThat(ByteRange.parse("bytes=-2000", 1000))
+                .contains(List.of(new ByteRange(0, 999)));
+    }
+
+    @Test
+    void clampsRangeToSize() {
+        assertThat(ByteRange.parse("bytes=900-5000", 1000))
+                .contains(List.of(new ByteRange(900, 999)));
+    }
+
+    @Test
+    void parsesMultipleRanges() {
+        assertThat(ByteRange.parse("bytes=0-9, 20-29,-5", 1000))
+                .contains(List.of(new ByteRange(0, 9), new ByteRange(20, 29), new ByteRange(995, 999)));
+    }
+
+    @Test
+    void coalescesOverlappingAndAdjacentRanges() {
+        assertThat(ByteRange.parse("bytes=0-,0-,0-,0-", 1000))
+                .contains(List.of(new ByteRange(0, 999)));
+        assertThat(ByteRange.parse("bytes=50-99,0-49,200-299,250-", 1000))
+                .contains(List.of(new ByteRange(0, 99), new ByteRange(200, 999)));
+        assertThat(ByteRange.parse("bytes=-100,0-9", 1000))
+                .contains(List.of(new ByteRange(0, 9), new ByteRange(900, 999)));
+    }
+
+    @Test
+    void dropsUnsatisfiableRanges() {
+        assertThat(ByteRange.parse("bytes=0-9,1000-1100", 1000))
+                .contains(List.of(new ByteRange(0, 9)));
+        assertThat(ByteRange.parse("bytes=1000-1100,-0", 1000))
+                .contains(List.of());
+    }
+
+    @Test
+    void calculatesLengthAndContentRange() {
+        final var range = new ByteRange(10, 19);
+        assertThat(range.length()).isEqualTo(10);
+        assertThat(range.toContentRange(1000)).isEqualTo("bytes 10-19/1000");
+    }
+
+}
@@ -27,6 +27,7 @@ import app.komunumo.domain.core.image.entity.ImageDto;
 import app.komunumo.domain.core.image.control.ImageService;
 import app.komunumo.util.ImageUtil;
 import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.jetbrains.annotations.Nullable;
@@ -34,20 +35,27 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.NullSource;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.MockedStatic;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PrintWriter;
-import java.io.StringWriter;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.matches;
 import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
@@ -60,18 +68,28 @@ import static org.mockito.Mockito.when;
 
 class ImageServletTest {
 
+    private static final long LAST_MODIFIED = 1_700_000_000_123L;
+    private static final String ETAG = "\"d23dab3b-bb6b-400a-9e7b-4a85e0c89226-jpg-18bcfe5687b-4\"";
+
     private AppConfig getAppConfigMock() {
         final var userHome = System.getProperty("user.home");
         final var basedir = Path.of(userHome, ".komunumo", "test");
 
         final var demoConfig = new DemoConfig(false, "");
-        final var filesConfig = new FilesConfig(basedir);
+        final var filesConfig = new FilesConfig(basedir, null);
         final var mailConfig = new MailConfig("noreply@foo.bar", "support@foo.bar");
         final var instanceConfig = new InstanceConfig("admin@foo.bar");
 
         return new AppConfig("0.0.0", demoConfig, filesConfig, instanceConfig, mailConfig);
     }
 
+    private BasicFileAttributes getFileAttributesMock() {
+        final var attributes = mock(BasicFileAttributes.class);
+        when(attributes.lastModifiedTime()).thenReturn(FileTime.fromMillis(LAST_MODIFIED));
+        when(attributes.size()).thenReturn(4L);
+        return attributes;
+    }
+
     @ParameterizedTest
     @NullSource
     @ValueSource(strings = {
@@ -79,7 +97,9 @@ class ImageServletTest {
             "/placeholder.svg",
             "/placeholder-000x000.svg",
             "/placeholder-100x000.svg",
-            "/placeholder-000x100.svg"
+            "/placeholder-000x100.svg",
+            "/placeholder-99999999999x1.svg",
+            "/placeholder-1x99999999999.svg"
     })
     void redirectsTo404Page_whenRequestIsInvalid(final @Nullable String pathInfo) throws IOException {
         // Arrange
@@ -124,6 +144,34 @@ class ImageServletTest {
         verify(response).sendRedirect("/error/404");
     }
 
+    @Test
+    void redirectsToImageStore_whenDownloadUriIsAvailable() throws IOException {
+        // Arrange
+        final var request = mock(HttpServletRequest.class);
+        final var response = mock(HttpServletResponse.class);
+        final var appConfig = getAppConfigMock();
+        final var imageService = mock(ImageService.class);
+
+        final var pathInfo = "/images/afc3478d-2c92-41b5-b89f-2a9111d79c73.jpg";
+        final var imageId = UUID.fromString("afc3478d-2c92-41b5-b89f-2a9111d79c73");
+        final var image = new ImageDto(imageId, ContentType.IMAGE_JPEG);
+        final var downloadUri = URI.create("http://localhost:9000/images/" + imageId + ".jpg?X-Amz-Signature=abc");
+
+        when(request.getPathInfo()).thenReturn(pathInfo);
+        when(imageService.getImage(imageId)).thenReturn(Optional.of(image));
+        when(imageService.getImageDownloadUri(image)).thenReturn(Optional.of(downloadUri));
+
+        final var servlet = new ImageServlet(appConfig, imageService);
+
+        // Act
+        servlet.doGet(request, response);
+
+        // Assert
+        verify(response).setStatus(HttpServletResponse.SC_TEMPORARY_REDIRECT);
+        verify(response).setHeader("Location", downloadUri.toString());
+        verify(response, never()).getOutputStream();
+    }
+
     @Test
     void redirectsTo500Page_whenImageStreamIsMissing() throws IOException {
         // Arrange
@@ -141,9 +189,9 @@ class ImageServletTest {
 
         final var servlet = new ImageServlet(appConfig, imageService);
 
-        // Mock static method: ImageUtil.loadImage(image) → Optional.empty()
+        // Mock static method: ImageUtil.loadImage(path) → Optional.empty()
         try (MockedStatic<ImageUtil> mockedStatic = mockStatic(ImageUtil.class, CALLS_REAL_METHODS)) {
-            mockedStatic.when(() -> ImageUtil.loadImage(any())).thenReturn(Optional.empty());
+            mockedStatic.when(() -> ImageUtil.loadImage(any(Path.class))).thenReturn(Optional.empty());
 
             servlet.doGet(request, response);
 
@@ -176,10 +224,12 @@ class ImageServletTest {
                 });
 
 
+        final var attributes = getFileAttributesMock();
         final var servlet = new ImageServlet(appConfig, imageService);
 
         try (var mockedStatic = mockStatic(ImageUtil.class, CALLS_REAL_METHODS)) {
-            mockedStatic.when(() -> ImageUtil.loadImage(image)).thenReturn(brokenOptional);
+            mockedStatic.when(() -> ImageUtil.readImageAttributes(any(Path.class))).thenReturn(Optional.of(attributes));
+            mockedStatic.when(() -> ImageUtil.loadImage(any(Path.class))).thenReturn(brokenOptional);
 
             // Act
             servlet.doGet(request, response);
@@ -207,18 +257,23 @@ class ImageServletTest {
 
         // working stream that successfully calls `.transferTo(...)`
         final var inputStream = spy(new ByteArrayInputStream("demo".getBytes()));
+        final var attributes = getFileAttributesMock();
 
         final var servlet = new ImageServlet(appConfig, imageService);
 
         try (var mockedStatic = mockStatic(ImageUtil.class, CALLS_REAL_METHODS)) {
-            mockedStatic.when(() -> ImageUtil.loadImage(image)).thenReturn(Optional.of(inputStream));
+            mockedStatic.when(() -> ImageUtil.readImageAttributes(any(Path.class))).thenReturn(Optional.of(attributes));
+            mockedStatic.when(() -> ImageUtil.loadImage(any(Path.class))).thenReturn(Optional.of(inputStream));
 
             // Act
             servlet.doGet(request, response);
 
             // Assert
             verify(response).setContentType("image/jpeg");
-            verify(response).setHeader("Cache-Control", "public, max-age=86400");
+            verify(response).setHeader("Cache-Control", "public, max-age=31536000, immutable");
+            verify(response).setHeader("ETag", ETAG);
+            verify(response).setDateHeader("Last-Modified", 1_700_000_000_000L);
+            verify(response).setContentLengthLong(4L);
             verify(inputStream).transferTo(outputStream);
             verify(response, never()).sendRedirect("/error/404");
             verify(response, never()).sendRedirect("/error/500");
@@ -227,6 +282,526 @@ class ImageServletTest {
         }
     }
 
+    @Test
+    void streamsSingleRange_whenRangeIsRequested() throws IOException {
+        // Arrange
+        final UUID imageId = UUID.fromString("d23dab3b-bb6b-400a-9e7b-4a85e0c89226");
+        final var image = new ImageDto(imageId, ContentType.IMAGE_JPEG);
+
+        final var request = mock(HttpServletRequest.class);
+        final var response = mock(HttpServletResponse.class);
+        final var outputStream = new ByteArrayServletOutputStream();
+        final var appConfig = getAppConfigMock();
+        final var imageService = mock(ImageService.class);
+        final var attributes = getFileAttributesMock();
+
+        when(request.getPathInfo()).thenReturn("/images/" + imageId + ".jpg");
+        when(request.getHeader("Range")).thenReturn("bytes=1-2");
+        when(response.getOutputStream()).thenReturn(outputStream);
+        when(imageService.getImage(imageId)).thenReturn(Optional.of(image));
+
+        final var servlet = new ImageServlet(appConfig, imageService);
+
+        try (var mockedStatic = mockStatic(ImageUtil.class, CALLS_REAL_METHODS)) {
+            mockedStatic.when(() -> ImageUtil.readImageAttributes(any(Path.class))).thenReturn(Optional.of(attributes));
+            mockedStatic.when(() -> ImageUtil.loadImage(any(Path.class)))
+                    .thenAnswer(_ -> Optional.of(new ByteArrayInputStream("demo".getBytes())));
+
+            // Act
+            servlet.doGet(request, response);
+
+            // Assert
+            verify(response).setHeader("Accept-Ranges", "bytes");
+            verify(response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            verify(response).setContentType("image/jpeg");
+            verify(response).setContentLengthLong(2L);
+            verify(response).setHeader("Content-Range", "bytes 1-2/4");
+            assertThat(outputStream.toString()).isEqualTo("em");
+        }
+    }
+
+    @Test
+    void streamsMultipartRanges_whenMultipleRangesAreRequested() throws IOException {
+        // Arrange
+        final UUID imageId = UUID.fromString("d23dab3b-bb6b-400a-9e7b-4a85e0c89226");
+        final var image = new ImageDto(imageId, ContentType.IMAGE_JPEG);
+
+        final var request = mock(HttpServletRequest.class);
+        final var response = mock(HttpServletResponse.class);
+        final var outputStream = new ByteArrayServletOutputStream();
+        final var appConfig = getAppConfigMock();
+        final var imageService = mock(ImageService.class);
+        final var attributes = getFileAttributesMock();
+
+        when(request.getPathInfo()).thenReturn("/images/" + imageId + ".jpg");
+        when(request.getHeader("Range")).thenReturn("bytes=0-0,-1");
+        when(response.getOutputStream()).thenReturn(outputStream);
+        when(imageService.getImage(imageId)).thenReturn(Optional.of(image));
+
+        final var servlet = new ImageServlet(appConfig, imageService);
+
+        try (var mockedStatic = mockStatic(ImageUtil.class, CALLS_REAL_METHODS)) {
+            mockedStatic.when(() -> ImageUtil.readImageAttributes(any(Path.class))).thenReturn(Optional.of(attributes));
+            mockedStatic.when(() -> ImageUtil.loadImage(any(Path.class)))
+                    .thenAnswer(_ -> Optional.of(new ByteArrayInputStream("demo".getBytes())));
+
+            // Act
+            servlet.doGet(request, response);
+
+            // Assert
+            final var expected = """
+                    \r
+                    --KOMUNUMO_BYTERANGES_BOUNDARY\r
+                    Content-Type: image/jpeg\r
+                    Content-Range: bytes 0-0/4\r
+                    \r
+                    d\r
+                    --KOMUNUMO_BYTERANGES_BOUNDARY\r
+                    Content-Type: image/jpeg\r
+                    Content-Range: bytes 3-3/4\r
+                    \r
+                    o\r
+                    --KOMUNUMO_BYTERANGES_BOUNDARY--\r
+                    """;
+            verify(response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            verify(response).setContentType("multipart/byteranges; boundary=KOMUNUMO_BYTERANGES_BOUNDARY");
+            verify(response).setContentLengthLong(expected.length());
+            assertThat(outputStream.toString()).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void respondsRangeNotSatisfiable_whenNoRangeFits() throws IOException {
+        // Arrange
+        final UUID imageId = UUID.fromString("d23dab3b-bb6b-400a-9e7b-4a85e0c89226");
+        final var image = new ImageDto(imageId, ContentType.IMAGE_JPEG);
+
+        final var request = mock(HttpServletRequest.class);
+        final var response = mock(HttpServletResponse.class);
+        final var appConfig = getAppConfigMock();
+        final var imageService = mock(ImageService.class);
+        final var attributes = getFileAttributesMock();
+
+        when(request.getPathInfo()).thenReturn("/images/" + imageId + ".jpg");
+        when(request.getHeader("Range")).thenReturn("bytes=10-20");
+        when(imageService.getImage(imageId)).thenReturn(Optional.of(image));
+
+        final var servlet = new ImageServlet(appConfig, imageService);
+
+        try (var mockedStatic = mockStatic(ImageUtil.class, CALLS_REAL_METHODS)) {
+            mockedStatic.when(() -> ImageUtil.readImageAttributes(any(Path.class))).thenReturn(Optional.of(attributes));
+
+            // Act
+            servlet.doGet(request, response);
+
+            // Assert
+            verify(response).setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            verify(response).setHeader("Content-Range", "bytes */4");
+            verify(response, never()).getOutputStream();
+        }
+    }
+
+    @Test
+    void streamsFullImage_whenIfRangeDoesNotMatch() throws IOException {
+        // Arrange
+        final UUID imageId = UUID.fromString("d23dab3b-bb6b-400a-9e7b-4a85e0c89226");
+        final var image = new ImageDto(imageId, ContentType.IMAGE_JPEG);
+
+        final var request = mock(HttpServletRequest.class);
+        final var response = mock(HttpServletResponse.class);
+        final var outputStream = new ByteArrayServletOutputStream();
+        final var appConfig = getAppConfigMock();
+        final var imageService = mock(ImageService.class);
+        final var attributes = getFileAttributesMock();
+
+        when(request.getPathInfo()).thenReturn("/images/" + imageId + ".jpg");
+        when(request.getHeader("Range")).thenReturn("bytes=1-2");
+        when(request.getHeader("If-Range")).thenReturn("\"outdated\"");
+        when(response.getOutputStream()).thenReturn(outputStream);
+        when(imageService.getImage(imageId)).thenReturn(Optional.of(image));
+
+        final var servlet = new ImageServlet(appConfig, imageService);
+
+        try (var mockedStatic = mockStatic(ImageUtil.class, CALLS_REAL_METHODS)) {
+            mockedStatic.when(() -> ImageUtil.readImageAttributes(any(Path.class))).thenReturn(Optional.of(attributes));
+            mockedStatic.when(() -> ImageUtil.loadImage(any(Path.class)))
+                    .thenAnswer(_ -> Optional.of(new ByteArrayInputStream("demo".getBytes())));
+
+            // Act
+            servlet.doGet(request, response);
+
+            // Assert
+            verify(response, never()).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            verify(response).setContentLengthLong(4L);
+            assertThat(outputStream.toString()).isEqualTo("demo");
+        }
+    }
+
+    @Test
+    void delegatesToSendfile_whenSupportedByContainer() throws IOException {
+        // Arrange
+        final UUID imageId = UUID.fromString("d23dab3b-bb6b-400a-9e7b-4a85e0c89226");
+        final var image = new ImageDto(imageId, ContentType.IMAGE_JPEG);
+
+        final var request = mock(HttpServletRequest.class);
+        final var response = mock(HttpServletResponse.class);
+        final var appConfig = getAppConfigMock();
+        final var imageService = mock(ImageService.class);
+        final var attributes = getFileAttributesMock();
+        when(attributes.size()).thenReturn(100_000L);
+
+        when(request.getPathInfo()).thenReturn("/images/" + imageId + ".jpg");
+        when(request.getAttribute("org.apache.tomcat.sendfile.support")).thenReturn(Boolean.TRUE);
+        when(imageService.getImage(imageId)).thenReturn(Optional.of(image));
+
+        final var servlet = new ImageServlet(appConfig, imageService);
+
+        try (var mockedStatic = mockStatic(ImageUtil.class, CALLS_REAL_METHODS)) {
+            mockedStatic.when(() -> ImageUtil.readImageAttributes(any(Path.class))).thenReturn(Optional.of(attributes));
+
+            // Act
+            servlet.doGet(request, response);
+
+            // Assert
+            final var path = ImageUtil.resolveImagePath(image);
+            assertThat(path).isNotNull();
+            verify(response).setContentType("image/jpeg");
+            verify(response).setContentLengthLong(100_000L);
+            verify(request).setAttribute("org.apache.tomcat.sendfile.filename",
+                    path.toAbsolutePath().normalize().toString());
+            verify(request).setAttribute("org.apache.tomcat.sendfile.start", 0L);
+            verify(request).setAttribute("org.apache.tomcat.sendfile.end", 100_000L);
+            verify(response, never()).getOutputStream();
+            mockedStatic.verify(() -> ImageUtil.loadImage(any(Path.class)), never());
+        }
+    }
+
+    @Test
+    void streamsSmallImage_evenWhenSendfileIsSupported() throws IOException {
+        // Arrange
+        final UUID imageId = UUID.fromString("d23dab3b-bb6b-400a-9e7b-4a85e0c89226");
+        final var image = new ImageDto(imageId, ContentType.IMAGE_JPEG);
+
+        final var request = mock(HttpServletRequest.class);
+        final var response = mock(HttpServletResponse.class);
+        final var outputStream = mock(ServletOutputStream.class);
+        final var appConfig = getAppConfigMock();
+        final var imageService = mock(ImageService.class);
+        final var attributes = getFileAttributesMock();
+        final var inputStream = spy(new ByteArrayInputStream("demo".getBytes()));
+
+        when(request.getPathInfo()).thenReturn("/images/" + imageId + ".jpg");
+        when(request.getAttribute("org.apache.tomcat.sendfile.support")).thenReturn(Boolean.TRUE);
+        when(response.getOutputStream()).thenReturn(outputStream);
+        when(imageService.getImage(imageId)).thenReturn(Optional.of(image));
+
+        final var servlet = new ImageServlet(appConfig, imageService);
+
+        try (var mockedStatic = mockStatic(ImageUtil.class, CALLS_REAL_METHODS)) {
+            mockedStatic.when(() -> ImageUtil.readImageAttributes(any(Path.class))).thenReturn(Optional.of(attributes));
+            mockedStatic.when(() -> ImageUtil.loadImage(any(Path.class))).thenReturn(Optional.of(inputStream));
+
+            // Act
+            servlet.doGet(request, response);
+
+            // Assert
+            verify(request, never()).setAttribute(anyString(), any());
+            verify(inputStream).transferTo(outputStream);
+        }
+    }
+
+    @Test
+    void skipsDatabase_whenImageFileForUrlExists() throws IOException {
+        // Arrange
+        final UUID imageId = UUID.fromString("d23dab3b-bb6b-400a-9e7b-4a85e0c89226");
+
+        final var request = mock(HttpServletRequest.class);
+        final var response = mock(HttpServletResponse.class);
+        final var outputStream = mock(ServletOutputStream.class);
+        final var appConfig = getAppConfigMock();
+        final var imageService = mock(ImageService.class);
+        final var attributes = getFileAttributesMock();
+        final var inputStream = spy(new ByteArrayInputStream("demo".getBytes()));
+
+        when(request.getPathInfo()).thenReturn("/images/" + imageId + ".jpg");
+        when(response.getOutputStream()).thenReturn(outputStream);
+
+        final var servlet = new ImageServlet(appConfig, imageService);
+
+        try (var mockedStatic = mockStatic(ImageUtil.class, CALLS_REAL_METHODS)) {
+            mockedStatic.when(() -> ImageUtil.readImageAttributes(any(Path.class))).thenReturn(Optional.of(attributes));
+            mockedStatic.when(() -> ImageUtil.loadImage(any(Path.class))).thenReturn(Optional.of(inputStream));
+
+            // Act
+            servlet.doGet(request, response);
+
+            // Assert
+            verify(imageService, never()).getImage(any());
+            verify(response).setContentType("image/jpeg");
+            verify(inputStream).transferTo(outputStream);
+        }
+    }
+
+    @Test
+    void usesDatabase_whenUrlHasUnknownExtension() throws IOException {
+        // Arrange
+        final UUID imageId = UUID.fromString("d23dab3b-bb6b-400a-9e7b-4a85e0c89226");
+        final var image = new ImageDto(imageId, ContentType.IMAGE_PNG);
+
+        final var request = mock(HttpServletRequest.class);
+        final var response = mock(HttpServletResponse.class);
+        final var outputStream = mock(ServletOutputStream.class);
+        final var appConfig = getAppConfigMock();
+        final var imageService = mock(ImageService.class);
+        final var attributes = getFileAttributesMock();
+        final var inputStream = spy(new ByteArrayInputStream("demo".getBytes()));
+
+        when(request.getPathInfo()).thenReturn("/images/" + imageId + ".bmp");
+        when(response.getOutputStream()).thenReturn(outputStream);
+        when(imageService.getImage(imageId)).thenReturn(Optional.of(image));
+
+        final var servlet = new ImageServlet(appConfig, imageService);
+
+        try (var mockedStatic = mockStatic(ImageUtil.class, CALLS_REAL_METHODS)) {
+            mockedStatic.when(() -> ImageUtil.readImageAttributes(any(Path.class))).thenReturn(Optional.of(attributes));
+            mockedStatic.when(() -> ImageUtil.loadImage(any(Path.class))).thenReturn(Optional.of(inputStream));
+
+            // Act
+            servlet.doGet(request, response);
+
+            // Assert
+            verify(imageService).getImage(imageId);
+            verify(response).setContentType("image/png");
+            verify(inputStream).transferTo(outputStream);
+        }
+    }
+
+    @Test
+    void writesCachedContent_whenImageIsInContentCache() throws IOException {
+        // Arrange
+        final UUID imageId = UUID.fromString("d23dab3b-bb6b-400a-9e7b-4a85e0c89226");
+        final var image = new ImageDto(imageId, ContentType.IMAGE_JPEG);
+
+        final var request = mock(HttpServletRequest.class);
+        final var response = mock(HttpServletResponse.class);
+        final var outputStream = mock(ServletOutputStream.class);
+        final var appConfig = getAppConfigMock();
+        final var imageService = mock(ImageService.class);
+        final var attributes = getFileAttributesMock();
+        final var content = "demo".getBytes();
+
+        when(request.getPathInfo()).thenReturn("/images/" + imageId + ".jpg");
+        when(request.getAttribute("org.apache.tomcat.sendfile.support")).thenReturn(Boolean.TRUE);
+        when(response.getOutputStream()).thenReturn(outputStream);
+        when(imageService.getImage(imageId)).thenReturn(Optional.of(image));
+        when(imageService.getImageContent(any(ImageDto.class), any(Path.class), any(BasicFileAttributes.class)))
+                .thenReturn(Optional.of(content));
+
+        final var servlet = new ImageServlet(appConfig, imageService);
+
+        try (var mockedStatic = mockStatic(ImageUtil.class, CALLS_REAL_METHODS)) {
+            mockedStatic.when(() -> ImageUtil.readImageAttributes(any(Path.class))).thenReturn(Optional.of(attributes));
+
+            // Act
+            servlet.doGet(request, response);
+
+            // Assert
+            verify(response).setContentType("image/jpeg");
+            verify(response).setContentLengthLong(4L);
+            verify(outputStream).write(content);
+            verify(request, never()).setAttribute(anyString(), any());
+            mockedStatic.verify(() -> ImageUtil.loadImage(any(Path.class)), never());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            ETAG,
+            "W/" + ETAG,
+            "\"other\", " + ETAG,
+            "*"
+    })
+    void respondsNotModified_whenIfNoneMatchMatches(final String ifNoneMatch) throws IOException {
+        // Arrange
+        final UUID imageId = UUID.fromString("d23dab3b-bb6b-400a-9e7b-4a85e0c89226");
+        final var image = new ImageDto(imageId, ContentType.IMAGE_JPEG);
+
+        final var request = mock(HttpServletRequest.class);
+        final var response = mock(HttpServletResponse.class);
+        final var appConfig = getAppConfigMock();
+        final var imageService = mock(ImageService.class);
+        final var attributes = getFileAttributesMock();
+
+        when(request.getPathInfo()).thenReturn("/images/" + imageId + ".jpg");
+        when(request.getHeader("If-None-Match")).thenReturn(ifNoneMatch);
+        when(imageService.getImage(imageId)).thenReturn(Optional.of(image));
+
+        final var servlet = new ImageServlet(appConfig, imageService);
+
+        try (var mockedStatic = mockStatic(ImageUtil.class, CALLS_REAL_METHODS)) {
+            mockedStatic.when(() -> ImageUtil.readImageAttributes(any(Path.class))).thenReturn(Optional.of(attributes));
+
+            // Act
+            servlet.doGet(request, response);
+
+            // Assert
+            verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            verify(response).setHeader("ETag", ETAG);
+            verify(response, never()).getOutputStream();
+            mockedStatic.verify(() -> ImageUtil.loadImage(any(Path.class)), never());
+        }
+    }
+
+    @Test
+    void respondsNotModified_whenNotModifiedSince() throws IOException {
+        // Arrange
+        final UUID imageId = UUID.fromString("d23dab3b-bb6b-400a-9e7b-4a85e0c89226");
+        final var image = new ImageDto(imageId, ContentType.IMAGE_JPEG);
+
+        final var request = mock(HttpServletRequest.class);
+        final var response = mock(HttpServletResponse.class);
+        final var appConfig = getAppConfigMock();
+        final var imageService = mock(ImageService.class);
+        final var attributes = getFileAttributesMock();
+
+        when(request.getPathInfo()).thenReturn("/images/" + imageId + ".jpg");
+        when(request.getDateHeader("If-Modified-Since")).thenReturn(1_700_000_000_000L);
+        when(imageService.getImage(imageId)).thenReturn(Optional.of(image));
+
+        final var servlet = new ImageServlet(appConfig, imageService);
+
+        try (var mockedStatic = mockStatic(ImageUtil.class, CALLS_REAL_METHODS)) {
+            mockedStatic.when(() -> ImageUtil.readImageAttributes(any(Path.class))).thenReturn(Optional.of(attributes));
+
+            // Act
+            servlet.doGet(request, response);
+
+            // Assert
+            verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            verify(response, never()).getOutputStream();
+        }
+    }
+
+    @Test
+    void streamsImage_whenETagDoesNotMatch() throws IOException {
+        // Arrange
+        final UUID imageId = UUID.fromString("d23dab3b-bb6b-400a-9e7b-4a85e0c89226");
+        final var image = new ImageDto(imageId, ContentType.IMAGE_JPEG);
+
+        final var request = mock(HttpServletRequest.class);
+        final var response = mock(HttpServletResponse.class);
+        final var outputStream = mock(ServletOutputStream.class);
+        final var appConfig = getAppConfigMock();
+        final var imageService = mock(ImageService.class);
+        final var attributes = getFileAttributesMock();
+        final var inputStream = spy(new ByteArrayInputStream("demo".getBytes()));
+
+        when(request.getPathInfo()).thenReturn("/images/" + imageId + ".jpg");
+        when(request.getHeader("If-None-Match")).thenReturn("\"outdated\"");
+        when(request.getDateHeader("If-Modified-Since")).thenReturn(1_700_000_000_000L);
+        when(response.getOutputStream()).thenReturn(outputStream);
+        when(imageService.getImage(imageId)).thenReturn(Optional.of(image));
+
+        final var servlet = new ImageServlet(appConfig, imageService);
+
+        try (var mockedStatic = mockStatic(ImageUtil.class, CALLS_REAL_METHODS)) {
+            mockedStatic.when(() -> ImageUtil.readImageAttributes(any(Path.class))).thenReturn(Optional.of(attributes));
+            mockedStatic.when(() -> ImageUtil.loadImage(any(Path.class))).thenReturn(Optional.of(inputStream));
+
+            // Act
+            servlet.doGet(request, response);
+
+            // Assert
+            verify(response, never()).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            verify(inputStream).transferTo(outputStream);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"abc", "0", "-100", "99999999999"})
+    void redirectsTo404Page_whenVariantWidthIsInvalid(final String width) throws IOException {
+        // Arrange
+        final UUID imageId = UUID.fromString("d23dab3b-bb6b-400a-9e7b-4a85e0c89226");
+        final var image = new ImageDto(imageId, ContentType.IMAGE_JPEG);
+
+        final var request = mock(HttpServletRequest.class);
+        final var response = mock(HttpServletResponse.class);
+        final var appConfig = getAppConfigMock();
+        final var imageService = mock(ImageService.class);
+
+        when(request.getPathInfo()).thenReturn("/images/" + imageId + ".jpg");
+        when(request.getParameter("w")).thenReturn(width);
+        when(imageService.getImage(imageId)).thenReturn(Optional.of(image));
+
+        final var servlet = new ImageServlet(appConfig, imageService);
+
+        // Act
+        servlet.doGet(request, response);
+
+        // Assert
+        verify(response).sendRedirect("/error/404");
+    }
+
+    @Test
+    void redirectsTo404Page_whenVariantFormatIsUnknown() throws IOException {
+        // Arrange
+        final UUID imageId = UUID.fromString("d23dab3b-bb6b-400a-9e7b-4a85e0c89226");
+        final var image = new ImageDto(imageId, ContentType.IMAGE_JPEG);
+
+        final var request = mock(HttpServletRequest.class);
+        final var response = mock(HttpServletResponse.class);
+        final var appConfig = getAppConfigMock();
+        final var imageService = mock(ImageService.class);
+
+        when(request.getPathInfo()).thenReturn("/images/" + imageId + ".jpg");
+        when(request.getParameter("format")).thenReturn("bmp");
+        when(imageService.getImage(imageId)).thenReturn(Optional.of(image));
+
+        final var servlet = new ImageServlet(appConfig, imageService);
+
+        // Act
+        servlet.doGet(request, response);
+
+        // Assert
+        verify(response).sendRedirect("/error/404");
+    }
+
+    @Test
+    void streamsOriginal_whenVariantCannotBeGenerated() throws IOException {
+        // Arrange
+        final UUID imageId = UUID.fromString("d23dab3b-bb6b-400a-9e7b-4a85e0c89226");
+        final var image = new ImageDto(imageId, ContentType.IMAGE_SVG);
+
+        final var request = mock(HttpServletRequest.class);
+        final var response = mock(HttpServletResponse.class);
+        final var outputStream = mock(ServletOutputStream.class);
+        final var appConfig = getAppConfigMock();
+        final var imageService = mock(ImageService.class);
+        final var attributes = getFileAttributesMock();
+        final var inputStream = spy(new ByteArrayInputStream("demo".getBytes()));
+
+        when(request.getPathInfo()).thenReturn("/images/" + imageId + ".svg");
+        when(request.getParameter("w")).thenReturn("400");
+        when(response.getOutputStream()).thenReturn(outputStream);
+        when(imageService.getImage(imageId)).thenReturn(Optional.of(image));
+
+        final var servlet = new ImageServlet(appConfig, imageService);
+        final var originalPath = ImageUtil.resolveImagePath(image);
+
+        try (var mockedStatic = mockStatic(ImageUtil.class, CALLS_REAL_METHODS)) {
+            mockedStatic.when(() -> ImageUtil.readImageAttributes(any(Path.class))).thenReturn(Optional.of(attributes));
+            mockedStatic.when(() -> ImageUtil.loadImage(any(Path.class))).thenReturn(Optional.of(inputStream));
+
+            // Act
+            servlet.doGet(request, response);
+
+            // Assert
+            verify(response).setContentType("image/svg+xml");
+            mockedStatic.verify(() -> ImageUtil.loadImage(originalPath));
+            verify(inputStream).transferTo(outputStream);
+        }
+    }
+
     @Test
     void setsNotFoundStatus_whenRedirectTo404PageFails() throws IOException {
         // Arrange
@@ -274,9 +849,9 @@ class ImageServletTest {
 
         final var servlet = new ImageServlet(appConfig, imageService);
 
-        // Mock static method: ImageUtil.loadImage(image) → Optional.empty()
+        // Mock static method: ImageUtil.loadImage(path) → Optional.empty()
         try (MockedStatic<ImageUtil> mockedStatic = mockStatic(ImageUtil.class, CALLS_REAL_METHODS)) {
-            mockedStatic.when(() -> ImageUtil.loadImage(any())).thenReturn(Optional.empty());
+            mockedStatic.when(() -> ImageUtil.loadImage(any(Path.class))).thenReturn(Optional.empty());
 
             servlet.doGet(request, response);
 
@@ -286,18 +861,15 @@ class ImageServletTest {
     }
 
     @Test
-    void redirectsTo500Page_whenPrintWriterThrowsIOException() throws IOException {
+    void redirectsTo500Page_whenPlaceholderOutputThrowsIOException() throws IOException {
         // Arrange
         final var appConfig = getAppConfigMock();
         final var imageService = mock(ImageService.class);
         final var request = mock(HttpServletRequest.class);
         final var response = mock(HttpServletResponse.class);
-        final var printWriter = mock(PrintWriter.class);
 
         when(request.getPathInfo()).thenReturn("/placeholder-100x200.svg");
-        when(response.getWriter()).thenReturn(printWriter);
-        doThrow(new IOException("Writing failed"))
-                .when(printWriter).write(anyString());
+        when(response.getOutputStream()).thenThrow(new IOException("Writing failed"));
 
         // Act
         final var servlet = new ImageServlet(appConfig, imageService);
@@ -313,12 +885,12 @@ class ImageServletTest {
         // Arrange
         final var request = mock(HttpServletRequest.class);
         final var response = mock(HttpServletResponse.class);
-        final var stringWriter = new StringWriter();
+        final var outputStream = new ByteArrayServletOutputStream();
         final var appConfig = getAppConfigMock();
         final var imageService = mock(ImageService.class);
 
         when(request.getPathInfo()).thenReturn("/placeholder-100x200.svg");
-        when(response.getWriter()).thenReturn(new PrintWriter(stringWriter));
+        when(response.getOutputStream()).thenReturn(outputStream);
 
         // Act
         final var servlet = new ImageServlet(appConfig, imageService);
@@ -327,12 +899,15 @@ class ImageServletTest {
         // Assert
         verify(response).setContentType("image/svg+xml");
         verify(response).setHeader("Cache-Control", "public, max-age=86400");
+        verify(response).setHeader(eq("ETag"), matches("\"placeholder-100x200-[0-9a-f]{8}\""));
+        verify(response).setHeader("Vary", "Accept-Encoding");
+        verify(response, never()).setHeader(eq("Content-Encoding"), anyString());
         verify(response, never()).sendRedirect("/error/404");
         verify(response, never()).sendRedirect("/error/500");
         verify(response, never()).setStatus(HttpServletResponse.SC_NOT_FOUND);
         verify(response, never()).setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
 
-        final var output = stringWriter.toString();
+        final var output = new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
         assertThat(output.trim())
                 .startsWith("<?xml")
                 .contains("<svg xmlns=\"http://www.w3.org/2000/svg\"")
@@ -343,4 +918,112 @@ class ImageServletTest {
                 .endsWith("</svg>");
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = {"gzip", "deflate, gzip, br", "GZIP;q=0.5", "*"})
+    void streamsCompressedPlaceholder_whenGzipIsAccepted(final String acceptEncoding) throws IOException {
+        // Arrange
+        final var request = mock(HttpServletRequest.class);
+        final var response = mock(HttpServletResponse.class);
+        final var outputStream = new ByteArrayServletOutputStream();
+        final var appConfig = getAppConfigMock();
+        final var imageService = mock(ImageService.class);
+
+        when(request.getPathInfo()).thenReturn("/placeholder-100x200.svg");
+        when(request.getHeader("Accept-Encoding")).thenReturn(acceptEncoding);
+        when(response.getOutputStream()).thenReturn(outputStream);
+
+        // Act
+        final var servlet = new ImageServlet(appConfig, imageService);
+        servlet.doGet(request, response);
+
+        // Assert
+        verify(response).setHeader("Content-Encoding", "gzip");
+        verify(response).setHeader(eq("ETag"), matches("\"placeholder-100x200-[0-9a-f]{8}-gzip\""));
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            assertThat(new String(gzip.readAllBytes(), StandardCharsets.UTF_8))
+                    .contains("width=\"100\"")
+                    .endsWith("</svg>");
+        }
+    }
+
+    @Test
+    void streamsUncompressedPlaceholder_whenGzipIsRejected() throws IOException {
+        // Arrange
+        final var request = mock(HttpServletRequest.class);
+        final var response = mock(HttpServletResponse.class);
+        final var outputStream = new ByteArrayServletOutputStream();
+        final var appConfig = getAppConfigMock();
+        final var imageService = mock(ImageService.class);
+
+        when(request.getPathInfo()).thenReturn("/placeholder-100x200.svg");
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip;q=0, br");
+        when(response.getOutputStream()).thenReturn(outputStream);
+
+        // Act
+        final var servlet = new ImageServlet(appConfig, imageService);
+        servlet.doGet(request, response);
+
+        // Assert
+        verify(response, never()).setHeader(eq("Content-Encoding"), anyString());
+        assertThat(new String(outputStream.toByteArray(), StandardCharsets.UTF_8)).startsWith("<?xml");
+    }
+
+    @Test
+    void respondsNotModified_whenPlaceholderETagMatches() throws IOException {
+        // Arrange
+        final var appConfig = getAppConfigMock();
+        final var imageService = mock(ImageService.class);
+        final var servlet = new ImageServlet(appConfig, imageService);
+
+        final var firstRequest = mock(HttpServletRequest.class);
+        final var firstResponse = mock(HttpServletResponse.class);
+        when(firstRequest.getPathInfo()).thenReturn("/placeholder-100x200.svg");
+        when(firstResponse.getOutputStream()).thenReturn(new ByteArrayServletOutputStream());
+        servlet.doGet(firstRequest, firstResponse);
+        final var eTag = ArgumentCaptor.forClass(String.class);
+        verify(firstResponse).setHeader(eq("ETag"), eTag.capture());
+
+        final var request = mock(HttpServletRequest.class);
+        final var response = mock(HttpServletResponse.class);
+        when(request.getPathInfo()).thenReturn("/placeholder-100x200.svg");
+        when(request.getHeader("If-None-Match")).thenReturn(eTag.getValue());
+
+        // Act
+        servlet.doGet(request, response);
+
+        // Assert
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(response, never()).getOutputStream();
+    }
+
+    private static final class ByteArrayServletOutputStream extends ServletOutputStream {
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(final WriteListener writeListener) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void write(final int b) {
+            buffer.write(b);
+        }
+
+        public byte[] toByteArray() {
+            return buffer.toByteArray();
+        }
+
+        @Override
+        public String toString() {
+            return buffer.toString(StandardCharsets.US_ASCII);
+        }
+
+    }
+
 }
@@ -0,0 +1,140 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.image.control;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageContentCacheTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private final ImageContentCache cache = new ImageContentCache();
+
+    private BasicFileAttributes readAttributes(final Path path) throws IOException {
+        return Files.readAttributes(path, BasicFileAttributes.class);
+    }
+
+    @Test
+    void servesContentFromCache_afterFirstRead() throws IOException {
+        final var imageId = UUID.randomUUID();
+        final var path = Files.write(tempDir.resolve(imageId + ".svg"), "<svg/>".getBytes());
+        final var attributes = readAttributes(path);
+
+        assertThat(cache.getContent(imageId, path, attributes)).hasValueSatisfying(content ->
+                assertThat(content).isEqualTo("<svg/>".getBytes()));
+        assertThat(cache.getStats().missCount()).isEqualTo(1);
+
+        // the cached content is returned even though the file is gone
+        Files.delete(path);
+        assertThat(cache.getContent(imageId, path, attributes)).hasValueSatisfying(content ->
+                assertThat(content).isEqualTo("<svg/>".getBytes()));
+        assertThat(cache.getStats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void readsContentAgain_whenFileHasChanged() throws IOException {
+        final var imageId = UUID.randomUUID();
+        final var path = Files.write(tempDir.resolve(imageId + ".svg"), "<svg/>".getBytes());
+        assertThat(cache.getContent(imageId, path, readAttributes(path))).isPresent();
+
+        Files.write(path, "<svg></svg>".getBytes());
+        Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+        assertThat(cache.getContent(imageId, path, readAttributes(path))).hasValueSatisfying(content ->
+                assertThat(content).isEqualTo("<svg></svg>".getBytes()));
+        assertThat(cache.getStats().missCount()).isEqualTo(2);
+    }
+
+    @Test
+    void removesAllEntriesOfImage_whenInvalidated() throws IOException {
+        final var imageId = UUID.randomUUID();
+        final var path = Files.write(tempDir.resolve(imageId + ".png"), new byte[100]);
+        final var variantPath = Files.write(tempDir.resolve(imageId + "-w160.png"), new byte[10]);
+        final var otherId = UUID.randomUUID();
+        final var otherPath = Files.write(tempDir.resolve(otherId + ".png"), new byte[50]);
+
+        cache.getContent(imageId, path, readAttributes(path));
+        cache.getContent(imageId, variantPath, readAttributes(variantPath));
+        cache.getContent(otherId, otherPath, readAttributes(otherPath));
+        assertThat(cache.getCache().estimatedSize()).isEqualTo(3);
+
+        cache.invalidate(imageId);
+        assertThat(cache.getCache().estimatedSize()).isEqualTo(1);
+        assertThat(cache.getIndexedImageCount()).isEqualTo(1);
+    }
+
+    @Test
+    void removesEvictedEntriesFromIndex() throws IOException {
+        final var imageId = UUID.randomUUID();
+        final var path = Files.write(tempDir.resolve(imageId + ".png"), new byte[100]);
+        final var variantPath = Files.write(tempDir.resolve(imageId + "-w160.png"), new byte[10]);
+
+        cache.getContent(imageId, path, readAttributes(path));
+        cache.getContent(imageId, variantPath, readAttributes(variantPath));
+        assertThat(cache.getIndexedImageCount()).isEqualTo(1);
+
+        cache.getCache().policy().eviction().orElseThrow().setMaximum(0);
+        cache.getCache().cleanUp();
+        assertThat(cache.getCache().estimatedSize()).isZero();
+        assertThat(cache.getIndexedImageCount()).isZero();
+    }
+
+    @Test
+    void sharesContent_betweenHardLinkedFiles() throws IOException {
+        final var imageId = UUID.randomUUID();
+        final var path = Files.write(tempDir.resolve(imageId + ".png"), new byte[100]);
+        final var otherId = UUID.randomUUID();
+        final var otherPath = Files.createLink(tempDir.resolve(otherId + ".png"), path);
+
+        final var content = cache.getContent(imageId, path, readAttributes(path)).orElseThrow();
+        final var otherContent = cache.getContent(otherId, otherPath, readAttributes(otherPath)).orElseThrow();
+        assertThat(otherContent).isSameAs(content);
+        assertThat(cache.getCache().estimatedSize()).isEqualTo(2);
+    }
+
+    @Test
+    void skipsLargeFiles() throws IOException {
+        final var imageId = UUID.randomUUID();
+        final var path = Files.write(tempDir.resolve(imageId + ".png"),
+                new byte[(int) ImageContentCache.MAX_CACHEABLE_SIZE + 1]);
+
+        assertThat(cache.getContent(imageId, path, readAttributes(path))).isEmpty();
+        assertThat(cache.getCache().estimatedSize()).isZero();
+    }
+
+    @Test
+    void returnsEmpty_whenFileCannotBeRead() throws IOException {
+        final var imageId = UUID.randomUUID();
+        final var path = Files.write(tempDir.resolve(imageId + ".png"), new byte[10]);
+        final var attributes = readAttributes(path);
+        Files.delete(path);
+
+        assertThat(cache.getContent(imageId, path, attributes)).isEmpty();
+    }
+
+}
@@ -30,6 +30,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -103,6 +106,19 @@ class ImageServiceKT extends KaribuTest {
         assertThat(imageService.getImage(null)).isEmpty();
     }
 
+    @Test
+    void unknownImageIsFoundAfterItWasStored() {
+        final var imageId = UUID.randomUUID();
+        assertThat(imageService.getImage(imageId)).isEmpty();
+        assertThat(imageService.getImage(imageId)).isEmpty();
+
+        final var image = imageService.storeImage(new ImageDto(imageId, ContentType.IMAGE_PNG));
+        assertThat(imageService.getImage(imageId)).contains(image);
+
+        assertThat(imageService.deleteImage(image)).isTrue();
+        assertThat(imageService.getImage(imageId)).isEmpty();
+    }
+
     @Test
     void cleanupOrphanedImages() {
         final var image = imageService.getImage(ORPHANED_IMAGE_UUID).orElseThrow();
@@ -111,6 +127,83 @@ class ImageServiceKT extends KaribuTest {
         assertThat(imageService.findOrphanedImages()).isEmpty();
     }
 
+    @Test
+    void cleanupOrphanedImagesDryRunKeepsImages() {
+        final var image = imageService.storeImage(new ImageDto(null, ContentType.IMAGE_PNG));
+
+        final var dryRun = imageService.cleanupOrphanedImages(true);
+        assertThat(dryRun.dryRun()).isTrue();
+        assertThat(dryRun.orphanedImages()).isGreaterThanOrEqualTo(1);
+        assertThat(dryRun.deletedImages()).isZero();
+        assertThat(imageService.getImage(image.id())).contains(image);
+
+        final var cleanup = imageService.cleanupOrphanedImages(false);
+        assertThat(cleanup.dryRun()).isFalse();
+        assertThat(cleanup.deletedImages()).isEqualTo(cleanup.orphanedImages()).isGreaterThanOrEqualTo(1);
+        assertThat(imageService.getImage(image.id())).isEmpty();
+        assertThat(imageService.findOrphanedImages()).isEmpty();
+    }
+
+    @Test
+    void imagesWithSameContentShareBlob() throws IOException {
+        final var content = "<svg xmlns=\"http://www.w3.org/2000/svg\"/>";
+        final var firstImage = imageService.storeImage(new ImageDto(null, ContentType.IMAGE_SVG));
+        final var firstHash = ImageUtil.storeImage(firstImage, Files.writeString(Files.createTempFile("first-", ".svg"), content));
+        imageService.storeImageBlob(firstImage, firstHash);
+        final var secondImage = imageService.storeImage(new ImageDto(null, ContentType.IMAGE_SVG));
+        final var secondHash = ImageUtil.storeImage(secondImage, Files.writeString(Files.createTempFile("second-", ".svg"), content));
+        imageService.storeImageBlob(secondImage, secondHash);
+
+        assertThat(secondHash).isEqualTo(firstHash);
+        assertThat(imageService.getImageBlobReferenceCount(firstHash)).isEqualTo(2);
+        final var blob = ImageUtil.resolveImageBlobPath(firstHash);
+        assertThat(blob).exists();
+        assertThat(Files.isSameFile(ImageUtil.resolveImagePath(firstImage), blob)).isTrue();
+        assertThat(Files.isSameFile(ImageUtil.resolveImagePath(secondImage), blob)).isTrue();
+
+        // the blob is kept as long as an image references it
+        assertThat(imageService.deleteImage(firstImage)).isTrue();
+        assertThat(imageService.getImageBlobReferenceCount(firstHash)).isEqualTo(1);
+        assertThat(blob).exists();
+        assertThat(ImageUtil.resolveImagePath(secondImage)).hasContent(content);
+
+        assertThat(imageService.deleteImage(secondImage)).isTrue();
+        assertThat(imageService.getImageBlobReferenceCount(firstHash)).isZero();
+        assertThat(blob).doesNotExist();
+    }
+
+    @Test
+    void storeImageBlobRestoresReleasedBlobFile() throws IOException {
+        final var image = imageService.storeImage(new ImageDto(null, ContentType.IMAGE_SVG));
+        final var hash = ImageUtil.storeImage(image, Files.writeString(Files.createTempFile("restore-", ".svg"),
+                "<svg xmlns=\"http://www.w3.org/2000/svg\" id=\"restore\"/>"));
+        final var blob = ImageUtil.resolveImageBlobPath(hash);
+        Files.delete(blob);
+
+        imageService.storeImageBlob(image, hash);
+        assertThat(blob).exists();
+        assertThat(Files.isSameFile(ImageUtil.resolveImagePath(image), blob)).isTrue();
+
+        assertThat(imageService.deleteImage(image)).isTrue();
+        assertThat(blob).doesNotExist();
+    }
+
+    @Test
+    void cleanupOrphanedImagesDeletesOldUnrecordedBlobFiles() throws IOException {
+        final var oldBlob = ImageUtil.resolveImageBlobPath("0".repeat(64));
+        final var newBlob = ImageUtil.resolveImageBlobPath("1".repeat(64));
+        Files.createDirectories(oldBlob.getParent());
+        Files.createDirectories(newBlob.getParent());
+        Files.writeString(oldBlob, "old");
+        Files.writeString(newBlob, "new");
+        Files.setLastModifiedTime(oldBlob, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+
+        imageService.cleanupOrphanedImages();
+        assertThat(oldBlob).doesNotExist();
+        assertThat(newBlob).exists();
+        Files.delete(newBlob);
+    }
+
     @Test
     void deleteUnsavedImageReturnsFalse() {
         final var image = new ImageDto(null, ContentType.IMAGE_WEBP);
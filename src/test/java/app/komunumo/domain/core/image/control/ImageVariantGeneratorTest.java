@@ -0,0 +1,212 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.image.control;
+
+import app.komunumo.domain.core.config.entity.AppConfig;
+import app.komunumo.domain.core.config.entity.DemoConfig;
+import app.komunumo.domain.core.config.entity.FilesConfig;
+import app.komunumo.domain.core.config.entity.InstanceConfig;
+import app.komunumo.domain.core.config.entity.MailConfig;
+import app.komunumo.domain.core.image.entity.ContentType;
+import app.komunumo.domain.core.image.entity.ImageDto;
+import app.komunumo.util.ImageUtil;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageVariantGeneratorTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private final @NotNull ImageVariantGenerator generator = new ImageVariantGenerator();
+
+    @BeforeEach
+    void setUp() {
+        final var demoConfig = new DemoConfig(false, "");
+        final var filesConfig = new FilesConfig(tempDir, null);
+        final var mailConfig = new MailConfig("noreply@foo.bar", "support@foo.bar");
+        final var instanceConfig = new InstanceConfig("admin@foo.bar");
+        final var appConfig = new AppConfig("0.0.0", demoConfig, filesConfig, instanceConfig, mailConfig);
+        ImageUtil.initialize(appConfig);
+    }
+
+    private @NotNull ImageDto createImage(final @NotNull ContentType contentType,
+                                          final int width, final int height) throws IOException {
+        final var image = new ImageDto(UUID.randomUUID(), contentType);
+        final var path = ImageUtil.resolveImagePath(image);
+        assertThat(path).isNotNull();
+        Files.createDirectories(path.getParent());
+        final var format = contentType == ContentType.IMAGE_JPEG ? "jpeg" : "png";
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), format, path.toFile());
+        return image;
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "1, 160",
+            "160, 160",
+            "161, 320",
+            "400, 480",
+            "1920, 1920",
+            "5000, 1920"
+    })
+    void snapsWidthToVariantWidths(final int requestedWidth, final int expectedWidth) {
+        assertThat(ImageVariantGenerator.snapWidth(requestedWidth)).isEqualTo(expectedWidth);
+    }
+
+    @Test
+    void generatesResizedVariantNextToOriginal() throws IOException {
+        final var image = createImage(ContentType.IMAGE_PNG, 1000, 500);
+
+        final var variant = generator.getImageVariant(image, 400, ContentType.IMAGE_PNG);
+
+        assertThat(variant).isPresent();
+        final var variantPath = variant.orElseThrow();
+        assertThat(variantPath).isEqualTo(ImageUtil.resolveImageVariantPath(image, 480, ContentType.IMAGE_PNG));
+        assertThat(variantPath.getParent()).isEqualTo(ImageUtil.resolveImagePath(image).getParent());
+
+        final var resized = ImageIO.read(variantPath.toFile());
+        assertThat(resized.getWidth()).isEqualTo(480);
+        assertThat(resized.getHeight()).isEqualTo(240);
+    }
+
+    @Test
+    void reusesExistingVariant() throws IOException {
+        final var image = createImage(ContentType.IMAGE_JPEG, 1000, 500);
+
+        final var first = generator.getImageVariant(image, 320, ContentType.IMAGE_JPEG).orElseThrow();
+        final var lastModified = Files.getLastModifiedTime(first);
+        final var second = generator.getImageVariant(image, 320, ContentType.IMAGE_JPEG).orElseThrow();
+
+        assertThat(second).isEqualTo(first);
+        assertThat(Files.getLastModifiedTime(second)).isEqualTo(lastModified);
+    }
+
+    @Test
+    void convertsFormatWithoutUpscaling() throws IOException {
+        final var image = createImage(ContentType.IMAGE_PNG, 100, 50);
+
+        final var variant = generator.getImageVariant(image, 480, ContentType.IMAGE_JPEG);
+
+        assertThat(variant).isPresent();
+        final var converted = ImageIO.read(variant.orElseThrow().toFile());
+        assertThat(converted.getWidth()).isEqualTo(100);
+        assertThat(converted.getHeight()).isEqualTo(50);
+    }
+
+    @Test
+    void servesOriginalWhenNotWiderThanRequested() throws IOException {
+        final var image = createImage(ContentType.IMAGE_PNG, 100, 50);
+
+        assertThat(generator.getImageVariant(image, 480, ContentType.IMAGE_PNG)).isEmpty();
+        assertThat(ImageUtil.resolveImageVariantPath(image, 480, ContentType.IMAGE_PNG)).doesNotExist();
+    }
+
+    @Test
+    void servesOriginalForUnsupportedFormats() throws IOException {
+        final var svg = new ImageDto(UUID.randomUUID(), ContentType.IMAGE_SVG);
+        assertThat(generator.getImageVariant(svg, 480, ContentType.IMAGE_PNG)).isEmpty();
+
+        final var png = createImage(ContentType.IMAGE_PNG, 1000, 500);
+        assertThat(generator.getImageVariant(png, 480, ContentType.IMAGE_WEBP)).isEmpty();
+    }
+
+    @Test
+    void servesOriginalWhenDimensionsExceedPixelLimit() throws IOException {
+        final var image = new ImageDto(UUID.randomUUID(), ContentType.IMAGE_PNG);
+        final var path = ImageUtil.resolveImagePath(image);
+        assertThat(path).isNotNull();
+        Files.createDirectories(path.getParent());
+        Files.write(path, createPngHeader(50_000, 50_000));
+
+        assertThat(generator.getImageVariant(image, 480, ContentType.IMAGE_JPEG)).isEmpty();
+        assertThat(ImageUtil.resolveImageVariantPath(image, 480, ContentType.IMAGE_JPEG)).doesNotExist();
+    }
+
+    @Test
+    void generatesVariantOfLargeImageWithSubsampling() throws IOException {
+        final var image = createImage(ContentType.IMAGE_PNG, 4000, 2000);
+
+        final var variant = generator.getImageVariant(image, 480, ContentType.IMAGE_JPEG);
+
+        assertThat(variant).isPresent();
+        final var resized = ImageIO.read(variant.orElseThrow().toFile());
+        assertThat(resized.getWidth()).isEqualTo(480);
+        assertThat(resized.getHeight()).isEqualTo(240);
+    }
+
+    /**
+     * <p>Creates a PNG file consisting of a header declaring the given dimensions and no image data, like a
+     * decompression bomb whose data would only be inflated while decoding.</p>
+     */
+    private static byte @NotNull [] createPngHeader(final int width, final int height) throws IOException {
+        final var header = new ByteArrayOutputStream();
+        final var headerData = new DataOutputStream(header);
+        headerData.writeInt(width);
+        headerData.writeInt(height);
+        headerData.writeByte(8); // bit depth
+        headerData.writeByte(2); // color type RGB
+        headerData.writeByte(0); // compression
+        headerData.writeByte(0); // filter
+        headerData.writeByte(0); // interlace
+
+        final var png = new ByteArrayOutputStream();
+        final var pngData = new DataOutputStream(png);
+        pngData.write(new byte[] {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'});
+        writeChunk(pngData, "IHDR", header.toByteArray());
+        writeChunk(pngData, "IEND", new byte[0]);
+        return png.toByteArray();
+    }
+
+    private static void writeChunk(final @NotNull DataOutputStream output,
+                                   final @NotNull String type,
+                                   final byte @NotNull [] data) throws IOException {
+        final var typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        final var crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        output.writeInt(data.length);
+        output.write(typeBytes);
+        output.write(data);
+        output.writeInt((int) crc.getValue());
+    }
+
+    @Test
+    void servesOriginalWhenOriginalIsMissing() {
+        final var image = new ImageDto(UUID.randomUUID(), ContentType.IMAGE_PNG);
+        assertThat(generator.getImageVariant(image, 480, ContentType.IMAGE_PNG)).isEmpty();
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.image.control;
+
+import app.komunumo.domain.core.image.entity.ContentType;
+import app.komunumo.domain.core.image.entity.ImageDto;
+import app.komunumo.domain.core.image.entity.ImageVariantDto;
+import app.komunumo.test.KaribuTest;
+import app.komunumo.util.ImageUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.UUID;
+
+import static app.komunumo.data.db.tables.ImageVariant.IMAGE_VARIANT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class ImageVariantServiceKT extends KaribuTest {
+
+    @Autowired
+    private @NotNull ImageService imageService;
+
+    @Autowired
+    private @NotNull ImageVariantService imageVariantService;
+
+    @Autowired
+    private @NotNull DSLContext dsl;
+
+    private @NotNull ImageDto createImage() throws IOException {
+        final var image = imageService.storeImage(new ImageDto(null, ContentType.IMAGE_JPEG));
+        final var path = ImageUtil.resolveImagePath(image);
+        assertThat(path).isNotNull();
+        Files.createDirectories(path.getParent());
+        ImageIO.write(new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_RGB), "jpeg", path.toFile());
+        return image;
+    }
+
+    @Test
+    void generatesVariantsInBackground() throws IOException {
+        final var image = createImage();
+        assertThat(imageVariantService.getImageVariants(image)).isEmpty();
+
+        imageService.generateImageVariants(image);
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(imageVariantService.getImageVariants(image)).containsExactly(
+                        new ImageVariantDto(image.id(), 160, ContentType.IMAGE_JPEG),
+                        new ImageVariantDto(image.id(), 480, ContentType.IMAGE_JPEG),
+                        new ImageVariantDto(image.id(), 960, ContentType.IMAGE_JPEG)));
+        ImageVariantService.PREGENERATED_WIDTHS.forEach(width -> assertThat(
+                ImageUtil.resolveImageVariantPath(image, width, ContentType.IMAGE_JPEG)).exists());
+
+        assertThat(imageService.deleteImage(image)).isTrue();
+        assertThat(imageVariantService.getImageVariants(image)).isEmpty();
+        ImageVariantService.PREGENERATED_WIDTHS.forEach(width -> assertThat(
+                ImageUtil.resolveImageVariantPath(image, width, ContentType.IMAGE_JPEG)).doesNotExist());
+    }
+
+    @Test
+    void recordsVariantsGeneratedOnDemand() throws IOException {
+        final var image = createImage();
+
+        final var variant = imageService.getImageVariant(image, 300, ContentType.IMAGE_PNG);
+        assertThat(variant).isPresent();
+        assertThat(imageVariantService.getImageVariants(image))
+                .containsExactly(new ImageVariantDto(image.id(), 320, ContentType.IMAGE_PNG));
+
+        // requesting the same variant again must not fail on the existing entry
+        assertThat(imageService.getImageVariant(image, 320, ContentType.IMAGE_PNG)).isEqualTo(variant);
+        assertThat(imageVariantService.getImageVariants(image)).hasSize(1);
+
+        assertThat(imageService.deleteImage(image)).isTrue();
+    }
+
+    @Test
+    void doesNotRecordExistingVariants() throws IOException {
+        final var image = createImage();
+        assertThat(imageService.getImageVariant(image, 480, ContentType.IMAGE_JPEG)).isPresent();
+        assertThat(imageVariantService.getImageVariants(image)).hasSize(1);
+
+        // an existing variant is only served, so a removed entry is not written again
+        dsl.deleteFrom(IMAGE_VARIANT).where(IMAGE_VARIANT.IMAGE_ID.eq(image.id())).execute();
+        assertThat(imageService.getImageVariant(image, 480, ContentType.IMAGE_JPEG)).isPresent();
+        assertThat(imageVariantService.getImageVariants(image)).isEmpty();
+
+        assertThat(imageService.deleteImage(image)).isTrue();
+    }
+
+    @Test
+    void servesVariantOfImageWithoutDatabaseEntry() throws IOException {
+        final var image = new ImageDto(UUID.randomUUID(), ContentType.IMAGE_JPEG);
+        final var path = ImageUtil.resolveImagePath(image);
+        assertThat(path).isNotNull();
+        Files.createDirectories(path.getParent());
+        ImageIO.write(new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_RGB), "jpeg", path.toFile());
+
+        try {
+            assertThat(imageVariantService.getImageVariant(image, 480, ContentType.IMAGE_JPEG)).isPresent();
+            assertThat(imageVariantService.getImageVariants(image)).isEmpty();
+        } finally {
+            ImageUtil.deleteImageVariants(image);
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void ignoresImagesWithoutVariants() {
+        final var image = imageService.storeImage(new ImageDto(null, ContentType.IMAGE_SVG));
+
+        assertThat(imageService.getImageVariant(image, 480, ContentType.IMAGE_SVG)).isEmpty();
+        assertThat(imageVariantService.getImageVariants(image)).isEmpty();
+
+        assertThat(imageService.deleteImage(image)).isTrue();
+    }
+
+}
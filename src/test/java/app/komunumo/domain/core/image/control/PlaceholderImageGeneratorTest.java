@@ -27,12 +27,17 @@ import app.komunumo.util.ResourceUtil;
 import nl.altindag.log.LogCaptor;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.MockedStatic;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
 
 import static java.lang.Boolean.TRUE;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -53,18 +58,22 @@ class PlaceholderImageGeneratorTest {
         final var basedir = Path.of(userHome, ".komunumo", "test");
 
         final var demoConfig = new DemoConfig(false, "");
-        final var filesConfig = new FilesConfig(basedir);
+        final var filesConfig = new FilesConfig(basedir, null);
         final var mailConfig = new MailConfig("noreply@foo.bar", "support@foo.bar");
         final var instanceConfig = new InstanceConfig("admin@foo.bar");
 
         return new AppConfig("0.0.0", demoConfig, filesConfig, instanceConfig, mailConfig);
     }
 
+    private static @NotNull String asString(final @NotNull PlaceholderImageGenerator.PlaceholderImage image) {
+        return new String(image.content(), StandardCharsets.UTF_8);
+    }
+
     @Test
     void generateHorizontalPlaceholderImage() {
         final var appConfig = getAppConfigMock();
         final var generator = new PlaceholderImageGenerator(appConfig);
-        final var image = generator.getPlaceholderImage(200, 100);
+        final var image = asString(generator.getPlaceholderImage(200, 100));
         assertThat(image)
                 .isNotNull()
                 .contains("width=\"200\"")
@@ -75,7 +84,7 @@ class PlaceholderImageGeneratorTest {
     void generateVerticalPlaceholderImage() {
         final var appConfig = getAppConfigMock();
         final var generator = new PlaceholderImageGenerator(appConfig);
-        final var image = generator.getPlaceholderImage(100, 200);
+        final var image = asString(generator.getPlaceholderImage(100, 200));
         assertThat(image)
                 .isNotNull()
                 .contains("width=\"100\"")
@@ -96,7 +105,7 @@ class PlaceholderImageGeneratorTest {
                     .thenReturn(TEST_SVG);
 
             final var generator = new PlaceholderImageGenerator(appConfig);
-            final var image = generator.getPlaceholderImage(200, 100);
+            final var image = asString(generator.getPlaceholderImage(200, 100));
 
             assertThat(logCaptor.getInfoLogs())
                     .contains("Custom logo found and successfully loaded.");
@@ -154,4 +163,43 @@ class PlaceholderImageGeneratorTest {
         }
     }
 
+    @Test
+    void compressedContentMatchesContent() throws IOException {
+        final var generator = new PlaceholderImageGenerator(getAppConfigMock());
+        final var image = generator.getPlaceholderImage(400, 225);
+
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(image.gzipContent()))) {
+            assertThat(gzip.readAllBytes()).isEqualTo(image.content());
+        }
+        assertThat(image.gzipContent().length).isLessThan(image.content().length);
+        assertThat(image.eTag()).matches("\"placeholder-400x225-[0-9a-f]{8}\"");
+        assertThat(image.gzipETag()).isEqualTo(image.eTag().replaceFirst("\"$", "-gzip\""));
+    }
+
+    @Test
+    void sameImageForDimensionsInSameBucket() {
+        final var generator = new PlaceholderImageGenerator(getAppConfigMock());
+        final var image = generator.getPlaceholderImage(401, 224);
+
+        assertThat(image).isSameAs(generator.getPlaceholderImage(400, 225));
+        assertThat(asString(image))
+                .contains("width=\"400\"")
+                .contains("height=\"225\"");
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "1, 25",
+            "12, 25",
+            "13, 25",
+            "37, 25",
+            "38, 50",
+            "225, 225",
+            "2000, 2000",
+            "99999, 2000"
+    })
+    void snapDimension(final int dimension, final int expected) {
+        assertThat(PlaceholderImageGenerator.snapDimension(dimension)).isEqualTo(expected);
+    }
+
 }
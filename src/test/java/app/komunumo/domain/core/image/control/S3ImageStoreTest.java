@@ -0,0 +1,176 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.image.control;
+
+import app.komunumo.domain.core.config.entity.AppConfig;
+import app.komunumo.domain.core.config.entity.DemoConfig;
+import app.komunumo.domain.core.config.entity.FilesConfig;
+import app.komunumo.domain.core.config.entity.InstanceConfig;
+import app.komunumo.domain.core.config.entity.MailConfig;
+import app.komunumo.domain.core.config.entity.S3Config;
+import app.komunumo.domain.core.image.entity.ContentType;
+import app.komunumo.domain.core.image.entity.ImageDto;
+import app.komunumo.util.ImageUtil;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * <p>Tests the {@link S3ImageStore} against a minimal in-memory stand-in for an S3-compatible object storage, which
+ * only accepts signed requests.</p>
+ */
+class S3ImageStoreTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private final Map<String, String> payloadHashes = new ConcurrentHashMap<>();
+    private HttpServer server;
+    private S3ImageStore imageStore;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        final var demoConfig = new DemoConfig(false, "");
+        final var filesConfig = new FilesConfig(tempDir, null);
+        final var mailConfig = new MailConfig("noreply@foo.bar", "support@foo.bar");
+        final var instanceConfig = new InstanceConfig("admin@foo.bar");
+        ImageUtil.initialize(new AppConfig("0.0.0", demoConfig, filesConfig, instanceConfig, mailConfig));
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+        final var config = new S3Config("http://localhost:" + server.getAddress().getPort() + "/",
+                "us-east-1", "komunumo", "access", "secret", Duration.ofMinutes(15));
+        imageStore = new S3ImageStore(config);
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        final var key = exchange.getRequestURI().getPath();
+        final var authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization == null || !authorization.startsWith("AWS4-HMAC-SHA256 Credential=access/")) {
+            exchange.sendResponseHeaders(403, -1);
+            return;
+        }
+        switch (exchange.getRequestMethod()) {
+            case "PUT" -> {
+                try (InputStream body = exchange.getRequestBody()) {
+                    objects.put(key, body.readAllBytes());
+                }
+                payloadHashes.put(key, exchange.getRequestHeaders().getFirst("x-amz-content-sha256"));
+                exchange.sendResponseHeaders(200, -1);
+            }
+            case "GET" -> {
+                final var content = objects.get(key);
+                if (content == null) {
+                    exchange.sendResponseHeaders(404, -1);
+                } else {
+                    exchange.sendResponseHeaders(200, content.length);
+                    exchange.getResponseBody().write(content);
+                }
+            }
+            case "DELETE" -> {
+                objects.remove(key);
+                exchange.sendResponseHeaders(204, -1);
+            }
+            default -> exchange.sendResponseHeaders(405, -1);
+        }
+        exchange.close();
+    }
+
+    @Test
+    void storesLoadsAndDeletesImage() throws IOException {
+        final var image = new ImageDto(UUID.randomUUID(), ContentType.IMAGE_SVG);
+        final var path = Files.writeString(tempDir.resolve("image.svg"), "<svg/>");
+
+        final var hash = ImageUtil.hashImage(path);
+
+        imageStore.storeImage(image, path, hash);
+        assertThat(objects).containsOnlyKeys("/komunumo/images/" + image.id() + ".svg");
+        assertThat(payloadHashes).containsEntry("/komunumo/images/" + image.id() + ".svg", hash);
+
+        try (var stream = imageStore.loadImage(image).orElseThrow()) {
+            assertThat(new String(stream.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("<svg/>");
+        }
+
+        imageStore.deleteImage(image);
+        assertThat(objects).isEmpty();
+        assertThat(imageStore.loadImage(image)).isEmpty();
+    }
+
+    @Test
+    void deletesLocalWorkingCopy() throws IOException {
+        final var image = new ImageDto(UUID.randomUUID(), ContentType.IMAGE_SVG);
+        final var localPath = ImageUtil.resolveImagePath(image);
+        assertThat(localPath).isNotNull();
+        Files.createDirectories(localPath.getParent());
+        Files.writeString(localPath, "<svg/>");
+
+        imageStore.deleteImage(image);
+        assertThat(localPath).doesNotExist();
+    }
+
+    @Test
+    void failsToStoreImage_whenRequestIsRejected() throws IOException {
+        final var config = new S3Config("http://localhost:" + server.getAddress().getPort(),
+                "us-east-1", "komunumo", "unknown", "secret", Duration.ofMinutes(15));
+        final var store = new S3ImageStore(config);
+        final var image = new ImageDto(UUID.randomUUID(), ContentType.IMAGE_PNG);
+        final var path = Files.write(tempDir.resolve("image.png"), new byte[10]);
+
+        final var hash = ImageUtil.hashImage(path);
+
+        assertThatThrownBy(() -> store.storeImage(image, path, hash))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("HTTP status 403");
+    }
+
+    @Test
+    void createsPresignedDownloadUri() {
+        final var image = new ImageDto(UUID.randomUUID(), ContentType.IMAGE_PNG);
+
+        final var uri = imageStore.getDownloadUri(image).orElseThrow();
+        assertThat(uri.getPath()).isEqualTo("/komunumo/images/" + image.id() + ".png");
+        assertThat(uri.getQuery())
+                .contains("X-Amz-Expires=900")
+                .contains("X-Amz-Signature=");
+    }
+
+}
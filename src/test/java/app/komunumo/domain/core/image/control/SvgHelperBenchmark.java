@@ -0,0 +1,123 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.image.control;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.xml.sax.InputSource;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathFactory;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static app.komunumo.util.ResourceUtil.getResourceAsString;
+
+/**
+ * <p>Compares the streaming {@link SvgHelper} with the DOM based implementation it replaced. This is not a test; run
+ * the {@link #main(String[])} method manually, optionally with the path to a large SVG logo as argument.</p>
+ */
+final class SvgHelperBenchmark {
+
+    private static final @NotNull Logger LOGGER = LoggerFactory.getLogger(SvgHelperBenchmark.class);
+
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int MEASURED_ITERATIONS = 1_000;
+
+    private SvgHelperBenchmark() {
+        throw new IllegalStateException("Benchmark class");
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final var logo = args.length > 0
+                ? Files.readString(Path.of(args[0]))
+                : getResourceAsString("/META-INF/resources/images/komunumo.svg", "");
+        final var template = getResourceAsString("/META-INF/resources/images/placeholder.svg", "");
+
+        run("DOM", () -> domImplementation(logo, template));
+        run("StAX", () -> {
+            final var helper = new SvgHelper(logo);
+            return helper.applyTemplate(helper.parseTemplate(template));
+        });
+    }
+
+    private static void run(final @NotNull String name, final @NotNull Supplier<String> task) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            task.get();
+        }
+        final var start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            task.get();
+        }
+        final var micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / MEASURED_ITERATIONS;
+        LOGGER.info("{}: {} µs per logo and template", name, micros);
+    }
+
+    // The former implementation: DOM parsing, XPath lookup, and a Transformer per serialization
+    private static @NotNull String domImplementation(final @NotNull String logo, final @NotNull String template) {
+        try {
+            final var logoDocument = parse(logo, true);
+            final var logoContent = new StringBuilder();
+            final var children = logoDocument.getDocumentElement().getChildNodes();
+            final var childTransformer = TransformerFactory.newInstance().newTransformer();
+            childTransformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+            for (int i = 0; i < children.getLength(); i++) {
+                final var writer = new StringWriter();
+                childTransformer.transform(new DOMSource(children.item(i)), new StreamResult(writer));
+                logoContent.append(writer);
+            }
+
+            final var templateDocument = parse(template, false);
+            final var container = (Element) XPathFactory.newInstance().newXPath()
+                    .evaluate("//g[@id='Logo']", templateDocument, XPathConstants.NODE);
+            while (container.hasChildNodes()) {
+                container.removeChild(container.getFirstChild());
+            }
+            container.appendChild(templateDocument.createTextNode("___USVG__"));
+            final var writer = new StringWriter();
+            TransformerFactory.newInstance().newTransformer()
+                    .transform(new DOMSource(templateDocument), new StreamResult(writer));
+            return writer.toString().replace("___USVG__", logoContent);
+        } catch (final Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static @NotNull Document parse(final @NotNull String svg, final boolean namespaceAware) throws Exception {
+        final var factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(namespaceAware);
+        factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+        factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        return factory.newDocumentBuilder().parse(new InputSource(Reader.of(svg)));
+    }
+
+}
@@ -25,15 +25,17 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.w3c.dom.Document;
-import org.w3c.dom.Element;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
+import javax.xml.namespace.QName;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.events.StartElement;
 import javax.xml.xpath.XPathFactory;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -131,8 +133,7 @@ class SvgHelperTest {
     void testParseSvgDimensionWithMissingUnits() throws Exception {
         // Test for dimensions without units, i.e., in the viewBox
         final var svgContent = "<svg width=\"500\" height=\"500\" viewBox=\"0 0 500 500\"></svg>";
-        final var doc = SvgHelper.parseSvg(new ByteArrayInputStream(svgContent.getBytes()), true);
-        final var element = doc.getDocumentElement();
+        final var element = SvgHelper.parseRootElement(svgContent);
 
         // Assuming width/height from viewBox is 500px
         final var width = applier.deriveSvgDimension(element, "width");
@@ -146,8 +147,7 @@ class SvgHelperTest {
     void testInvalidDimensionUnit() throws Exception{
         // Test for invalid dimension unit in the SVG
         final var invalidSvgContent = "<svg width=\"500xyz\" height=\"400px\"></svg>";
-        final var doc = SvgHelper.parseSvg(new ByteArrayInputStream(invalidSvgContent.getBytes()), true);
-        final var element = doc.getDocumentElement();
+        final var element = SvgHelper.parseRootElement(invalidSvgContent);
 
         assertThatThrownBy(() -> applier.deriveSvgDimension(element, "width"))
             .isInstanceOf(IllegalArgumentException.class);
@@ -165,8 +165,8 @@ class SvgHelperTest {
         "<svg viewBox=\"0 0 500 500\"></svg>, 500"
     })
     void testSvgDimensionDerivationOnWidth(final @NotNull String svgContent, int widthPxApprox) throws Exception {
-        final var doc = SvgHelper.parseSvg(new ByteArrayInputStream(svgContent.getBytes()), true);
-        final var width = applier.deriveSvgDimension(doc.getDocumentElement(), "width");
+        final var element = SvgHelper.parseRootElement(svgContent);
+        final var width = applier.deriveSvgDimension(element, "width");
         assertThat((int)width).isEqualTo(widthPxApprox);
     }
 
@@ -179,8 +179,8 @@ class SvgHelperTest {
                                                       final @NotNull String dim,
                                                       final int widthPxApprox)
             throws Exception{
-        final var doc = SvgHelper.parseSvg(new ByteArrayInputStream(svgContent.getBytes()), true);
-        final var width = applier.deriveSvgDimension(doc.getDocumentElement(), dim);
+        final var element = SvgHelper.parseRootElement(svgContent);
+        final var width = applier.deriveSvgDimension(element, dim);
         assertThat((int)width).isEqualTo(widthPxApprox);
     }
 
@@ -190,8 +190,7 @@ class SvgHelperTest {
         "<svg width=\"50%\" viewBox=\"0 500 500\"></svg>"
     })
     void testSvgDimensionDerivationWithInvalidViewBox(final @NotNull String svgContent) throws Exception{
-        final var doc = SvgHelper.parseSvg(new ByteArrayInputStream(svgContent.getBytes()), true);
-        final var element = doc.getDocumentElement();
+        final var element = SvgHelper.parseRootElement(svgContent);
 
         assertThatThrownBy(() -> applier.deriveSvgDimension(element, "width"))
             .isInstanceOf(IllegalArgumentException.class);
@@ -199,9 +198,9 @@ class SvgHelperTest {
 
     @Test
     void testIllegalArgumentForNullViewBox() {
-        final var element = mock(Element.class);
-        when(element.getAttribute("xyz")).thenReturn(null);
-        when(element.getAttribute("viewBox")).thenReturn(null);
+        final var element = mock(StartElement.class);
+        when(element.getAttributeByName(new QName("xyz"))).thenReturn(null);
+        when(element.getAttributeByName(new QName("viewBox"))).thenReturn(null);
 
         assertThatThrownBy(() -> applier.deriveSvgDimension(element, "xyz"))
             .isInstanceOf(IllegalArgumentException.class);
@@ -210,8 +209,7 @@ class SvgHelperTest {
     @Test
     void testUnsupportedConversionUnit() throws Exception {
         final var svgContent = "<svg width=\"10xy\"></svg>";
-        final var doc = SvgHelper.parseSvg(new ByteArrayInputStream(svgContent.getBytes()), true);
-        final var element = doc.getDocumentElement();
+        final var element = SvgHelper.parseRootElement(svgContent);
 
         assertThatThrownBy(() -> applier.deriveSvgDimension(element, "width"))
             .isInstanceOf(IllegalArgumentException.class);
@@ -220,36 +218,74 @@ class SvgHelperTest {
     @Test
     void testInvalidDimension() throws Exception {
         final var svgContent = "<svg width=\"x\"></svg>";
-        final var doc = SvgHelper.parseSvg(new ByteArrayInputStream(svgContent.getBytes()), true);
-        final var element = doc.getDocumentElement();
+        final var element = SvgHelper.parseRootElement(svgContent);
 
         assertThatThrownBy(() -> applier.deriveSvgDimension(element, "width"))
             .isInstanceOf(IllegalArgumentException.class);
     }
 
     @Test
-    void noOpEntityResolver_returnsEmptyInputSource() throws Exception {
-        final var resolver = SvgHelper.noOpEntityResolver();
+    void noOpXmlResolver_returnsEmptyInputStream() throws Exception {
+        final var resolver = SvgHelper.noOpXmlResolver();
 
-        final var src = resolver.resolveEntity(
+        final var resolved = resolver.resolveEntity(
                 "-//W3C//DTD SVG 1.1//EN",
-                "http://www.w3.org/Graphics/SVG/1.1/DTD/svg11.dtd");
+                "http://www.w3.org/Graphics/SVG/1.1/DTD/svg11.dtd",
+                null, null);
+
+        assertThat(resolved).isInstanceOf(InputStream.class);
+        assertThat(((InputStream) resolved).read()).isEqualTo(-1);
+    }
+
+    @Test
+    void newHardenedInputFactory_disablesDtdAndExternalEntities() {
+        final var factory = SvgHelper.newHardenedInputFactory();
 
-        assertThat(src).isNotNull();
-        assertThat(src.getCharacterStream()).isNotNull();
-        // reading forces the use of the StringReader
-        assertThat(src.getCharacterStream().read()).isEqualTo(-1);
+        assertThat(factory.getProperty(XMLInputFactory.SUPPORT_DTD)).isEqualTo(false);
+        assertThat(factory.getProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES)).isEqualTo(false);
+        assertThat(factory.getXMLResolver()).isNotNull();
     }
 
     @Test
-    void parseSvg_acceptsDoctype_withoutFetchingExternalDtd() throws Exception {
+    void parseRootElement_acceptsDoctype_withoutFetchingExternalDtd() throws Exception {
         final var svg = """
             <!DOCTYPE svg PUBLIC "-//W3C//DTD SVG 1.1//EN"
                                  "http://www.w3.org/Graphics/SVG/1.1/DTD/svg11.dtd">
             <svg xmlns="http://www.w3.org/2000/svg"></svg>
             """;
-        final var doc = SvgHelper.parseSvg(svg, true);
-        assertThat(doc.getDocumentElement().getNodeName()).isEqualTo("svg");
+        final var element = SvgHelper.parseRootElement(svg);
+        assertThat(element.getName().getLocalPart()).isEqualTo("svg");
+    }
+
+    @Test
+    void externalEntitiesAreNotExpanded() {
+        final var svg = """
+            <?xml version="1.0"?>
+            <!DOCTYPE svg [<!ENTITY xxe SYSTEM "file:///etc/passwd">]>
+            <svg width="10" height="10" xmlns="http://www.w3.org/2000/svg"><text>&xxe;</text></svg>
+            """;
+        assertThatThrownBy(() -> new SvgHelper(svg))
+                .isInstanceOf(KomunumoException.class)
+                .hasMessageStartingWith("Failed to initialize template parser:");
+    }
+
+    @Test
+    void logoKeepsNamespacesOfStrippedSvgElement() throws Exception {
+        final var logo = """
+            <svg width="10" height="10" xmlns="http://www.w3.org/2000/svg" xmlns:xlink="http://www.w3.org/1999/xlink">
+              <use xlink:href="#shape"/>
+            </svg>""";
+        final var helper = new SvgHelper(logo);
+
+        final var finalSvg = helper.applyTemplate(helper.parseTemplate(
+                "<svg xmlns=\"http://www.w3.org/2000/svg\"><g id=\"Logo\"><!-- logo --></g></svg>"));
+
+        assertThat(finalSvg)
+                .doesNotContain("<!-- logo -->")
+                .contains("xmlns:xlink=\"http://www.w3.org/1999/xlink\"")
+                .contains("xlink:href=\"#shape\"");
+        final var xpath = XPathFactory.newInstance().newXPath();
+        assertThat(xpath.evaluate("/svg/g/use/@*[name()='xlink:href']", asDoc(finalSvg))).isEqualTo("#shape");
     }
 
 }
@@ -0,0 +1,114 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.importer.control;
+
+import app.komunumo.domain.core.importer.entity.ImportJobDto;
+import app.komunumo.test.KaribuTest;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static app.komunumo.data.db.tables.ImportJob.IMPORT_JOB;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ImportJobServiceKT extends KaribuTest {
+
+    private static final String JOB_ID = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+
+    @Autowired
+    private DSLContext dsl;
+
+    @Autowired
+    private ImportJobService importJobService;
+
+    @BeforeEach
+    void deleteImportJobs() {
+        dsl.deleteFrom(IMPORT_JOB).execute();
+    }
+
+    @Test
+    void startImportJob_newJob_hasNoProgress() {
+        assertThat(importJobService.startImportJob(JOB_ID, "data.json")).isFalse();
+        assertThat(importJobService.getPosition(JOB_ID, "users")).isZero();
+        assertThat(importJobService.isSectionFinished(JOB_ID, "users")).isFalse();
+    }
+
+    @Test
+    void startImportJob_unfinishedJob_resumesProgress() {
+        importJobService.startImportJob(JOB_ID, "data.json");
+        importJobService.saveCheckpoint(JOB_ID, "settings", 12, true);
+        importJobService.saveCheckpoint(JOB_ID, "users", 1_000, false);
+        importJobService.saveCheckpoint(JOB_ID, "users", 2_000, false);
+
+        assertThat(importJobService.startImportJob(JOB_ID, "data.json")).isTrue();
+        assertThat(importJobService.isSectionFinished(JOB_ID, "settings")).isTrue();
+        assertThat(importJobService.isSectionFinished(JOB_ID, "users")).isFalse();
+        assertThat(importJobService.getPosition(JOB_ID, "users")).isEqualTo(2_000);
+    }
+
+    @Test
+    void finishImportJob_startsFromScratchAgain() {
+        importJobService.startImportJob(JOB_ID, "data.json");
+        importJobService.saveCheckpoint(JOB_ID, "users", 1_000, true);
+        importJobService.finishImportJob(JOB_ID);
+
+        assertThat(importJobService.startImportJob(JOB_ID, "data.json")).isFalse();
+        assertThat(importJobService.getPosition(JOB_ID, "users")).isZero();
+        assertThat(importJobService.isSectionFinished(JOB_ID, "users")).isFalse();
+    }
+
+    @Test
+    void getUnfinishedImportJobs_listsJobsUntilFinished() {
+        final var otherJobId = "f".repeat(64);
+        importJobService.startImportJob(JOB_ID, "data.json");
+        importJobService.startImportJob(otherJobId, "https://example.com/data.json");
+        dsl.update(IMPORT_JOB)
+                .set(IMPORT_JOB.UPDATED, ZonedDateTime.now(ZoneOffset.UTC).minusHours(1))
+                .where(IMPORT_JOB.ID.eq(JOB_ID))
+                .execute();
+
+        assertThat(importJobService.getUnfinishedImportJobs())
+                .extracting(ImportJobDto::id, ImportJobDto::source)
+                .containsExactly(
+                        tuple(otherJobId, "https://example.com/data.json"),
+                        tuple(JOB_ID, "data.json"));
+
+        importJobService.finishImportJob(otherJobId);
+        assertThat(importJobService.getUnfinishedImportJobs())
+                .extracting(ImportJobDto::id)
+                .containsExactly(JOB_ID);
+    }
+
+    @Test
+    void cleanupImportJobs_removesStaleJobs() {
+        importJobService.startImportJob(JOB_ID, "data.json");
+        dsl.update(IMPORT_JOB)
+                .set(IMPORT_JOB.UPDATED, ZonedDateTime.now(ZoneOffset.UTC)
+                        .minus(ImportJobService.IMPORT_JOB_RETENTION).minusHours(1))
+                .execute();
+
+        importJobService.cleanupImportJobs();
+
+        assertThat(importJobService.startImportJob(JOB_ID, "data.json")).isFalse();
+    }
+}
@@ -31,18 +31,24 @@ import app.komunumo.util.ImageUtil;
 import nl.altindag.log.LogCaptor;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 class JSONImporterTest {
 
@@ -175,6 +181,20 @@ class JSONImporterTest {
         }
     }
 
+    @Test
+    void testImporterWithRealJsonFile() {
+        final var jsonFile = Path.of("src/test/resources/import/data.json").toFile();
+        try (var logCaptor = LogCaptor.forClass(ImporterLog.class);
+             var importer = new JSONImporter(new ImporterLog(null), jsonFile)) {
+            importer.importGlobalPages(mock(GlobalPageService.class));
+            assertThat(logCaptor.getInfoLogs()).containsExactly(
+                    IDENTIFIED_COUNTS_MESSAGE,
+                    "Start importing global pages...",
+                    "...finished importing 2 global pages.");
+            assertThat(jsonFile).exists();
+        }
+    }
+
     @Test
     void testImportSettings() {
         final var configurationService = mock(ConfigurationService.class);
@@ -211,10 +231,11 @@ class JSONImporterTest {
             mockedImageUtil.verify(() -> ImageUtil.storeImage(any(), any()), times(2));
             verify(imageService, times(2)).storeImage(any());
 
-            assertThat(logCaptor.getInfoLogs()).containsExactly(
-                    IDENTIFIED_COUNTS_MESSAGE,
-                    "Start importing images...",
-                    "...finished importing 2 images.");
+            assertThat(logCaptor.getInfoLogs())
+                    .hasSize(3)
+                    .startsWith(IDENTIFIED_COUNTS_MESSAGE, "Start importing images...")
+                    .last().asString()
+                    .matches("\\.\\.\\.finished importing 2 images \\(0 of them already stored\\) in \\d+ ms \\(\\d+ per second\\)\\.");
             assertThat(logCaptor.getWarnLogs()).containsExactly(
                     "Skipping image '{\"imageId\":\"d7bd2d09-3310-4e37-ad0a-c7c4c43389ad\",\"contentType\":\"image/svg+xml\",\"url\":\"http://localhost:8082/import/non-existing.svg\"}': Failed to download file from 'http://localhost:8082/import/non-existing.svg': HTTP status code 404",
                     "Skipping image '{\"imageId\":\"c81bca0e-6a1f-422c-b03f-aee75bee6779\",\"contentType\":\"image/png\",\"url\":\"data:broken\"}': Invalid data URL: data:broken");
@@ -222,6 +243,46 @@ class JSONImporterTest {
         }
     }
 
+    @Test
+    void testImportImagesCountsStoredImages() {
+        final var imageService = mock(ImageService.class);
+        when(imageService.isImageContentStored(any())).thenReturn(true);
+        final var jsonUrl = "http://localhost:8082/import/data.json";
+        try (var logCaptor = LogCaptor.forClass(ImporterLog.class);
+             var mockedImageUtil = mockStatic(ImageUtil.class)) {
+
+            final var importer = new JSONImporter(new ImporterLog(null), jsonUrl);
+            importer.setSkipStoredImages(true);
+            importer.importImages(imageService);
+
+            mockedImageUtil.verify(() -> ImageUtil.storeImage(any(), any()), never());
+            verify(imageService, never()).storeImage(any());
+            assertThat(logCaptor.getInfoLogs()).last().asString()
+                    .matches("\\.\\.\\.finished importing 4 images \\(4 of them already stored\\) in \\d+ ms \\(\\d+ per second\\)\\.");
+            assertThat(logCaptor.getWarnLogs()).isEmpty();
+        }
+    }
+
+    @Test
+    void testImportImagesDeletesDownloadedFilesIfStoringFails() {
+        final var imageService = mock(ImageService.class);
+        final var jsonUrl = "http://localhost:8082/import/data.json";
+        final var downloadedFiles = new ArrayList<Path>();
+        try (var logCaptor = LogCaptor.forClass(ImporterLog.class);
+             var mockedImageUtil = mockStatic(ImageUtil.class)) {
+            mockedImageUtil.when(() -> ImageUtil.storeImage(any(), any())).thenAnswer(invocation -> {
+                downloadedFiles.add(invocation.getArgument(1));
+                throw new IOException("Disk full");
+            });
+
+            final var importer = new JSONImporter(new ImporterLog(null), jsonUrl);
+            importer.importImages(imageService);
+
+            assertThat(downloadedFiles).hasSize(2).allSatisfy(path -> assertThat(path).doesNotExist());
+            assertThat(logCaptor.getWarnLogs()).hasSize(4);
+        }
+    }
+
     @Test
     void testImportUsers() {
         final var userService = mock(UserService.class);
@@ -243,6 +304,101 @@ class JSONImporterTest {
         }
     }
 
+    @Test
+    void testImportUsersInBulkMode() {
+        final var userService = mock(UserService.class);
+        final var jsonUrl = "http://localhost:8082/import/data.json";
+        try (var logCaptor = LogCaptor.forClass(ImporterLog.class)) {
+            final var importer = new JSONImporter(new ImporterLog(null), jsonUrl);
+            importer.setBulkMode(true);
+            importer.setChunkSize(4);
+            importer.importUsers(userService);
+            verify(userService).storeUsers(argThat(users -> users.size() == 4));
+            verify(userService).storeUsers(argThat(users -> users.size() == 2));
+            verify(userService, never()).storeUser(any());
+            assertThat(logCaptor.getInfoLogs())
+                    .hasSize(3)
+                    .startsWith(IDENTIFIED_COUNTS_MESSAGE, "Start importing users...")
+                    .last().asString().matches("\\.\\.\\.finished importing 6 users in \\d+ ms \\(\\d+ per second\\)\\.");
+            assertThat(logCaptor.getWarnLogs()).isEmpty();
+            assertThat(logCaptor.getErrorLogs()).isEmpty();
+        }
+    }
+
+    @Test
+    void testImportUsersInBulkModeWithFailingChunk() {
+        final var userService = mock(UserService.class);
+        doThrow(new RuntimeException("Simulated bulk failure"))
+                .when(userService)
+                .storeUsers(any());
+        doThrow(new RuntimeException("Simulated failure"))
+                .when(userService)
+                .storeUser(argThat(user -> UUID_ZERO.equals(user.id())));
+        final var jsonUrl = "http://localhost:8082/import/data.json";
+        try (var logCaptor = LogCaptor.forClass(ImporterLog.class)) {
+            final var importer = new JSONImporter(new ImporterLog(null), jsonUrl);
+            importer.setBulkMode(true);
+            importer.importUsers(userService);
+            verify(userService).storeUsers(any());
+            verify(userService, times(6)).storeUser(any());
+            assertThat(logCaptor.getInfoLogs()).last().asString().startsWith("...finished importing 5 users in ");
+            assertThat(logCaptor.getWarnLogs()).containsExactly(
+                    "Storing a chunk of 6 users failed, storing them one by one: Simulated bulk failure",
+                    "Skipping user '{\"userId\":\"00000000-0000-0000-0000-000000000000\",\"profile\":\"@duplicate@example.com\",\"email\":\"anonymous@example.com\",\"name\":\"Doris Duplicate\",\"bio\":\"User with duplicate email for integration tests\",\"imageId\":\"\",\"role\":\"USER\",\"type\":\"ANONYMOUS\"}': Simulated failure");
+            assertThat(logCaptor.getErrorLogs()).isEmpty();
+        }
+    }
+
+    @Test
+    void testResumeImportJob() {
+        final var userService = mock(UserService.class);
+        final var importJobService = mock(ImportJobService.class);
+        when(importJobService.startImportJob(anyString(), anyString())).thenReturn(true);
+        when(importJobService.getPosition(anyString(), eq("users"))).thenReturn(4);
+        final var jsonUrl = "http://localhost:8082/import/data.json";
+        try (var logCaptor = LogCaptor.forClass(ImporterLog.class)) {
+            final var importer = new JSONImporter(new ImporterLog(null), jsonUrl);
+            importer.setBulkMode(true);
+            importer.setChunkSize(4);
+            importer.startImportJob(importJobService, jsonUrl);
+            importer.importUsers(userService);
+            importer.finishImportJob();
+            verify(userService).storeUsers(argThat(users -> users.size() == 2));
+            verify(importJobService).saveCheckpoint(anyString(), eq("users"), eq(6), eq(true));
+            verify(importJobService).finishImportJob(anyString());
+            assertThat(logCaptor.getInfoLogs())
+                    .contains("Resuming the unfinished import of this data.", "Resuming import of users after 4 items.")
+                    .last().asString().startsWith("...finished importing 2 users in ");
+            assertThat(logCaptor.getWarnLogs()).isEmpty();
+            assertThat(logCaptor.getErrorLogs()).isEmpty();
+        }
+    }
+
+    @Test
+    void testResumeImportJobSkipsFinishedSections() {
+        final var userService = mock(UserService.class);
+        final var importJobService = mock(ImportJobService.class);
+        when(importJobService.isSectionFinished(anyString(), eq("users"))).thenReturn(true);
+        final var jsonUrl = "http://localhost:8082/import/data.json";
+        try (var logCaptor = LogCaptor.forClass(ImporterLog.class)) {
+            final var importer = new JSONImporter(new ImporterLog(null), jsonUrl);
+            importer.setBulkMode(true);
+            importer.startImportJob(importJobService, jsonUrl);
+            importer.importUsers(userService);
+            verify(userService, never()).storeUsers(any());
+            verify(userService, never()).storeUser(any());
+            assertThat(logCaptor.getInfoLogs()).last().isEqualTo("Skipping users, they were already imported.");
+        }
+    }
+
+    @Test
+    void testInvalidChunkSize() {
+        final var importer = new JSONImporter(new ImporterLog(null), "http://localhost:8082/import/no-data.json");
+        assertThatThrownBy(() -> importer.setChunkSize(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The chunk size must be positive, but was 0");
+    }
+
     @Test
     void testImportCommunities() {
         final var communityService = mock(CommunityService.class);
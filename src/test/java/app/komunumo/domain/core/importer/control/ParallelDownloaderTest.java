@@ -0,0 +1,82 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.importer.control;
+
+import app.komunumo.KomunumoException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParallelDownloaderTest {
+
+    @Test
+    void downloadsConcurrently() {
+        try (var downloader = new ParallelDownloader(4, 2, 1, Duration.ZERO)) {
+            final var downloads = IntStream.range(0, 10)
+                    .mapToObj(_ -> downloader.download("http://localhost:8082/custom-styles/styles.css"))
+                    .toList();
+            CompletableFuture.allOf(downloads.toArray(CompletableFuture[]::new)).join();
+            assertThat(downloads).allSatisfy(download ->
+                    assertThat(download.join()).exists().satisfies(path ->
+                            assertThat(Files.readString(path)).contains("body::after {")));
+        }
+    }
+
+    @Test
+    void downloadsDataUrl() {
+        try (var downloader = new ParallelDownloader(4, 2, 1, Duration.ZERO)) {
+            final var path = downloader.download("data:text/plain,Hello%20World").join();
+            assertThat(path).hasContent("Hello World");
+        }
+    }
+
+    @Test
+    void deletesFilesNotDeletedByCallerOnClose() {
+        final Path deletedPath;
+        final Path remainingPath;
+        try (var downloader = new ParallelDownloader(4, 2, 1, Duration.ZERO)) {
+            deletedPath = downloader.download("data:text/plain,Deleted").join();
+            remainingPath = downloader.download("data:text/plain,Remaining").join();
+
+            downloader.deleteFile(deletedPath);
+            assertThat(deletedPath).doesNotExist();
+            assertThat(remainingPath).exists();
+        }
+        assertThat(remainingPath).doesNotExist();
+    }
+
+    @Test
+    void failsForMissingFile() {
+        try (var downloader = new ParallelDownloader(4, 2, 3, Duration.ofMillis(10))) {
+            final var download = downloader.download("http://localhost:8082/import/non-existing.svg");
+            assertThatThrownBy(download::join)
+                    .isInstanceOf(CompletionException.class)
+                    .hasCauseInstanceOf(KomunumoException.class)
+                    .hasMessageContaining("HTTP status code 404");
+        }
+    }
+
+}
@@ -21,6 +21,7 @@ import app.komunumo.domain.community.entity.CommunityDto;
 import app.komunumo.domain.core.config.control.ConfigurationService;
 import app.komunumo.domain.core.image.entity.ContentType;
 import app.komunumo.domain.core.demo.control.DemoMode;
+import app.komunumo.domain.core.importer.control.ImporterLog;
 import app.komunumo.domain.core.mail.control.MailService;
 import app.komunumo.domain.event.entity.EventDto;
 import app.komunumo.domain.event.entity.EventStatus;
@@ -39,6 +40,7 @@ import app.komunumo.domain.page.control.GlobalPageService;
 import app.komunumo.domain.core.image.control.ImageService;
 import app.komunumo.domain.user.control.UserService;
 import app.komunumo.test.KaribuTest;
+import nl.altindag.log.LogCaptor;
 import org.jetbrains.annotations.NotNull;
 import org.jooq.DSLContext;
 import org.junit.jupiter.api.Test;
@@ -155,4 +157,16 @@ class DemoModeKT extends KaribuTest {
         assertThat(mailService.getMailTemplateCount()).isEqualTo(14);
     }
 
+    @Test
+    void resetDemoData_keepsDemoImages() {
+        demoMode.resetDemoData();
+        try (var logCaptor = LogCaptor.forClass(ImporterLog.class)) {
+            demoMode.resetDemoData();
+            assertThat(logCaptor.getInfoLogs())
+                    .anyMatch(message -> message.startsWith("...finished importing 2 images (2 of them already stored) in "));
+        }
+        assertThat(imageService.getImageCount()).isEqualTo(2);
+        assertThat(userService.getUserCount()).isEqualTo(4);
+    }
+
 }
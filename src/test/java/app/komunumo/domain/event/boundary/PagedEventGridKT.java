@@ -0,0 +1,118 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.event.boundary;
+
+import app.komunumo.domain.event.entity.EventCursorDto;
+import app.komunumo.domain.event.entity.EventDto;
+import app.komunumo.domain.event.entity.EventPageDto;
+import app.komunumo.domain.event.entity.EventStatus;
+import app.komunumo.domain.event.entity.EventVisibility;
+import app.komunumo.domain.event.entity.EventWithImageDto;
+import app.komunumo.test.KaribuTest;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.github.mvysny.kaributesting.v10.LocatorJ._click;
+import static com.github.mvysny.kaributesting.v10.LocatorJ._find;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PagedEventGridKT extends KaribuTest {
+
+    @Test
+    void showsMoreEventsPageByPage() {
+        final var firstEvent = createEvent("First Event");
+        final var secondEvent = createEvent("Second Event");
+        final var thirdEvent = createEvent("Third Event");
+        final var firstCursor = new EventCursorDto(firstEvent.event().begin(), firstEvent.event().id());
+        final var secondCursor = new EventCursorDto(secondEvent.event().begin(), secondEvent.event().id());
+        final var requestedCursors = new ArrayList<@Nullable EventCursorDto>();
+
+        final var pagedEventGrid = show(new PagedEventGrid(cursor -> {
+            requestedCursors.add(cursor);
+            if (cursor == null) {
+                return new EventPageDto(List.of(firstEvent), firstCursor);
+            } else if (cursor.equals(firstCursor)) {
+                return new EventPageDto(List.of(secondEvent), secondCursor);
+            }
+            return new EventPageDto(List.of(thirdEvent), null);
+        }));
+        assertThat(pagedEventGrid.isEmpty()).isFalse();
+        assertThat(_find(pagedEventGrid, EventCard.class)).hasSize(1);
+
+        final var showMoreButton = getShowMoreButton(pagedEventGrid);
+        assertThat(showMoreButton.isVisible()).isTrue();
+        _click(showMoreButton);
+        assertThat(_find(pagedEventGrid, EventCard.class)).hasSize(2);
+        assertThat(showMoreButton.isVisible()).isTrue();
+
+        _click(showMoreButton);
+        assertThat(_find(pagedEventGrid, EventCard.class)).hasSize(3);
+        assertThat(showMoreButton.isVisible()).isFalse();
+        assertThat(requestedCursors).containsExactly(null, firstCursor, secondCursor);
+    }
+
+    @Test
+    void singlePageHidesShowMoreButton() {
+        final var pagedEventGrid = show(new PagedEventGrid(_ ->
+                new EventPageDto(List.of(createEvent("First Event"), createEvent("Second Event")), null)));
+        assertThat(pagedEventGrid.isEmpty()).isFalse();
+        assertThat(_find(pagedEventGrid, EventCard.class)).hasSize(2);
+        assertThat(getShowMoreButton(pagedEventGrid).isVisible()).isFalse();
+    }
+
+    @Test
+    void emptyPage() {
+        final var pagedEventGrid = show(new PagedEventGrid(_ -> new EventPageDto(List.of(), null)));
+        assertThat(pagedEventGrid.isEmpty()).isTrue();
+        assertThat(_find(pagedEventGrid, EventCard.class)).isEmpty();
+        assertThat(getShowMoreButton(pagedEventGrid).isVisible()).isFalse();
+    }
+
+    private static @NotNull PagedEventGrid show(final @NotNull PagedEventGrid pagedEventGrid) {
+        UI.getCurrent().add(pagedEventGrid);
+        return pagedEventGrid;
+    }
+
+    private static @NotNull Button getShowMoreButton(final @NotNull PagedEventGrid pagedEventGrid) {
+        // looked up directly, because a hidden button can't be found with the locators
+        return pagedEventGrid.getChildren()
+                .filter(Button.class::isInstance)
+                .map(Button.class::cast)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static @NotNull EventWithImageDto createEvent(final @NotNull String title) {
+        final var begin = ZonedDateTime.now(ZoneOffset.UTC).plusDays(1);
+        final var event = new EventDto(UUID.randomUUID(), UUID.randomUUID(), null, null,
+                title, "description", "location",
+                begin, begin.plusHours(2), null,
+                EventVisibility.PUBLIC, EventStatus.PUBLISHED);
+        return new EventWithImageDto(event, null);
+    }
+
+}
@@ -17,6 +17,7 @@
  */
 package app.komunumo.domain.event.control;
 
+import app.komunumo.domain.event.entity.EventCursorDto;
 import app.komunumo.domain.event.entity.EventDto;
 import app.komunumo.domain.event.entity.EventStatus;
 import app.komunumo.domain.event.entity.EventVisibility;
@@ -29,8 +30,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class EventServiceKT extends KaribuTest {
 
@@ -123,6 +127,34 @@ class EventServiceKT extends KaribuTest {
         assertThat(eventService.deleteEvent(event)).isFalse();
     }
 
+    @Test
+    void storeEventWithGivenIdPreservesCreated() {
+        final var communityId = communityService.getCommunities().getFirst().id();
+        final var eventId = UUID.randomUUID();
+        final var created = ZonedDateTime.of(2025, 1, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+        // an unknown ID is inserted
+        var event = eventService.storeEvent(new EventDto(eventId, communityId, created, null,
+                "Imported Event", "", "", null, null,
+                null, EventVisibility.PUBLIC, EventStatus.DRAFT));
+        assertThat(event.id()).isEqualTo(eventId);
+        assertThat(event.created()).isEqualTo(created);
+        assertThat(eventService.getEvent(eventId)).isPresent();
+
+        // a known ID is updated, without touching the creation date
+        event = eventService.storeEvent(new EventDto(eventId, communityId, null, null,
+                "Updated Event", "", "", null, null,
+                null, EventVisibility.PUBLIC, EventStatus.DRAFT));
+        assertThat(event.created()).isEqualTo(created);
+        assertThat(event.updated()).isAfter(created);
+        assertThat(eventService.getEvent(eventId)).hasValueSatisfying(testee -> {
+            assertThat(testee.title()).isEqualTo("Updated Event");
+            assertThat(testee.created()).isEqualTo(created);
+        });
+
+        assertThat(eventService.deleteEvent(event)).isTrue();
+    }
+
     @Test
     void getUpcomingEventsWithImages() {
         final var now = ZonedDateTime.now(ZoneOffset.UTC);
@@ -243,6 +275,76 @@ class EventServiceKT extends KaribuTest {
                 .allSatisfy(status -> assertThat(status).isIn(EventStatus.PUBLISHED, EventStatus.CANCELED));
     }
 
+    @Test
+    void getUpcomingEventsWithImagePaged() {
+        final var now = ZonedDateTime.now(ZoneOffset.UTC);
+        final var firstPage = eventService.getUpcomingEventsWithImage(null, now, null, 2);
+        assertThat(firstPage.events())
+                .extracting(EventWithImageDto::event)
+                .extracting(EventDto::title)
+                .containsExactly("Demo Event 3", "Demo Event 5");
+        assertThat(firstPage.nextCursor()).isNotNull();
+
+        final var secondPage = eventService.getUpcomingEventsWithImage(null, now, firstPage.nextCursor(), 2);
+        assertThat(secondPage.events())
+                .extracting(EventWithImageDto::event)
+                .extracting(EventDto::title)
+                .containsExactly("Demo Event 6");
+        assertThat(secondPage.nextCursor()).isNull();
+    }
+
+    @Test
+    void getPastEventsWithImagePaged() {
+        final var now = ZonedDateTime.now(ZoneOffset.UTC);
+        final var pastEvents = eventService.getPastEventsWithImage();
+        final var pagedEvents = new ArrayList<EventWithImageDto>();
+        EventCursorDto cursor = null;
+        do {
+            final var page = eventService.getPastEventsWithImage(null, now, cursor, 1);
+            assertThat(page.events()).hasSizeLessThanOrEqualTo(1);
+            pagedEvents.addAll(page.events());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        assertThat(pagedEvents).containsExactlyElementsOf(pastEvents);
+    }
+
+    @Test
+    void getEventsWithImagePagedForCommunity() {
+        final var community = communityService.getCommunities().getFirst();
+        final var upcomingEvents = eventService.getUpcomingEventsWithImage(community);
+        final var page = eventService.getUpcomingEventsWithImage(community, ZonedDateTime.now(ZoneOffset.UTC), null,
+                upcomingEvents.size() + 1);
+        assertThat(page.events()).containsExactlyElementsOf(upcomingEvents);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void getUpcomingEventsWithImagePagedUsesTheGivenNow() {
+        final var lastPastEvent = eventService.getPastEventsWithImage().getFirst().event();
+        final var end = lastPastEvent.end();
+        assertThat(end).isNotNull();
+
+        // an event which ended after the listing was started is still listed on the following pages
+        final var page = eventService.getUpcomingEventsWithImage(null, end.minusSeconds(1), null, 100);
+        assertThat(page.events())
+                .extracting(EventWithImageDto::event)
+                .contains(lastPastEvent);
+        assertThat(eventService.getPastEventsWithImage(null, end.minusSeconds(1), null, 100).events())
+                .extracting(EventWithImageDto::event)
+                .doesNotContain(lastPastEvent);
+    }
+
+    @Test
+    void getEventsWithImagePagedWithInvalidPageSize() {
+        final var now = ZonedDateTime.now(ZoneOffset.UTC);
+        assertThatThrownBy(() -> eventService.getUpcomingEventsWithImage(null, now, null, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The page size must be positive, but was 0");
+        assertThatThrownBy(() -> eventService.getPastEventsWithImage(null, now, null, -1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The page size must be positive, but was -1");
+    }
+
     @Test
     void getEventWithFallbackImage() {
         final var communityWithImage = communityService.getCommunities().stream()
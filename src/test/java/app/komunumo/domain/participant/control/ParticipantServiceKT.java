@@ -24,6 +24,7 @@ import app.komunumo.domain.core.i18n.controller.TranslationProvider;
 import app.komunumo.domain.core.mail.control.MailService;
 import app.komunumo.domain.event.control.EventService;
 import app.komunumo.domain.event.entity.EventDto;
+import app.komunumo.domain.participant.entity.ParticipantDto;
 import app.komunumo.domain.user.control.LoginService;
 import app.komunumo.domain.user.control.UserService;
 import app.komunumo.domain.user.entity.UserDto;
@@ -398,4 +399,15 @@ class ParticipantServiceKT extends KaribuTest {
         verify(mailServiceMock, never()).sendMail(any(), any(), any(), any(), any());
     }
 
+    @Test
+    void storeParticipant_twice_shouldKeepRegistration() {
+        final var participant = participantService.getAllParticipants().getFirst();
+
+        participantService.storeParticipant(new ParticipantDto(participant.eventId(), participant.userId(), null));
+
+        assertThat(participantService.getAllParticipants())
+                .hasSize(6)
+                .contains(participant);
+    }
+
 }
@@ -25,6 +25,9 @@ import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.List;
+import java.util.UUID;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
@@ -182,6 +185,36 @@ class UserServiceKT extends KaribuTest {
         assertThat(userService.getUserByEmail(email)).isEmpty();
     }
 
+    @Test
+    void storeUsers_insertsNewAndUpdatesExistingUsers() {
+        final var existingUser = userService.storeUser(new UserDto(null, null, null,
+                "@bulkExisting", "bulk-existing@example.eu", "Existing User", "", null,
+                UserRole.USER, UserType.LOCAL));
+        final var existingUserId = existingUser.id();
+        final var newUserId = UUID.randomUUID();
+        assertThat(existingUserId).isNotNull();
+
+        userService.storeUsers(List.of(
+                new UserDto(existingUserId, null, null,
+                        "@bulkExisting", "bulk-existing@example.eu", "Updated User", "", null,
+                        UserRole.USER, UserType.LOCAL),
+                new UserDto(newUserId, null, null,
+                        "@bulkNew", "bulk-new@example.eu", "New User", "", null,
+                        UserRole.USER, UserType.LOCAL)));
+
+        assertThat(userService.getUserById(existingUserId)).hasValueSatisfying(testee -> {
+            assertThat(testee.name()).isEqualTo("Updated User");
+            assertThat(testee.created()).isEqualTo(existingUser.created());
+        });
+        assertThat(userService.getUserById(newUserId)).hasValueSatisfying(testee -> {
+            assertThat(testee.name()).isEqualTo("New User");
+            assertThat(testee.created()).isNotNull();
+        });
+
+        assertThat(userService.deleteUser(existingUser)).isTrue();
+        assertThat(userService.deleteUser(userService.getUserById(newUserId).orElseThrow())).isTrue();
+    }
+
     @Test
     void changeUserType_assertFailsWhenUserIdIsNull() {
         final var user = new UserDto(null, null, null, null, null, "", "", null,
@@ -0,0 +1,93 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.jooq;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UUIDConverterTest {
+
+    private final @NotNull UUIDConverter converter = new UUIDConverter();
+
+    @Test
+    void from() {
+        final var bytes = new byte[] {
+                (byte) 0x01, (byte) 0x92, (byte) 0x3f, (byte) 0x4a, (byte) 0x5b, (byte) 0x6c, (byte) 0x7d, (byte) 0x8e,
+                (byte) 0x9f, (byte) 0xa0, (byte) 0xb1, (byte) 0xc2, (byte) 0xd3, (byte) 0xe4, (byte) 0xf5, (byte) 0x06
+        };
+        assertThat(converter.from(bytes))
+                .isEqualTo(UUID.fromString("01923f4a-5b6c-7d8e-9fa0-b1c2d3e4f506"));
+    }
+
+    @Test
+    void fromNull() {
+        assertThat(converter.from(null)).isNull();
+    }
+
+    @Test
+    void fromInvalidLength() {
+        assertThatThrownBy(() -> converter.from(new byte[8]))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("A UUID must be 16 bytes long, but got 8 bytes");
+    }
+
+    @Test
+    void to() {
+        final var uuid = UUID.fromString("01923f4a-5b6c-7d8e-9fa0-b1c2d3e4f506");
+        assertThat(converter.to(uuid))
+                .hasSize(16)
+                .startsWith((byte) 0x01, (byte) 0x92, (byte) 0x3f, (byte) 0x4a)
+                .endsWith((byte) 0xd3, (byte) 0xe4, (byte) 0xf5, (byte) 0x06);
+    }
+
+    @Test
+    void toNull() {
+        assertThat(converter.to(null)).isNull();
+    }
+
+    @Test
+    void roundTrip() {
+        final var uuid = UUID.randomUUID();
+        assertThat(converter.from(converter.to(uuid))).isEqualTo(uuid);
+    }
+
+    @Test
+    void keepsOrderOfTimeOrderedIds() {
+        final var supplier = new UniqueIdGenerator.TimeOrderedUUIDSupplier();
+        var previous = converter.to(supplier.getId());
+        for (int i = 0; i < 1_000; i++) {
+            final var next = converter.to(supplier.getId());
+            assertThat(next).isNotNull();
+            assertThat(Arrays.compareUnsigned(next, previous)).isPositive();
+            previous = next;
+        }
+    }
+
+    @Test
+    void types() {
+        assertThat(converter.fromType()).isEqualTo(byte[].class);
+        assertThat(converter.toType()).isEqualTo(UUID.class);
+    }
+
+}
@@ -20,6 +20,10 @@ package app.komunumo.jooq;
 import app.komunumo.domain.core.image.entity.ContentType;
 import app.komunumo.domain.core.image.entity.ImageDto;
 import app.komunumo.domain.core.image.control.ImageService;
+import app.komunumo.domain.user.control.UserService;
+import app.komunumo.domain.user.entity.UserDto;
+import app.komunumo.domain.user.entity.UserRole;
+import app.komunumo.domain.user.entity.UserType;
 import app.komunumo.test.KaribuTest;
 import com.github.benmanes.caffeine.cache.Cache;
 import org.jetbrains.annotations.NotNull;
@@ -50,6 +54,9 @@ class UniqueIdGeneratorKT extends KaribuTest {
     @Autowired
     private @NotNull ImageService imageService;
 
+    @Autowired
+    private @NotNull UserService userService;
+
     @Test
     void returnsGeneratedId() {
         // Arrange supplier with fixed ID
@@ -131,6 +138,58 @@ class UniqueIdGeneratorKT extends KaribuTest {
                 .isEqualTo(2);
     }
 
+    @Test
+    void skipsDatabaseCheckInLockFreeMode() {
+        final UUID existingId = UUID.randomUUID();
+        final ImageDto existingImage = new ImageDto(existingId, ContentType.IMAGE_WEBP);
+
+        try {
+            imageService.storeImage(existingImage);
+            final UniqueIdGenerator generator = new UniqueIdGenerator(dsl, () -> existingId, false);
+
+            // the primary key constraint is the safety net, the generator does not check the database
+            assertThat(generator.getUniqueID(IMAGE)).isEqualTo(existingId);
+        } finally {
+            imageService.deleteImage(existingImage);
+        }
+    }
+
+    @Test
+    void generatesTimeOrderedIds() {
+        final var supplier = new UniqueIdGenerator.TimeOrderedUUIDSupplier();
+        final var before = System.currentTimeMillis();
+
+        UUID previous = supplier.getId();
+        for (int i = 0; i < 10_000; i++) {
+            final UUID next = supplier.getId();
+            assertThat(next.version()).isEqualTo(7);
+            assertThat(next.variant()).isEqualTo(2);
+            assertThat(next.toString()).isGreaterThan(previous.toString());
+            previous = next;
+        }
+        assertThat(previous.getMostSignificantBits() >>> 16).isGreaterThanOrEqualTo(before);
+    }
+
+    @Test
+    void retriesStoringRecordWithNewIdIfGeneratedIdExists() {
+        final var existingUser = userService.storeUser(new UserDto(null, null, null, null, null,
+                "Existing User", "", null, UserRole.USER, UserType.LOCAL));
+        final UUID freshId = UUID.randomUUID();
+
+        final AtomicInteger callCount = new AtomicInteger(0);
+        final UniqueIdGenerator.IdSupplier supplier = () ->
+                callCount.getAndIncrement() == 0 ? existingUser.id() : freshId;
+        final var generator = new UniqueIdGenerator(dsl, supplier, false);
+        final var service = new UserService(dsl, generator);
+
+        final var newUser = service.storeUser(new UserDto(null, null, null, null, null,
+                "New User", "", null, UserRole.USER, UserType.LOCAL));
+
+        assertThat(newUser.id()).isEqualTo(freshId);
+        assertThat(callCount.get()).isEqualTo(2);
+        assertThat(userService.getUserById(existingUser.id()).orElseThrow().name()).isEqualTo("Existing User");
+    }
+
     @Test
     void throwsExceptionIfTableHasNoIdField() {
         // Arrange: generator with default UUID supplier
@@ -139,7 +198,7 @@ class UniqueIdGeneratorKT extends KaribuTest {
         // Act + Assert
         assertThatThrownBy(() -> generator.getUniqueID(CONFIG))
                 .isInstanceOf(IllegalArgumentException.class)
-                .hasMessageContaining("Table 'config' does not have a String 'id' field");
+                .hasMessageContaining("Table 'config' does not have a UUID 'id' field");
     }
 
     @Test
@@ -22,6 +22,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -33,12 +38,33 @@ class DownloadUtilTest {
         assertThat(string).startsWith("body::after {").endsWith("}");
     }
 
+    @Test
+    void getFile() throws Exception {
+        final var path = DownloadUtil.getFile("http://localhost:8082/custom-styles/styles.css");
+        try {
+            assertThat(Files.readString(path).trim()).startsWith("body::after {").endsWith("}");
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
     @Test
     void downloadFileSuccess() {
         final var path = DownloadUtil.downloadFile("http://localhost:8082/custom-styles/styles.css");
         assertThat(path).isNotNull().exists();
     }
 
+    @Test
+    void downloadFileReleasesPermitsAfterFailedAttempts() {
+        final var hostPermits = new Semaphore(1);
+        final var permits = new Semaphore(2);
+        assertThatThrownBy(() -> DownloadUtil.downloadFile("http://localhost:8888/", 3, Duration.ofMillis(10),
+                List.of(hostPermits, permits)))
+                .isInstanceOf(KomunumoException.class);
+        assertThat(hostPermits.availablePermits()).isEqualTo(1);
+        assertThat(permits.availablePermits()).isEqualTo(2);
+    }
+
     @ParameterizedTest
     @ValueSource(strings = {
             "http://localhost:8082/99",
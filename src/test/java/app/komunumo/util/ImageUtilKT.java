@@ -51,6 +51,8 @@ class ImageUtilKT extends KaribuTest {
         final var imageId = UUID.randomUUID();
         final var imageWithId = new ImageDto(imageId, ContentType.IMAGE_WEBP);
         assertThat(ImageUtil.resolveImageUrl(imageWithId)).isEqualTo("/images/" + imageId + ".webp");
+        assertThat(ImageUtil.resolveImageUrl(imageWithId, 480)).isEqualTo("/images/" + imageId + ".webp?w=480");
+        assertThat(ImageUtil.resolveImageUrl(null, 480)).isNull();
     }
 
     @Test
@@ -67,6 +69,20 @@ class ImageUtilKT extends KaribuTest {
         assertThat(path.toString()).endsWith(separator + "images" + separator + getSubFolder(imageId) + separator + imageId + ".webp");
     }
 
+    @Test
+    void resolveImageVariantPath() {
+        assertThat(ImageUtil.resolveImageVariantPath(null, 480, ContentType.IMAGE_JPEG)).isNull();
+
+        final var imageWithoutId = new ImageDto(null, ContentType.IMAGE_WEBP);
+        assertThat(ImageUtil.resolveImageVariantPath(imageWithoutId, 480, ContentType.IMAGE_JPEG)).isNull();
+
+        final var imageId = UUID.randomUUID();
+        final var imageWithId = new ImageDto(imageId, ContentType.IMAGE_PNG);
+        final var path = ImageUtil.resolveImageVariantPath(imageWithId, 480, ContentType.IMAGE_JPEG);
+        assertThat(path).isNotNull();
+        assertThat(path.toString()).endsWith(separator + getSubFolder(imageId) + separator + imageId + "-w480.jpg");
+    }
+
     private static String getSubFolder(final @NotNull UUID imageId) {
         final String id = imageId.toString();
         final String prefix1 = id.substring(0, 2);
@@ -119,6 +135,23 @@ class ImageUtilKT extends KaribuTest {
         }
     }
 
+    @Test
+    void readImageAttributes() {
+        assertThat(ImageUtil.readImageAttributes(null)).isEmpty();
+
+        final var imageWithoutId = new ImageDto(null, ContentType.IMAGE_SVG);
+        assertThat(ImageUtil.readImageAttributes(imageWithoutId)).isEmpty();
+
+        final var imageWithRandomId = new ImageDto(UUID.randomUUID(), ContentType.IMAGE_SVG);
+        assertThat(ImageUtil.readImageAttributes(imageWithRandomId)).isEmpty();
+
+        final var existingImageId = imageService.getImages().getFirst().id();
+        final var imageWithExistingId = new ImageDto(existingImageId, ContentType.IMAGE_SVG);
+        final var attributes = ImageUtil.readImageAttributes(imageWithExistingId);
+        assertThat(attributes).isNotEmpty();
+        assertThat(attributes.orElseThrow().isRegularFile()).isTrue();
+    }
+
     @Test
     void extractImageIdFromUrl() {
         assertThat(ImageUtil.extractImageIdFromUrl("")).isNull();
@@ -130,6 +163,21 @@ class ImageUtilKT extends KaribuTest {
                 .isEqualTo(UUID.fromString("afc3478d-2c92-41b5-b89f-2a9111d79c73"));
     }
 
+    @Test
+    void hashImage() throws IOException {
+        final var path = Files.writeString(Files.createTempFile("hash-", ".txt"), "abc");
+        assertThat(ImageUtil.hashImage(path))
+                .isEqualTo("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+        Files.delete(path);
+    }
+
+    @Test
+    void resolveImageBlobPath() {
+        final var hash = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+        assertThat(ImageUtil.resolveImageBlobPath(hash).toString())
+                .endsWith(separator + "blobs" + separator + "ba" + separator + "78" + separator + hash);
+    }
+
     @Test
     void storeImageWithException() {
         final var imageWithoutId = new ImageDto(null, ContentType.IMAGE_WEBP);
@@ -23,6 +23,8 @@ import app.komunumo.domain.core.config.entity.FilesConfig;
 import app.komunumo.domain.core.config.entity.InstanceConfig;
 import app.komunumo.domain.core.config.entity.MailConfig;
 import app.komunumo.domain.core.image.control.ImageService;
+import app.komunumo.domain.core.image.entity.ContentType;
+import app.komunumo.domain.core.image.entity.ImageDto;
 import nl.altindag.log.LogCaptor;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.BeforeEach;
@@ -56,7 +58,7 @@ class ImageUtilTest {
     @BeforeEach
     void setUp() {
         final var demoConfig = new DemoConfig(false, "");
-        final var filesConfig = new FilesConfig(tempDir);
+        final var filesConfig = new FilesConfig(tempDir, null);
         final var mailConfig = new MailConfig("noreply@foo.bar", "support@foo.bar");
         final var instanceConfig = new InstanceConfig("admin@foo.bar");
         final var appConfig = new AppConfig("0.0.0", demoConfig, filesConfig, instanceConfig, mailConfig);
@@ -93,6 +95,85 @@ class ImageUtilTest {
         assertThat(Files.exists(knownDir)).isTrue();   // contains known file → remains
     }
 
+    @Test
+    void shouldDeleteVariantsOfOrphanedImages() throws IOException {
+        final var known = UUID.randomUUID();
+        final var orphan = UUID.randomUUID();
+
+        final var knownDir = Files.createDirectories(uploadImagePath
+                .resolve(known.toString().substring(0, 2))
+                .resolve(known.toString().substring(2, 4)));
+        final var orphanDir = Files.createDirectories(uploadImagePath
+                .resolve(orphan.toString().substring(0, 2))
+                .resolve(orphan.toString().substring(2, 4)));
+
+        final var knownVariant = Files.createFile(knownDir.resolve(known + "-w480.jpg"));
+        final var orphanVariant = Files.createFile(orphanDir.resolve(orphan + "-w480.jpg"));
+
+        final var imageService = mock(ImageService.class);
+        when(imageService.getAllImageIds()).thenReturn(List.of(known));
+
+        ImageUtil.cleanupOrphanedImageFiles(imageService);
+
+        assertThat(Files.exists(knownVariant)).isTrue();
+        assertThat(Files.exists(orphanVariant)).isFalse();
+    }
+
+    @Test
+    void shouldCleanupShardsIncrementally() throws IOException {
+        final var firstDir = Files.createDirectories(uploadImagePath.resolve("0a/0b"));
+        final var secondDir = Files.createDirectories(uploadImagePath.resolve("fa/fb"));
+        final var firstOrphan = Files.createFile(firstDir.resolve("0a0b0000-0000-0000-0000-000000000000.jpg"));
+        final var secondOrphan = Files.createFile(secondDir.resolve("fafb0000-0000-0000-0000-000000000000.jpg"));
+        final var checkpoint = uploadImagePath.resolveSibling(".images-cleanup-checkpoint");
+
+        final var imageService = mock(ImageService.class);
+        when(imageService.getAllImageIds()).thenReturn(List.of());
+
+        ImageUtil.cleanupOrphanedImageFiles(imageService, 1);
+        assertThat(firstOrphan).doesNotExist();
+        assertThat(secondOrphan).exists();
+        assertThat(Files.readAllLines(checkpoint)).containsExactly("0a");
+
+        ImageUtil.cleanupOrphanedImageFiles(imageService, 1);
+        assertThat(secondOrphan).doesNotExist();
+        assertThat(checkpoint).doesNotExist(); // all shards processed → next run starts over
+    }
+
+    @Test
+    void shouldKeepFilesOfImagesStoredDuringCleanup() throws IOException {
+        final var image = new ImageDto(UUID.randomUUID(), ContentType.IMAGE_JPEG);
+        final var path = ImageUtil.resolveImagePath(image);
+        assertThat(path).isNotNull();
+        Files.createDirectories(path.getParent());
+        Files.createFile(path);
+
+        final var imageService = mock(ImageService.class);
+        when(imageService.getAllImageIds()).thenReturn(List.of());
+        when(imageService.existsImage(image.id())).thenReturn(true);
+
+        ImageUtil.cleanupOrphanedImageFiles(imageService);
+
+        assertThat(path).exists();
+    }
+
+    @Test
+    void shouldDeleteImageVariants() throws IOException {
+        final var image = new ImageDto(UUID.randomUUID(), ContentType.IMAGE_PNG);
+        final var original = ImageUtil.resolveImagePath(image);
+        assertThat(original).isNotNull();
+        Files.createDirectories(original.getParent());
+        Files.createFile(original);
+        final var variant1 = Files.createFile(ImageUtil.resolveImageVariantPath(image, 480, ContentType.IMAGE_PNG));
+        final var variant2 = Files.createFile(ImageUtil.resolveImageVariantPath(image, 960, ContentType.IMAGE_JPEG));
+
+        ImageUtil.deleteImageVariants(image);
+
+        assertThat(Files.exists(original)).isTrue();
+        assertThat(Files.exists(variant1)).isFalse();
+        assertThat(Files.exists(variant2)).isFalse();
+    }
+
     @Test
     void shouldSkipInvalidUuidFilenames() throws IOException {
         final var dir = Files.createDirectories(uploadImagePath.resolve("xx/yy"));